@@ -1,11 +1,16 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AttendanceDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.AttendanceService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,10 +21,43 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
     
+    @Autowired
+    private CourseETags courseETags;
+    
+    /**
+     * Lista completa de asistencias del curso, escrita en streaming a medida que se leen las filas.
+     */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<AttendanceDTO>> getAttendancesByCourse(@PathVariable Long courseId) {
-        List<AttendanceDTO> attendances = attendanceService.getAttendancesByCourse(courseId);
-        return ResponseEntity.ok(attendances);
+    public ResponseEntity<StreamingResponseBody> getAttendancesByCourse(
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        if (courseETags.checkNotModified(webRequest, courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        StreamingResponseBody attendances = attendanceService.streamAttendancesByCourse(courseId);
+        return ResponseEntity.ok()
+                .cacheControl(CourseETags.REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(attendances);
+    }
+    
+    /**
+     * Asistencias del curso con paginación por cursor, ordenadas por fecha e ID.
+     * La primera página se pide con ?cursor= y las siguientes con el nextCursor recibido
+     * (limit por defecto 20, máximo 100; count=true agrega el total).
+     */
+    @GetMapping(value = "/course/{courseId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<AttendanceDTO>> getAttendancesByCourseWithCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest webRequest) {
+        if (courseETags.checkNotModified(webRequest, courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        CursorPageDTO<AttendanceDTO> page = attendanceService.getAttendancesByCourse(courseId, cursor, limit, count);
+        return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(page);
     }
     
     @GetMapping("/student/{studentId}")
@@ -45,19 +83,27 @@ public class AttendanceController {
     @GetMapping("/student/{studentId}/course/{courseId}/percentage")
     public ResponseEntity<Double> getAttendancePercentage(
             @PathVariable Long studentId,
-            @PathVariable Long courseId) {
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        if (courseETags.checkNotModified(webRequest, courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         Double percentage = attendanceService.calculateAttendancePercentage(studentId, courseId);
-        return ResponseEntity.ok(percentage);
+        return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(percentage);
     }
     
     @GetMapping("/course/{courseId}/averages")
     public ResponseEntity<?> getAttendanceAverages(
             @PathVariable Long courseId,
-            @RequestParam(required = false) Long subjectId) {
+            @RequestParam(required = false) Long subjectId,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             List<com.gestion.docente.backend.Gestion.Docente.Backend.dto.AttendanceAverageDTO> averages = 
                 attendanceService.getAttendanceAverages(courseId, subjectId);
-            return ResponseEntity.ok(averages);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(averages);
         } catch (IllegalArgumentException e) {
             java.util.Map<String, String> error = new java.util.HashMap<>();
             error.put("error", e.getMessage());
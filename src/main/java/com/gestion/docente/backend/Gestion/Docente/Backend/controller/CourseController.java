@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseService;
 import jakarta.validation.Valid;
@@ -49,6 +50,32 @@ public class CourseController {
         }
     }
     
+    /**
+     * GET /api/courses?cursor=
+     * Obtiene los cursos no archivados del profesor autenticado ordenados por ID.
+     * Paginación por cursor: la primera página se pide con cursor vacío (?cursor=) y las siguientes
+     * con el nextCursor de la respuesta anterior. limit (por defecto 20, máximo 100);
+     * con count=true también se devuelve el total.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<?> getAllCoursesWithCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        try {
+            CursorPageDTO<CourseDTO> page = courseService.getAllCourses(cursor, limit, count);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener los cursos: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * GET /api/courses/{id}
      * Obtiene un curso por ID.
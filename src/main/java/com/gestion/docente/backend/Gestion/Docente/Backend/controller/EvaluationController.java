@@ -19,9 +19,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseETags;
 
 import jakarta.validation.Valid;
 
@@ -32,6 +36,9 @@ public class EvaluationController {
     @Autowired
     private EvaluationService evaluationService;
     
+    @Autowired
+    private CourseETags courseETags;
+    
     /**
      * GET /api/evaluations/course/{courseId}
      * Obtiene todas las evaluaciones de un curso.
@@ -41,18 +48,53 @@ public class EvaluationController {
     public ResponseEntity<?> getEvaluationsByCourse(
             @PathVariable Long courseId,
             @PageableDefault(size = 20, sort = "date", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable,
-            @RequestParam(required = false) Boolean paginated) {
+            @RequestParam(required = false) Boolean paginated,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             // Si se solicita paginación explícitamente o si se proporcionan parámetros de paginación (page, size)
             if (Boolean.TRUE.equals(paginated) || 
                 (pageable.getPageNumber() > 0 || pageable.getPageSize() != 20)) {
                 Page<EvaluationDTO> evaluationsPage = evaluationService.getEvaluationsByCourse(courseId, pageable);
-                return ResponseEntity.ok(evaluationsPage);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(evaluationsPage);
             } else {
                 // Retornar lista completa para compatibilidad hacia atrás
                 List<EvaluationDTO> evaluations = evaluationService.getEvaluationsByCourse(courseId);
-                return ResponseEntity.ok(evaluations);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(evaluations);
+            }
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener las evaluaciones: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/evaluations/course/{courseId}?cursor=
+     * Obtiene las evaluaciones de un curso ordenadas por fecha e ID.
+     * Paginación por cursor: la primera página se pide con cursor vacío (?cursor=) y las siguientes
+     * con el nextCursor de la respuesta anterior. limit (por defecto 20, máximo 100);
+     * con count=true también se devuelve el total.
+     */
+    @GetMapping(value = "/course/{courseId}", params = "cursor")
+    public ResponseEntity<?> getEvaluationsByCourseWithCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
             }
+            CursorPageDTO<EvaluationDTO> page = evaluationService.getEvaluationsByCourse(courseId, cursor, limit, count);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(page);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -64,6 +106,34 @@ public class EvaluationController {
         }
     }
     
+    /**
+     * GET /api/evaluations/{id}/statistics?bins=10&percentiles=25,50,75,90
+     * Obtiene estadísticas de las notas de una evaluación: cantidad, media, mediana, desvío estándar,
+     * mínimo/máximo, percentiles e histograma. Las notas categóricas se cuentan con el valor de su escala.
+     */
+    @GetMapping("/{id}/statistics")
+    public ResponseEntity<?> getEvaluationStatistics(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer bins,
+            @RequestParam(required = false) List<Double> percentiles,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModifiedForEvaluation(webRequest, id)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            GradeStatisticsDTO statistics = evaluationService.getEvaluationStatistics(id, bins, percentiles);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(statistics);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener las estadísticas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * POST /api/evaluations
      * Crea una nueva evaluación
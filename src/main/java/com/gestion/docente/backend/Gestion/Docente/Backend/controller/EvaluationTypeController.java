@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationTypeDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationTypeService;
 import jakarta.validation.Valid;
@@ -28,6 +29,25 @@ public class EvaluationTypeController {
         }
     }
     
+    /**
+     * Tipos de evaluación del curso con paginación por cursor, ordenados por ID.
+     * La primera página se pide con ?cursor= y las siguientes con el nextCursor recibido
+     * (limit por defecto 20, máximo 100; count=true agrega el total).
+     */
+    @GetMapping(value = "/course/{courseId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<EvaluationTypeDTO>> getEvaluationTypesByCourseWithCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        try {
+            CursorPageDTO<EvaluationTypeDTO> page = evaluationTypeService.getEvaluationTypesByCourse(courseId, cursor, limit, count);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<?> createEvaluationType(@Valid @RequestBody EvaluationTypeDTO evaluationTypeDTO) {
         try {
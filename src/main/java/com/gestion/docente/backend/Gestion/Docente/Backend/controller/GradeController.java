@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,11 +19,30 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AcademicStatus;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseRankingDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseStatusReportDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveAckDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformResultDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentAverageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentGroupedAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeAutosaveService;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseETags;
 
 import jakarta.validation.Valid;
 
@@ -33,27 +53,90 @@ public class GradeController {
     @Autowired
     private GradeService gradeService;
     
+    @Autowired
+    private CourseETags courseETags;
+    
+    @Autowired
+    private GradeAutosaveService gradeAutosaveService;
+    
     /**
      * GET /api/grades/course/{courseId}
      * Obtiene todas las notas de un curso.
      * Soporta paginación con parámetros opcionales: ?page=0&size=10&sort=id,asc
+     * Sin ningún parámetro de paginación atiende streamGradesByCourse.
      */
     @GetMapping("/course/{courseId}")
     public ResponseEntity<?> getGradesByCourse(
             @PathVariable Long courseId,
             @PageableDefault(size = 20, sort = "id") Pageable pageable,
-            @RequestParam(required = false) Boolean paginated) {
+            @RequestParam(required = false) Boolean paginated,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             // Si se solicita paginación explícitamente o si se proporcionan parámetros de paginación (page, size)
             if (Boolean.TRUE.equals(paginated) || 
                 (pageable.getPageNumber() > 0 || pageable.getPageSize() != 20)) {
                 Page<GradeDTO> gradesPage = gradeService.getGradesByCourse(courseId, pageable);
-                return ResponseEntity.ok(gradesPage);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(gradesPage);
             } else {
                 // Retornar lista completa para compatibilidad hacia atrás
                 List<GradeDTO> grades = gradeService.getGradesByCourse(courseId);
-                return ResponseEntity.ok(grades);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(grades);
+            }
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener las notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/grades/course/{courseId} (sin parámetros de paginación)
+     * Obtiene todas las notas de un curso escribiendo la lista en streaming, a medida que se
+     * leen las filas, para no cargar en memoria todas las notas del curso.
+     * Los errores (curso inexistente o de otro profesor) los resuelve GlobalExceptionHandler,
+     * porque se detectan antes de empezar a escribir la respuesta.
+     */
+    @GetMapping(value = "/course/{courseId}", params = {"!paginated", "!page", "!size", "!cursor"})
+    public ResponseEntity<StreamingResponseBody> streamGradesByCourse(
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        if (courseETags.checkNotModified(webRequest, courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        StreamingResponseBody grades = gradeService.streamGradesByCourse(courseId);
+        return ResponseEntity.ok()
+                .cacheControl(CourseETags.REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(grades);
+    }
+    
+    /**
+     * GET /api/grades/course/{courseId}?cursor=
+     * Obtiene las notas de un curso ordenadas por ID.
+     * Paginación por cursor: la primera página se pide con cursor vacío (?cursor=) y las siguientes
+     * con el nextCursor de la respuesta anterior. limit (por defecto 20, máximo 100);
+     * con count=true también se devuelve el total.
+     */
+    @GetMapping(value = "/course/{courseId}", params = "cursor")
+    public ResponseEntity<?> getGradesByCourseWithCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
             }
+            CursorPageDTO<GradeDTO> page = gradeService.getGradesByCourse(courseId, cursor, limit, count);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(page);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -74,17 +157,21 @@ public class GradeController {
     public ResponseEntity<?> getGradesByEvaluation(
             @PathVariable Long evaluationId,
             @PageableDefault(size = 20, sort = "id") Pageable pageable,
-            @RequestParam(required = false) Boolean paginated) {
+            @RequestParam(required = false) Boolean paginated,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModifiedForEvaluation(webRequest, evaluationId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             // Si se solicita paginación explícitamente o si se proporcionan parámetros de paginación (page, size)
             if (Boolean.TRUE.equals(paginated) || 
                 (pageable.getPageNumber() > 0 || pageable.getPageSize() != 20)) {
                 Page<GradeDTO> gradesPage = gradeService.getGradesByEvaluation(evaluationId, pageable);
-                return ResponseEntity.ok(gradesPage);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(gradesPage);
             } else {
                 // Retornar lista completa para compatibilidad hacia atrás
                 List<GradeDTO> grades = gradeService.getGradesByEvaluation(evaluationId);
-                return ResponseEntity.ok(grades);
+                return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(grades);
             }
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
@@ -97,6 +184,37 @@ public class GradeController {
         }
     }
     
+    /**
+     * GET /api/grades/evaluation/{evaluationId}?cursor=
+     * Obtiene las notas de una evaluación ordenadas por ID.
+     * Paginación por cursor: la primera página se pide con cursor vacío (?cursor=) y las siguientes
+     * con el nextCursor de la respuesta anterior. limit (por defecto 20, máximo 100);
+     * con count=true también se devuelve el total.
+     */
+    @GetMapping(value = "/evaluation/{evaluationId}", params = "cursor")
+    public ResponseEntity<?> getGradesByEvaluationWithCursor(
+            @PathVariable Long evaluationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModifiedForEvaluation(webRequest, evaluationId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            CursorPageDTO<GradeDTO> page = gradeService.getGradesByEvaluation(evaluationId, cursor, limit, count);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener las notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * POST /api/grades
      * Crea o actualiza una nota.
@@ -119,6 +237,118 @@ public class GradeController {
         }
     }
     
+    /**
+     * POST /api/grades/bulk
+     * Crea o actualiza varias notas de un curso en una sola petición
+     * (una evaluación completa o la planilla completa del curso).
+     * Retorna el resultado de cada fila; las filas inválidas no se guardan.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> saveGradesBulk(@Valid @RequestBody BulkGradeRequestDTO request) {
+        try {
+            BulkGradeResultDTO result = gradeService.saveGradesBulk(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al guardar las notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * POST /api/grades/evaluation/{evaluationId}/transform
+     * Transforma todas las notas de una evaluación en una sola operación:
+     * ADD (suma value), SCALE (la nota más alta pasa a valer value, por defecto 10),
+     * CLAMP (acota a [min, max]) o MAP_SCALE (convierte las notas categóricas con los valores de la escala).
+     * Si alguna nota quedaría fuera de 0-10 se rechaza, salvo que se envíe clamp = true.
+     */
+    @PostMapping("/evaluation/{evaluationId}/transform")
+    public ResponseEntity<?> transformGrades(
+            @PathVariable Long evaluationId,
+            @Valid @RequestBody GradeTransformRequestDTO request) {
+        try {
+            GradeTransformResultDTO result = gradeService.transformGrades(evaluationId, request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al transformar las notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * POST /api/grades/autosave
+     * Autoguardado opcional para planillas que guardan en cada cambio: la nota se recibe en memoria
+     * y se guarda junto con las demás del curso en el próximo lote (202 Accepted). Varias escrituras
+     * de la misma celda antes del guardado se combinan y solo se guarda la última.
+     * La respuesta trae la secuencia de la nota; está guardada cuando GET /api/grades/autosave/course/{courseId}
+     * informa appliedThrough >= sequence con el mismo epoch y la secuencia no figura en failures.
+     */
+    @PostMapping("/autosave")
+    public ResponseEntity<?> autosaveGrade(@Valid @RequestBody GradeDTO gradeDTO) {
+        try {
+            GradeAutosaveAckDTO ack = gradeAutosaveService.autosaveGrade(gradeDTO);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ack);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al autoguardar la nota: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/grades/autosave/course/{courseId}
+     * Obtiene el estado del autoguardado del curso: hasta qué secuencia está guardado,
+     * cuántas notas quedan pendientes y las notas rechazadas.
+     */
+    @GetMapping("/autosave/course/{courseId}")
+    public ResponseEntity<?> getAutosaveStatus(@PathVariable Long courseId) {
+        try {
+            GradeAutosaveStatusDTO status = gradeAutosaveService.getStatus(courseId);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener el estado del autoguardado: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * POST /api/grades/autosave/course/{courseId}/flush
+     * Guarda en el momento las notas autoguardadas pendientes del curso y devuelve el estado resultante.
+     */
+    @PostMapping("/autosave/course/{courseId}/flush")
+    public ResponseEntity<?> flushAutosave(@PathVariable Long courseId) {
+        try {
+            GradeAutosaveStatusDTO status = gradeAutosaveService.flush(courseId);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al guardar las notas pendientes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * PUT /api/grades/{id}
      * Actualiza una nota existente por ID.
@@ -146,10 +376,15 @@ public class GradeController {
      * Si un estudiante no tiene notas, el promedio será null y hasGrades será false.
      */
     @GetMapping("/course/{courseId}/averages")
-    public ResponseEntity<?> getAveragesByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<?> getAveragesByCourse(
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             List<StudentAverageDTO> averages = gradeService.getAveragesByCourse(courseId);
-            return ResponseEntity.ok(averages);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(averages);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -161,6 +396,137 @@ public class GradeController {
         }
     }
     
+    /**
+     * GET /api/grades/course/{courseId}/statistics?bins=10&percentiles=25,50,75,90
+     * Obtiene estadísticas de todas las notas del curso: cantidad, media, mediana, desvío estándar,
+     * mínimo/máximo, percentiles e histograma. Las notas categóricas se cuentan con el valor de su escala.
+     */
+    @GetMapping("/course/{courseId}/statistics")
+    public ResponseEntity<?> getCourseStatistics(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) Integer bins,
+            @RequestParam(required = false) List<Double> percentiles,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            GradeStatisticsDTO statistics = gradeService.getCourseStatistics(courseId, bins, percentiles);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(statistics);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener las estadísticas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/grades/course/{courseId}/status-report?status=QUALIFIED,FAILING&atRisk=true
+     * Clasifica a todos los estudiantes del curso como aprobados (APPROVED), habilitados (QUALIFIED)
+     * o desaprobados (FAILING), en general y por tipo de evaluación. Los estudiantes sin notas quedan
+     * como NO_GRADES. Con status y atRisk se filtran los estudiantes devueltos; el resumen es de todo el curso.
+     */
+    @GetMapping("/course/{courseId}/status-report")
+    public ResponseEntity<?> getStatusReport(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) List<AcademicStatus> status,
+            @RequestParam(required = false) Boolean atRisk,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            CourseStatusReportDTO report = gradeService.getStatusReport(courseId, status, atRisk);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener el reporte de situación: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * POST /api/grades/student/{studentId}/course/{courseId}/simulate
+     * Simula los promedios del estudiante con notas hipotéticas (no se guardan) y calcula la nota
+     * mínima para aprobar en cada evaluación de solveFor, o en las que siguen sin nota si no se indica.
+     * Body: { "grades": [{ "evaluationId": 1, "grade": 7.5 }], "solveFor": [2] }
+     */
+    @PostMapping("/student/{studentId}/course/{courseId}/simulate")
+    public ResponseEntity<?> simulateGrades(
+            @PathVariable Long studentId,
+            @PathVariable Long courseId,
+            @Valid @RequestBody GradeSimulationRequestDTO request) {
+        try {
+            GradeSimulationResultDTO result = gradeService.simulateGrades(studentId, courseId, request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al simular las notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/grades/course/{courseId}/changes?since=<cursor>&limit=1000
+     * Sincronización incremental: sin since devuelve todas las notas del curso y un cursor;
+     * con since, solo las notas que cambiaron desde entonces (DELETE para las eliminadas).
+     * Si hasMore es true, se vuelve a pedir con el cursor devuelto.
+     */
+    @GetMapping("/course/{courseId}/changes")
+    public ResponseEntity<?> getGradeChanges(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            GradeChangesDTO changes = gradeService.getGradeChanges(courseId, since, limit);
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener los cambios de notas: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * POST /api/grades/course/{courseId}/averages/rebuild
+     * Recalcula desde las notas los promedios guardados de todos los estudiantes de un curso.
+     */
+    @PostMapping("/course/{courseId}/averages/rebuild")
+    public ResponseEntity<?> rebuildAverages(@PathVariable Long courseId) {
+        try {
+            int studentsCount = gradeService.rebuildAverages(courseId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("courseId", courseId);
+            response.put("studentsCount", studentsCount);
+            response.put("message", "Promedios recalculados correctamente");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al recalcular los promedios: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * GET /api/grades/student/{studentId}/course/{courseId}/average
      * Calcula el promedio de notas de un estudiante en un curso.
@@ -169,8 +535,12 @@ public class GradeController {
     public ResponseEntity<?> calculateAverage(
             @PathVariable Long studentId, 
             @PathVariable Long courseId,
-            @RequestParam(required = false) Long subjectId) {
+            @RequestParam(required = false) Long subjectId,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             Double average = gradeService.calculateAverage(studentId, courseId, subjectId);
             Map<String, Object> response = new HashMap<>();
             if (average != null) {
@@ -183,7 +553,7 @@ public class GradeController {
                 response.put("studentId", studentId);
                 response.put("courseId", courseId);
             }
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(response);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -201,10 +571,13 @@ public class GradeController {
      * Calcula el promedio de cada grupo de evaluaciones del mismo tipo y el promedio final.
      */
     @GetMapping("/student/{studentId}/course/{courseId}/grouped-averages")
-    public ResponseEntity<?> getGroupedAverages(@PathVariable Long studentId, @PathVariable Long courseId) {
+    public ResponseEntity<?> getGroupedAverages(@PathVariable Long studentId, @PathVariable Long courseId, WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             StudentGroupedAveragesDTO result = gradeService.getGroupedAverages(studentId, courseId);
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(result);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -221,10 +594,15 @@ public class GradeController {
      * Obtiene los promedios agrupados por tipo de evaluación para todos los estudiantes de un curso.
      */
     @GetMapping("/course/{courseId}/grouped-averages")
-    public ResponseEntity<?> getGroupedAveragesByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<?> getGroupedAveragesByCourse(
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
         try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             List<StudentGroupedAveragesDTO> results = gradeService.getGroupedAveragesByCourse(courseId);
-            return ResponseEntity.ok(results);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(results);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -235,5 +613,61 @@ public class GradeController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+    
+    /**
+     * GET /api/grades/course/{courseId}/subject-averages
+     * Obtiene el promedio de cada estudiante en cada materia del curso, en una sola consulta agregada.
+     */
+    @GetMapping("/course/{courseId}/subject-averages")
+    public ResponseEntity<?> getSubjectAveragesByCourse(
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            List<SubjectAveragesDTO> results = gradeService.getSubjectAveragesByCourse(courseId);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener los promedios por materia: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/grades/course/{courseId}/ranking?k=10&evaluationTypeId=1&subjectId=2&quartile=1
+     * Obtiene los k estudiantes con mejor y con peor promedio final del curso, calculados en el servidor.
+     * Con evaluationTypeId se ordena por el promedio de ese tipo y con subjectId solo se consideran las
+     * evaluaciones de esa materia. Con quartile (1 a 4) se incluyen los estudiantes de ese cuartil.
+     */
+    @GetMapping("/course/{courseId}/ranking")
+    public ResponseEntity<?> getCourseRanking(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Long evaluationTypeId,
+            @RequestParam(required = false) Long subjectId,
+            @RequestParam(required = false) Integer quartile,
+            WebRequest webRequest) {
+        try {
+            if (courseETags.checkNotModified(webRequest, courseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            CourseRankingDTO ranking = gradeService.getCourseRanking(courseId, k, evaluationTypeId, subjectId, quartile);
+            return ResponseEntity.ok().cacheControl(CourseETags.REVALIDATE).body(ranking);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener el ranking: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 }
 
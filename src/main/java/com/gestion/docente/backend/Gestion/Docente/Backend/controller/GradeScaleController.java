@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeScaleDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeScaleService;
 import jakarta.validation.Valid;
@@ -30,6 +31,27 @@ public class GradeScaleController {
         }
     }
     
+    /**
+     * Escalas de notas con paginación por cursor, ordenadas por ID.
+     * La primera página se pide con ?cursor= y las siguientes con el nextCursor recibido
+     * (limit por defecto 20, máximo 100; count=true agrega el total).
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<GradeScaleDTO>> getGradeScalesWithCursor(
+            @RequestParam(required = false) Boolean global,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        try {
+            CursorPageDTO<GradeScaleDTO> page = gradeScaleService.getGradeScales(global, cursor, limit, count);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<?> createGradeScale(@Valid @RequestBody GradeScaleDTO gradeScaleDTO) {
         try {
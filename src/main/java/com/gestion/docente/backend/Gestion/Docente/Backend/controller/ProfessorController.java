@@ -121,6 +121,18 @@ public class ProfessorController {
         }
     }
     
+    // Aciertos y fallos de la caché de cursos por profesor usada para validar el ownership (solo administradores)
+    @GetMapping("/cache/owned-courses")
+    public ResponseEntity<?> getOwnedCourseCacheStats() {
+        try {
+            return ResponseEntity.ok(professorService.getOwnedCourseCacheStats());
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+    }
+    
     @GetMapping("/email-exists")
     public ResponseEntity<Boolean> emailExists(@RequestParam String email) {
         boolean exists = professorService.emailExists(email);
@@ -1,5 +1,7 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentCourseHistoryDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.StudentService;
 import jakarta.validation.Valid;
@@ -40,6 +42,56 @@ public class  StudentController {
         }
     }
     
+    /**
+     * GET /api/students/course/{courseId}?cursor=
+     * Obtiene los estudiantes de un curso ordenados por ID.
+     * Paginación por cursor: la primera página se pide con cursor vacío (?cursor=) y las siguientes
+     * con el nextCursor de la respuesta anterior. limit (por defecto 20, máximo 100);
+     * con count=true también se devuelve el total.
+     */
+    @GetMapping(value = "/course/{courseId}", params = "cursor")
+    public ResponseEntity<?> getStudentsByCourseWithCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        try {
+            CursorPageDTO<StudentDTO> page = studentService.getStudentsByCourse(courseId, cursor, limit, count);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener los estudiantes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * GET /api/students/history?document=...  (o ?email=...)
+     * Obtiene el historial de un estudiante en todos los cursos del profesor autenticado:
+     * una entrada por curso con su promedio final y porcentaje de asistencia.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getStudentHistory(
+            @RequestParam(required = false) String document,
+            @RequestParam(required = false) String email) {
+        try {
+            List<StudentCourseHistoryDTO> history = studentService.getStudentHistory(document, email);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Error al obtener el historial del estudiante: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     /**
      * POST /api/students
      * Agrega un nuevo estudiante a un curso.
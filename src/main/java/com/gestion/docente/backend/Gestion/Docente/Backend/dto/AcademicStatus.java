@@ -0,0 +1,11 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+/**
+ * Situación de un estudiante respecto de las notas mínimas del curso o de las evaluaciones.
+ */
+public enum AcademicStatus {
+    APPROVED,   // Promedio mayor o igual a la nota de aprobación
+    QUALIFIED,  // No aprueba pero alcanza la nota de habilitación
+    FAILING,    // Por debajo de la nota de habilitación (o de aprobación si no hay habilitación)
+    NO_GRADES   // Sin notas con valor numérico
+}
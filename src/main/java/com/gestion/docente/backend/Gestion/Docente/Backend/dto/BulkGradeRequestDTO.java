@@ -0,0 +1,27 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para guardar varias notas de un curso en una sola petición.
+ * Sirve tanto para una columna completa (todas las notas de una evaluación)
+ * como para una planilla completa (estudiantes × evaluaciones).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeRequestDTO {
+    
+    @NotNull(message = "El ID del curso es obligatorio")
+    private Long courseId;
+    
+    // Cada fila se valida por separado: las filas inválidas se informan en el resultado
+    @NotEmpty(message = "La lista de notas no puede estar vacía")
+    private List<GradeDTO> grades;
+}
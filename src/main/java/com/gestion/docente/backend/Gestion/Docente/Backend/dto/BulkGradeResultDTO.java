@@ -0,0 +1,26 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de un guardado masivo de notas, con el detalle de cada fila enviada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeResultDTO {
+    
+    private Long courseId;
+    
+    private Integer created; // Notas nuevas
+    
+    private Integer updated; // Notas existentes actualizadas
+    
+    private Integer failed; // Filas rechazadas por validación
+    
+    private List<BulkGradeRowResultDTO> results; // Un resultado por fila, en el mismo orden que la petición
+}
@@ -0,0 +1,26 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de un guardado masivo de notas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeRowResultDTO {
+    
+    private Integer index; // Posición de la fila en la petición
+    
+    private Long studentId;
+    
+    private Long evaluationId;
+    
+    private String status; // CREATED, UPDATED o ERROR
+    
+    private Long gradeId; // null si la fila no se guardó
+    
+    private String error; // Motivo del rechazo si status = ERROR
+}
@@ -0,0 +1,20 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class CourseRankingDTO {
+    private Long courseId;
+    private Long evaluationTypeId; // Filtro aplicado (null = todos los tipos)
+    private Long subjectId; // Filtro aplicado (null = todas las materias)
+    private Integer k;
+    private Integer rankedCount; // Estudiantes con promedio según el filtro (los que entran en el ranking)
+    private List<RankedStudentDTO> top; // Los k mejores promedios, de mayor a menor
+    private List<RankedStudentDTO> bottom; // Los k peores promedios, de menor a mayor
+    private Integer quartile; // Cuartil pedido (1 = el 25% con mejores promedios), null si no se pidió
+    private List<RankedStudentDTO> quartileStudents; // Estudiantes del cuartil pedido, de mayor a menor
+}
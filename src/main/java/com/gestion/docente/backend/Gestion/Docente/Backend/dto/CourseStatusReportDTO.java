@@ -0,0 +1,19 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class CourseStatusReportDTO {
+    private Long courseId;
+    private Double approvalGrade; // Nota de aprobación del curso
+    private Double qualificationGrade; // Nota de habilitación del curso (null si no tiene)
+    private Integer studentsCount; // Total de estudiantes del curso, antes de filtrar
+    private Map<AcademicStatus, Integer> summary; // Cantidad de estudiantes por situación general, antes de filtrar
+    private Integer atRiskCount;
+    private List<StudentStatusDTO> students; // Estudiantes que cumplen los filtros
+}
@@ -0,0 +1,25 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de un listado con paginación por cursor (keyset).
+ * Para pedir la página siguiente se envía nextCursor en el parámetro cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    
+    private List<T> items;
+    
+    private String nextCursor; // null si no hay más elementos
+    
+    private Boolean hasMore;
+    
+    private Long totalElements; // Solo se calcula si se pide con count=true
+}
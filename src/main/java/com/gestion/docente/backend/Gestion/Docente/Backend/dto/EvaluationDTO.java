@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -42,5 +43,13 @@ public class EvaluationDTO {
     // El ownership del curso se valida automáticamente (el curso debe pertenecer al profesor del JWT).
     @NotNull(message = "El ID del curso es obligatorio")
     private Long courseId;
+    
+    // Resumen de las notas de la evaluación (solo lectura, se ignora al crear o editar)
+    private Integer gradedCount; // Notas cargadas (numéricas o categóricas)
+    private Double averageGrade; // Promedio de las notas numéricas (null si no hay)
+    private Double minGrade;
+    private Double maxGrade;
+    private Double gradeSum;
+    private Map<String, Integer> labelCounts; // Cantidad de notas por etiqueta categórica
 }
 
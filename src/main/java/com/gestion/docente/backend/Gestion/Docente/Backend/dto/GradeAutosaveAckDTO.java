@@ -0,0 +1,18 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta del autoguardado de una nota: la nota quedó en memoria, todavía no en la BD.
+ * Se confirma cuando el estado del curso informa appliedThrough >= sequence con el mismo epoch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeAutosaveAckDTO {
+    private Long courseId;
+    private Long sequence; // Número de secuencia de la nota dentro del curso
+    private String epoch; // Cambia cuando se reinicia el servidor: las notas no confirmadas se perdieron
+}
@@ -0,0 +1,18 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nota autoguardada que se rechazó al aplicarla en la BD (por ejemplo, el estudiante ya no está en el curso).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeAutosaveFailureDTO {
+    private Long sequence;
+    private Long studentId;
+    private Long evaluationId;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class GradeAutosaveStatusDTO {
+    private Long courseId;
+    private String epoch;
+    private Long acceptedThrough; // Última secuencia recibida del curso
+    private Long appliedThrough; // Todas las secuencias hasta esta ya se guardaron o se rechazaron
+    private Integer pending; // Notas recibidas que todavía no se guardaron (incluye el lote en curso)
+    private List<GradeAutosaveFailureDTO> failures; // Últimos rechazos (una nota reemplazada por otra posterior no figura)
+    private String lastError; // Error del último intento de guardado si falló completo (se reintenta hasta el máximo de intentos), null si no
+}
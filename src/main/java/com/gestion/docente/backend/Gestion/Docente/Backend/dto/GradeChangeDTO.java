@@ -0,0 +1,21 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeChangeDTO {
+    private Long sequence; // Número de cambio dentro del curso
+    private String operation; // UPSERT (alta o modificación) o DELETE
+    private Long gradeId;
+    private Long studentId;
+    private Long evaluationId;
+    private Double grade; // Estado de la nota después del cambio (null en DELETE)
+    private String gradeValue;
+    private LocalDateTime changedAt;
+}
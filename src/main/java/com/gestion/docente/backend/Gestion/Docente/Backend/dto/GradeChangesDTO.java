@@ -0,0 +1,25 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta de la sincronización incremental de notas de un curso.
+ * El cliente aplica los cambios en orden y guarda cursor para enviarlo en since la próxima vez.
+ */
+@Data
+@NoArgsConstructor
+public class GradeChangesDTO {
+    
+    private Long courseId;
+    
+    private Boolean snapshot; // true si se pidió sin since: changes trae todas las notas actuales como UPSERT
+    
+    private List<GradeChangeDTO> changes; // Un cambio por nota, el último dentro de esta respuesta
+    
+    private String cursor; // Posición hasta la que se leyó, para el siguiente since
+    
+    private Boolean hasMore; // Si es true, hay más cambios después de cursor
+}
@@ -0,0 +1,26 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notas hipotéticas para simular los promedios de un estudiante sin guardarlas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeSimulationRequestDTO {
+    
+    // Reemplazan (o completan) las notas actuales del estudiante en esas evaluaciones
+    @Valid
+    private List<HypotheticalGradeDTO> grades = new ArrayList<>();
+    
+    // Evaluaciones para las que se calcula la nota mínima para aprobar
+    // (null = todas las evaluaciones con tipo que quedan sin nota)
+    private List<Long> solveFor;
+}
@@ -0,0 +1,18 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class GradeSimulationResultDTO {
+    private Long studentId;
+    private Long courseId;
+    private List<GroupedAverageDTO> groupedAverages; // Promedios por tipo con las notas hipotéticas
+    private Double finalAverage; // Promedio final con las notas hipotéticas
+    private Double approvalGrade; // Nota de aprobación del curso (null si no tiene)
+    private Boolean approved; // Si el promedio final simulado alcanza la nota de aprobación (null si no hay nota de aprobación)
+    private List<RequiredGradeDTO> requiredGrades; // Nota mínima por evaluación, cada una calculada por separado
+}
@@ -0,0 +1,39 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadísticas de las notas de una evaluación o de un curso completo.
+ * Solo se consideran las notas con valor numérico (las categóricas se mapean con su escala).
+ * Si no hay notas, count es 0 y las medidas son null.
+ */
+@Data
+@NoArgsConstructor
+public class GradeStatisticsDTO {
+    
+    private Long courseId;
+    
+    private Long evaluationId; // null en las estadísticas del curso
+    
+    private Integer count; // Notas con valor numérico
+    
+    private Integer nonNumericCount; // Notas categóricas sin valor en la escala
+    
+    private Double mean;
+    
+    private Double median;
+    
+    private Double standardDeviation; // Desvío estándar poblacional
+    
+    private Double min;
+    
+    private Double max;
+    
+    private Map<String, Double> percentiles; // Ej: "p25" -> 6.5
+    
+    private List<HistogramBinDTO> histogram;
+}
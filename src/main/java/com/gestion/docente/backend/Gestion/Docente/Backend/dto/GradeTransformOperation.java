@@ -0,0 +1,11 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+/**
+ * Transformación a aplicar sobre todas las notas de una evaluación.
+ */
+public enum GradeTransformOperation {
+    ADD,        // Suma value a cada nota numérica (value puede ser negativo)
+    SCALE,      // Escala las notas numéricas para que la más alta pase a valer value (por defecto 10)
+    CLAMP,      // Acota las notas numéricas a [min, max]
+    MAP_SCALE   // Convierte las notas categóricas en numéricas con los valores de la escala de la evaluación
+}
@@ -0,0 +1,24 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeTransformRequestDTO {
+    
+    @NotNull(message = "La operación es obligatoria")
+    private GradeTransformOperation operation;
+    
+    private Double value; // ADD: valor a sumar; SCALE: nota que toma la más alta (null = 10)
+    
+    private Double min; // CLAMP: nota mínima (null = 0)
+    
+    private Double max; // CLAMP: nota máxima (null = 10)
+    
+    // ADD: si es true, las notas que quedarían fuera de 0-10 se acotan; si no, la operación se rechaza
+    private Boolean clamp = false;
+}
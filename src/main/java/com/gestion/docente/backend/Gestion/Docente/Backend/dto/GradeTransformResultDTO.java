@@ -0,0 +1,15 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeTransformResultDTO {
+    private Long evaluationId;
+    private GradeTransformOperation operation;
+    private Integer updated; // Notas modificadas por la sentencia
+    private Integer skipped; // Notas de la evaluación que quedaron igual (ya tenían el valor resultante, o la operación no las alcanza, como las categóricas sin valor en la escala)
+}
@@ -0,0 +1,20 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Intervalo de un histograma de notas: [from, to), salvo el último que incluye to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBinDTO {
+    
+    private Double from;
+    
+    private Double to;
+    
+    private Integer count;
+}
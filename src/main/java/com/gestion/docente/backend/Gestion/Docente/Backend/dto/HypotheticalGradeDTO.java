@@ -0,0 +1,22 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HypotheticalGradeDTO {
+    
+    @NotNull(message = "El ID de la evaluación es obligatorio")
+    private Long evaluationId;
+    
+    @NotNull(message = "La nota es obligatoria")
+    @DecimalMin(value = "0.0", message = "La nota no puede ser menor a 0", inclusive = true)
+    @DecimalMax(value = "10.0", message = "La nota no puede ser mayor a 10", inclusive = true)
+    private Double grade;
+}
@@ -0,0 +1,16 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class OwnedCourseCacheStatsDTO {
+    private Long hits; // Validaciones resueltas con el conjunto en memoria
+    private Long misses; // Validaciones que tuvieron que cargar los cursos del profesor
+    private Double hitRate; // hits / (hits + misses), null si todavía no hubo validaciones
+    private Long invalidations;
+    private Integer professors; // Profesores con su conjunto de cursos en caché
+    private Integer maxProfessors;
+    private Long ttlSeconds;
+}
@@ -0,0 +1,19 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estudiante dentro del ranking de un curso.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedStudentDTO {
+    private Integer rank; // Posición en el ranking completo, 1 = mejor promedio (a igual promedio, menor ID primero)
+    private Long studentId;
+    private String firstName;
+    private String lastName;
+    private Double average;
+}
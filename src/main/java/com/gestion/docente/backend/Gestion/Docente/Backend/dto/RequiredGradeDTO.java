@@ -0,0 +1,14 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequiredGradeDTO {
+    private Long evaluationId;
+    private Double minimumGrade; // Nota mínima en esta evaluación para llegar a la nota de aprobación (null si no alcanza)
+    private Boolean reachable; // false si ni con 10 se llega a la nota de aprobación
+}
@@ -0,0 +1,27 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen de un estudiante en uno de los cursos del profesor, para armar su historial
+ * entre cursos (los estudiantes se guardan por curso y se reconocen por documento o email).
+ */
+@Data
+@NoArgsConstructor
+public class StudentCourseHistoryDTO {
+    private Long studentId; // ID del estudiante dentro de ese curso
+    private String firstName;
+    private String lastName;
+    private String document;
+    private String email;
+    private Long courseId;
+    private String courseName;
+    private String school;
+    private Boolean archived;
+    private Double finalAverage; // Promedio final ponderado (o simple si no hay tipos), null si no tiene notas
+    private Integer gradesCount; // Notas cargadas, numéricas o categóricas
+    private Double attendancePercentage; // null si no tiene asistencias registradas
+    private Integer totalDays;
+    private Integer presentDays;
+}
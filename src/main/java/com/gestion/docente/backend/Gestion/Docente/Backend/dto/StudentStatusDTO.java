@@ -0,0 +1,20 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentStatusDTO {
+    private Long studentId;
+    private String firstName;
+    private String lastName;
+    private Double finalAverage; // Promedio final ponderado (o simple si no hay notas con tipo)
+    private AcademicStatus status; // Situación general según las notas mínimas del curso
+    private Boolean atRisk; // No aprueba el curso o desaprueba algún tipo de evaluación
+    private List<TypeStatusDTO> types; // Situación por tipo de evaluación
+}
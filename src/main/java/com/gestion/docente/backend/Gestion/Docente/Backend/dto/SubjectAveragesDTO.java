@@ -0,0 +1,19 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Promedios de todos los estudiantes de un curso en una de sus materias.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectAveragesDTO {
+    private Long subjectId;
+    private String subjectName; // null para la materia default sin nombre
+    private List<StudentAverageDTO> students; // Un elemento por estudiante del curso, tenga o no notas en la materia
+}
@@ -0,0 +1,17 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeStatusDTO {
+    private Long evaluationTypeId;
+    private String evaluationTypeName;
+    private Double average; // Promedio del estudiante en las evaluaciones de este tipo
+    private Double approvalGrade; // Nota de aprobación aplicada (promedio de las de cada evaluación incluida)
+    private Double qualificationGrade; // Nota de habilitación aplicada (null si no hay)
+    private AcademicStatus status;
+}
@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.model;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(CourseDataListener.class)
 @Table(name = "attendances")
 @Data
 @NoArgsConstructor
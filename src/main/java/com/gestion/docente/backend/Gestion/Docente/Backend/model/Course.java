@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.model;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CourseDataListener.class)
 @Table(name = "courses")
 @Data
 @NoArgsConstructor
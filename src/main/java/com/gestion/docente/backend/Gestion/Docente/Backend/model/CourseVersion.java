@@ -0,0 +1,25 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versión de los datos de un curso. Sube con cada cambio en el curso y da los números de
+ * secuencia del registro de cambios de notas y el ETag de las lecturas del curso
+ * (ver CourseVersionCounter).
+ */
+@Entity
+@Table(name = "course_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseVersion {
+    
+    @Id
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private Long version; // Último número asignado (0 = sin cambios registrados)
+}
@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.model;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CourseDataListener.class)
 @Table(name = "evaluations")
 @Data
 @NoArgsConstructor
@@ -53,6 +55,27 @@ public class Evaluation {
     @Column(nullable = false)
     private Long courseId;
     
+    // Agregados de las notas de la evaluación, mantenidos por EvaluationAggregateMaintainer
+    // (null = todavía no calculados, solo en evaluaciones anteriores a estas columnas). JPA solo
+    // los escribe al crear la evaluación, sin notas; después se actualizan con consultas.
+    @Column(updatable = false)
+    private Integer gradedCount = 0; // Notas cargadas (numéricas o categóricas)
+    
+    @Column(updatable = false)
+    private Integer numericCount = 0; // Notas con valor numérico (grade)
+    
+    @Column(updatable = false)
+    private Double gradeSum = 0.0;
+    
+    @Column(insertable = false, updatable = false)
+    private Double minGrade;
+    
+    @Column(insertable = false, updatable = false)
+    private Double maxGrade;
+    
+    @Column(insertable = false, updatable = false, columnDefinition = "TEXT")
+    private String labelCounts; // JSON etiqueta -> cantidad, de las notas categóricas sin valor numérico
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "courseId", insertable = false, updatable = false)
     private Course course;
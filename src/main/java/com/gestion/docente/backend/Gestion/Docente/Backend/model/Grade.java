@@ -1,12 +1,15 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.model;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "grades")
+@EntityListeners(CourseDataListener.class)
+@Table(name = "grades",
+        uniqueConstraints = @UniqueConstraint(name = "uk_grades_student_evaluation", columnNames = {"studentId", "evaluationId"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
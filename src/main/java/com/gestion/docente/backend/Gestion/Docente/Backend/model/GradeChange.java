@@ -0,0 +1,55 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del registro de cambios de notas de un curso. Solo se insertan filas:
+ * cada alta, modificación o eliminación de una nota agrega una entrada con el
+ * siguiente número de secuencia del curso y el estado de la nota después del cambio.
+ */
+@Entity
+@Table(name = "grade_changes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"courseId", "sequence"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeChange {
+    
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private Long sequence; // Número de cambio dentro del curso
+    
+    @Column(nullable = false, length = 10)
+    private String operation; // UPSERT o DELETE
+    
+    @Column(nullable = false)
+    private Long gradeId;
+    
+    @Column(nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false)
+    private Long evaluationId;
+    
+    private Double grade; // Valores de la nota después del cambio (null en DELETE)
+    
+    @Column(nullable = true, length = 50)
+    private String gradeValue;
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,44 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Promedio materializado de un estudiante en un curso.
+ * Se mantiene actualizado en la misma transacción que modifica las notas
+ * (ver CourseAverageMaintainer), así las lecturas de promedios no recalculan desde las notas.
+ */
+@Entity
+@Table(name = "student_course_averages",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"studentId", "courseId"}),
+        indexes = @Index(columnList = "courseId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentCourseAverage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false)
+    private Double gradeSum; // Suma de todas las notas con valor numérico
+    
+    @Column(nullable = false)
+    private Integer gradeCount; // Cantidad de notas con valor numérico
+    
+    @Column(nullable = true)
+    private Double finalAverage; // Promedio ponderado por tipo de evaluación, null si no hay notas agrupables
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "studentId", insertable = false, updatable = false)
+    private Student student;
+}
@@ -0,0 +1,49 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Promedio materializado de un estudiante para un tipo de evaluación de un curso.
+ * Solo existe si el estudiante tiene al menos una nota con valor numérico de ese tipo.
+ */
+@Entity
+@Table(name = "student_type_averages",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"studentId", "evaluationTypeId"}),
+        indexes = @Index(columnList = "courseId, studentId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentTypeAverage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long courseId;
+    
+    @Column(nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false)
+    private Long evaluationTypeId;
+    
+    @Column(nullable = false)
+    private Double gradeSum;
+    
+    @Column(nullable = false)
+    private Integer gradeCount;
+    
+    @Column(nullable = false)
+    private Integer evaluationsCount; // Evaluaciones de este tipo con nota cargada
+    
+    @Column(nullable = false, length = 4000)
+    private String evaluationIds; // IDs de esas evaluaciones separados por coma
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "studentId", insertable = false, updatable = false)
+    private Student student;
+}
@@ -1,16 +1,40 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Attendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     List<Attendance> findByCourseId(Long courseId);
     
+    // Lectura con cursor para los listados completos que se escriben en streaming
+    // (requiere una transacción abierta mientras se recorre y cerrar el Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Attendance> streamByCourseIdOrderByIdAsc(Long courseId);
+    
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<Attendance> findByCourseId(Long courseId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByCourseId(Long courseId);
+    
     List<Attendance> findByStudentId(Long studentId);
     
     List<Attendance> findByStudentIdAndCourseId(Long studentId, Long courseId);
@@ -18,5 +42,14 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findByCourseIdAndSubjectId(Long courseId, Long subjectId);
     
     List<Attendance> findByStudentIdAndCourseIdAndSubjectId(Long studentId, Long courseId, Long subjectId);
+    
+    // Asistencia por ID acotada a los cursos del profesor
+    @Query("SELECT a FROM Attendance a WHERE a.id = :id AND a.courseId IN " +
+           "(SELECT c.id FROM Course c WHERE c.professorId = :professorId)")
+    Optional<Attendance> findByIdAndProfessorId(@Param("id") Long id, @Param("professorId") Long professorId);
+    
+    // Asistencias del estudiante solo en cursos del profesor
+    @Query("SELECT a FROM Attendance a WHERE a.studentId = :studentId AND a.courseId IN " +
+           "(SELECT c.id FROM Course c WHERE c.professorId = :professorId)")
+    List<Attendance> findByStudentIdAndProfessorId(@Param("studentId") Long studentId, @Param("professorId") Long professorId);
 }
-
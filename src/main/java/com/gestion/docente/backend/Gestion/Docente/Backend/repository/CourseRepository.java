@@ -1,12 +1,19 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
@@ -19,8 +26,22 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     Page<Course> findByProfessorIdAndArchived(Long professorId, Boolean archived, Pageable pageable);
     
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<Course> findByProfessorIdAndArchived(Long professorId, Boolean archived, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByProfessorIdAndArchived(Long professorId, Boolean archived);
+    
     List<Course> findByProfessorIdAndArchivedAndNameContainingIgnoreCase(Long professorId, Boolean archived, String name);
     
     List<Course> findByProfessorIdAndArchivedAndSchoolContainingIgnoreCase(Long professorId, Boolean archived, String school);
+    
+    // Solo el dueño del curso, para validar el ownership sin cargar la entidad
+    @Query("SELECT c.professorId FROM Course c WHERE c.id = :id")
+    Optional<Long> findProfessorIdById(@Param("id") Long id);
+    
+    // Solo los IDs de los cursos del profesor (ver OwnedCourseCache)
+    @Query("SELECT c.id FROM Course c WHERE c.professorId = :professorId")
+    List<Long> findIdsByProfessorId(@Param("professorId") Long professorId);
+    
+    Optional<Course> findByIdAndProfessorId(Long id, Long professorId);
 }
-
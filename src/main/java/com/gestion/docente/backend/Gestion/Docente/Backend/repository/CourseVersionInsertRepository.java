@@ -0,0 +1,14 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+/**
+ * Fragmento de CourseVersionRepository que crea la fila de un curso sin competir con otra
+ * transacción que la crea a la vez (ver CourseVersionInsertRepositoryImpl).
+ */
+public interface CourseVersionInsertRepository {
+    
+    /**
+     * Crea la fila del curso con versión 0 si todavía no existe, en una sola sentencia.
+     * Si otra transacción la está creando, espera a que termine en lugar de fallar.
+     */
+    void insertIfAbsent(Long courseId);
+}
@@ -0,0 +1,61 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+/**
+ * Creación de la fila de course_versions sin fallar si otra transacción la crea a la vez.
+ * 
+ * Un SELECT ... FOR UPDATE sobre una fila que no existe bloquea el hueco del índice en MySQL:
+ * dos transacciones que después insertan el mismo curso se bloquean mutuamente. En MySQL/MariaDB
+ * se usa INSERT ... ON DUPLICATE KEY UPDATE, que espera a la otra transacción y deja la fila
+ * bloqueada. En las demás bases se inserta solo si no existe y, si otra transacción la insertó
+ * primero, se ignora la clave duplicada (la sentencia fallida no invalida la transacción).
+ */
+public class CourseVersionInsertRepositoryImpl implements CourseVersionInsertRepository {
+    
+    private static final String MYSQL_INSERT =
+            "INSERT INTO course_versions (course_id, version) VALUES (?, 0) ON DUPLICATE KEY UPDATE version = version";
+    
+    private static final String INSERT_IF_MISSING =
+            "INSERT INTO course_versions (course_id, version) SELECT ?, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM course_versions WHERE course_id = ?)";
+    
+    private enum Mode { MYSQL, OTHER }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private volatile Mode mode;
+    
+    public CourseVersionInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertIfAbsent(Long courseId) {
+        if (mode() == Mode.MYSQL) {
+            jdbcTemplate.update(MYSQL_INSERT, courseId);
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_IF_MISSING, courseId, courseId);
+        } catch (DuplicateKeyException e) {
+            // Otra transacción creó la fila primero: el SELECT ... FOR UPDATE posterior espera a que termine
+        }
+    }
+    
+    private Mode mode() {
+        Mode current = mode;
+        if (current == null) {
+            current = jdbcTemplate.execute((ConnectionCallback<Mode>) connection -> {
+                String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+                return product.contains("mysql") || product.contains("mariadb") ? Mode.MYSQL : Mode.OTHER;
+            });
+            mode = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.CourseVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CourseVersionRepository extends JpaRepository<CourseVersion, Long>, CourseVersionInsertRepository {
+    
+    // Bloquea la fila hasta el fin de la transacción (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM CourseVersion v WHERE v.courseId = :courseId")
+    Optional<CourseVersion> findForUpdate(@Param("courseId") Long courseId);
+}
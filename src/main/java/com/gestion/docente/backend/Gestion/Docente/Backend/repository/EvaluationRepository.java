@@ -1,10 +1,19 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
@@ -16,10 +25,45 @@ public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
     
     Page<Evaluation> findByCourseId(Long courseId, Pageable pageable);
     
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<Evaluation> findByCourseId(Long courseId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByCourseId(Long courseId);
+    
     // Buscar evaluación por curso, nombre y fecha (para validar duplicados)
     boolean existsByCourseIdAndNombreAndDate(Long courseId, String nombre, java.time.LocalDate date);
     
     // Buscar evaluaciones que usan una escala de notas
     List<Evaluation> findByGradeScaleId(Long gradeScaleId);
+    
+    // Cursos con evaluaciones que usan una escala de notas
+    @Query("SELECT DISTINCT e.courseId FROM Evaluation e WHERE e.gradeScaleId = :gradeScaleId")
+    List<Long> findCourseIdsByGradeScaleId(@Param("gradeScaleId") Long gradeScaleId);
+    
+    // Recalcula en una sola sentencia los agregados de notas de las evaluaciones
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Evaluation e SET " +
+           "e.gradedCount = (SELECT COUNT(g) FROM Grade g WHERE g.evaluationId = e.id AND (g.grade IS NOT NULL OR g.gradeValue IS NOT NULL)), " +
+           "e.numericCount = (SELECT COUNT(g.grade) FROM Grade g WHERE g.evaluationId = e.id), " +
+           "e.gradeSum = (SELECT COALESCE(SUM(g.grade), 0) FROM Grade g WHERE g.evaluationId = e.id), " +
+           "e.minGrade = (SELECT MIN(g.grade) FROM Grade g WHERE g.evaluationId = e.id), " +
+           "e.maxGrade = (SELECT MAX(g.grade) FROM Grade g WHERE g.evaluationId = e.id) " +
+           "WHERE e.id IN :ids")
+    int refreshGradeAggregates(@Param("ids") Collection<Long> ids);
+    
+    // Evaluaciones que todavía no tienen agregados calculados (anteriores a las columnas de agregados)
+    @Query("SELECT e.id FROM Evaluation e WHERE e.courseId = :courseId AND e.gradedCount IS NULL")
+    List<Long> findIdsWithoutAggregatesByCourseId(@Param("courseId") Long courseId);
+    
+    @Query("SELECT DISTINCT e.courseId FROM Evaluation e WHERE e.gradedCount IS NULL")
+    List<Long> findCourseIdsWithoutAggregates();
+    
+    @Modifying
+    @Query("UPDATE Evaluation e SET e.labelCounts = :labelCounts WHERE e.id = :id")
+    int updateLabelCounts(@Param("id") Long id, @Param("labelCounts") String labelCounts);
+    
+    // La evaluación, solo si su curso es del profesor (vacío si no existe o es de otro profesor)
+    @Query("SELECT e FROM Evaluation e WHERE e.id = :id AND e.courseId IN " +
+           "(SELECT c.id FROM Course c WHERE c.professorId = :professorId)")
+    Optional<Evaluation> findByIdAndProfessorId(@Param("id") Long id, @Param("professorId") Long professorId);
 }
-
@@ -1,6 +1,10 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.EvaluationType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +15,11 @@ public interface EvaluationTypeRepository extends JpaRepository<EvaluationType,
     
     List<EvaluationType> findByCourseId(Long courseId);
     
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<EvaluationType> findByCourseId(Long courseId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByCourseId(Long courseId);
+    
     boolean existsByCourseIdAndNombre(Long courseId, String nombre);
 }
 
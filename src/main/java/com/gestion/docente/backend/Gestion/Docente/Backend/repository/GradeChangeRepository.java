@@ -0,0 +1,15 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GradeChangeRepository extends JpaRepository<GradeChange, Long> {
+    
+    // Usa el índice único (courseId, sequence)
+    List<GradeChange> findByCourseIdAndSequenceGreaterThanOrderBySequenceAsc(Long courseId, Long sequence, Limit limit);
+}
@@ -1,27 +1,135 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface GradeRepository extends JpaRepository<Grade, Long> {
+public interface GradeRepository extends JpaRepository<Grade, Long>, GradeUpsertRepository {
     
     List<Grade> findByCourseId(Long courseId);
     
     Page<Grade> findByCourseId(Long courseId, Pageable pageable);
     
+    // Lectura con cursor para los listados completos que se escriben en streaming
+    // (requiere una transacción abierta mientras se recorre y cerrar el Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Grade> streamByCourseIdOrderByIdAsc(Long courseId);
+    
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<Grade> findByCourseId(Long courseId, ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Grade> findByEvaluationId(Long evaluationId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByCourseId(Long courseId);
+    
+    long countByEvaluationId(Long evaluationId);
+    
     List<Grade> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
+    List<Grade> findByCourseIdAndStudentIdIn(Long courseId, Collection<Long> studentIds);
+    
     Optional<Grade> findByStudentIdAndEvaluationId(Long studentId, Long evaluationId);
     
     List<Grade> findByEvaluationId(Long evaluationId);
     
+    List<Grade> findByEvaluationIdIn(Collection<Long> evaluationIds);
+    
     Page<Grade> findByEvaluationId(Long evaluationId, Pageable pageable);
+    
+    // Notas solo categóricas de las evaluaciones, con lectura bloqueante (SELECT ... FOR SHARE):
+    // devuelve la última versión confirmada aunque la transacción ya haya leído antes
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT g FROM Grade g WHERE g.evaluationId IN :evaluationIds AND g.grade IS NULL AND g.gradeValue IS NOT NULL")
+    List<Grade> findCategoricalByEvaluationIdIn(@Param("evaluationIds") Collection<Long> evaluationIds);
+    
+    // Transformación de todas las notas numéricas de una evaluación en una sola sentencia:
+    // nota = round(nota * factor + offset, 2), acotada a [min, max]. Solo toca las filas
+    // cuyo valor cambia, así la cantidad devuelta es la de notas modificadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Grade g SET g.grade = round(CASE " +
+           "WHEN g.grade * :factor + :offset < :min THEN :min " +
+           "WHEN g.grade * :factor + :offset > :max THEN :max " +
+           "ELSE g.grade * :factor + :offset END, 2) " +
+           "WHERE g.evaluationId = :evaluationId AND g.grade IS NOT NULL " +
+           "AND g.grade <> round(CASE " +
+           "WHEN g.grade * :factor + :offset < :min THEN :min " +
+           "WHEN g.grade * :factor + :offset > :max THEN :max " +
+           "ELSE g.grade * :factor + :offset END, 2)")
+    int transformNumericGrades(@Param("evaluationId") Long evaluationId, @Param("factor") double factor,
+                               @Param("offset") double offset, @Param("min") double min, @Param("max") double max);
+    
+    // Cantidad de notas numéricas de la evaluación que quedarían fuera de [min, max] con la transformación
+    @Query("SELECT COUNT(g) FROM Grade g WHERE g.evaluationId = :evaluationId AND g.grade IS NOT NULL " +
+           "AND (g.grade * :factor + :offset < :min OR g.grade * :factor + :offset > :max)")
+    long countTransformedOutside(@Param("evaluationId") Long evaluationId, @Param("factor") double factor,
+                                 @Param("offset") double offset, @Param("min") double min, @Param("max") double max);
+    
+    @Query("SELECT MAX(g.grade) FROM Grade g WHERE g.evaluationId = :evaluationId")
+    Double findMaxNumericGrade(@Param("evaluationId") Long evaluationId);
+    
+    // Suma y cantidad de notas numéricas por materia y estudiante, agregadas en la BD
+    // (subjectId y studentId en null = todas las materias / todos los estudiantes)
+    @Query("SELECT e.subjectId AS subjectId, g.studentId AS studentId, SUM(g.grade) AS gradeSum, COUNT(g.grade) AS gradeCount " +
+           "FROM Grade g JOIN g.evaluation e " +
+           "WHERE g.courseId = :courseId AND e.courseId = :courseId AND g.grade IS NOT NULL AND e.subjectId IS NOT NULL " +
+           "AND (:subjectId IS NULL OR e.subjectId = :subjectId) AND (:studentId IS NULL OR g.studentId = :studentId) " +
+           "GROUP BY e.subjectId, g.studentId")
+    List<SubjectGradeTotals> sumNumericGradesBySubject(@Param("courseId") Long courseId,
+                                                        @Param("subjectId") Long subjectId,
+                                                        @Param("studentId") Long studentId);
+    
+    // Notas categóricas por materia, estudiante y etiqueta: la etiqueta se resuelve con la escala en memoria
+    @Query("SELECT e.subjectId AS subjectId, g.studentId AS studentId, e.gradeScaleId AS gradeScaleId, " +
+           "g.gradeValue AS gradeValue, COUNT(g) AS gradeCount " +
+           "FROM Grade g JOIN g.evaluation e " +
+           "WHERE g.courseId = :courseId AND e.courseId = :courseId AND g.grade IS NULL AND g.gradeValue IS NOT NULL " +
+           "AND e.gradeScaleId IS NOT NULL AND e.subjectId IS NOT NULL " +
+           "AND (:subjectId IS NULL OR e.subjectId = :subjectId) AND (:studentId IS NULL OR g.studentId = :studentId) " +
+           "GROUP BY e.subjectId, g.studentId, e.gradeScaleId, g.gradeValue")
+    List<SubjectLabelCount> countCategoricalGradesBySubject(@Param("courseId") Long courseId,
+                                                            @Param("subjectId") Long subjectId,
+                                                            @Param("studentId") Long studentId);
+    
+    interface SubjectGradeTotals {
+        Long getSubjectId();
+        Long getStudentId();
+        Double getGradeSum();
+        Long getGradeCount();
+    }
+    
+    interface SubjectLabelCount {
+        Long getSubjectId();
+        Long getStudentId();
+        Long getGradeScaleId();
+        String getGradeValue();
+        Long getGradeCount();
+    }
+    
+    // Nota por ID acotada a los cursos del profesor
+    @Query("SELECT g FROM Grade g WHERE g.id = :id AND g.courseId IN " +
+           "(SELECT c.id FROM Course c WHERE c.professorId = :professorId)")
+    Optional<Grade> findByIdAndProfessorId(@Param("id") Long id, @Param("professorId") Long professorId);
 }
-
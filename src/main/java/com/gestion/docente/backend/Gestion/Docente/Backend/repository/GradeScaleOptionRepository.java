@@ -4,6 +4,7 @@ import com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeScaleOptio
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,6 +12,8 @@ public interface GradeScaleOptionRepository extends JpaRepository<GradeScaleOpti
     
     List<GradeScaleOption> findByGradeScaleIdOrderByOrderValueAsc(Long gradeScaleId);
     
+    // Cargar las opciones de varias escalas en una sola consulta (para cálculos por curso)
+    List<GradeScaleOption> findByGradeScaleIdInOrderByGradeScaleIdAscOrderValueAsc(Collection<Long> gradeScaleIds);
+    
     void deleteByGradeScaleId(Long gradeScaleId);
 }
-
@@ -1,6 +1,10 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeScale;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +22,15 @@ public interface GradeScaleRepository extends JpaRepository<GradeScale, Long> {
     @Query("SELECT g FROM GradeScale g WHERE g.professorId = :professorId OR g.isGlobal = true")
     List<GradeScale> findByProfessorIdOrIsGlobalTrue(@Param("professorId") Long professorId);
     
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<GradeScale> findByProfessorId(Long professorId, ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<GradeScale> findByProfessorIdOrIsGlobalTrue(Long professorId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByProfessorId(Long professorId);
+    
+    long countByProfessorIdOrIsGlobalTrue(Long professorId);
+    
     boolean existsByIdAndProfessorId(Long id, Long professorId);
 }
 
@@ -0,0 +1,21 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+
+/**
+ * Fragmento de GradeRepository con el guardado atómico de una nota (ver GradeUpsertRepositoryImpl).
+ */
+public interface GradeUpsertRepository {
+    
+    /**
+     * Crea la nota del estudiante en la evaluación o, si ya existe, reemplaza su valor
+     * (grade, gradeValue y courseId), en una sola sentencia.
+     * 
+     * No pasa por el contexto de persistencia: no dispara los listeners JPA, y una entidad
+     * Grade de la misma celda ya cargada en la transacción queda desactualizada.
+     * 
+     * @param grade Nota a guardar (se ignora su ID)
+     * @return La misma instancia, con el ID de la fila creada o actualizada
+     */
+    Grade upsert(Grade grade);
+}
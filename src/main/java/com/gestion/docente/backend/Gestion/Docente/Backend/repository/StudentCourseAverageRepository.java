@@ -0,0 +1,22 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentCourseAverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentCourseAverageRepository extends JpaRepository<StudentCourseAverage, Long> {
+    
+    List<StudentCourseAverage> findByCourseId(Long courseId);
+    
+    List<StudentCourseAverage> findByCourseIdAndStudentIdIn(Long courseId, Collection<Long> studentIds);
+    
+    Optional<StudentCourseAverage> findByStudentIdAndCourseId(Long studentId, Long courseId);
+    
+    // Un curso está materializado si tiene al menos una fila (se crea una por estudiante al reconstruir)
+    boolean existsByCourseId(Long courseId);
+}
@@ -1,14 +1,66 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
     List<Student> findByCourseId(Long courseId);
+    
+    // Paginación por cursor (keyset): sin OFFSET ni COUNT
+    Window<Student> findByCourseId(Long courseId, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByCourseId(Long courseId);
+    
+    // Historial de un estudiante en los cursos del profesor, buscado por documento o email (índices
+    // idx_students_document / idx_students_email). El promedio sale de student_course_averages y las
+    // cantidades de notas y asistencias se agregan en la misma consulta. Un parámetro en null no coincide con nada.
+    @Query("SELECT s.id AS studentId, s.firstName AS firstName, s.lastName AS lastName, s.document AS document, " +
+           "s.email AS email, c.id AS courseId, c.name AS courseName, c.school AS school, c.archived AS archived, " +
+           "a.id AS averageId, a.finalAverage AS finalAverage, a.gradeSum AS gradeSum, a.gradeCount AS numericCount, " +
+           "(SELECT COUNT(g) FROM Grade g WHERE g.studentId = s.id) AS gradesCount, " +
+           "(SELECT COUNT(at) FROM Attendance at WHERE at.studentId = s.id) AS totalDays, " +
+           "(SELECT COUNT(at) FROM Attendance at WHERE at.studentId = s.id AND at.present = true) AS presentDays " +
+           "FROM Student s JOIN s.course c " +
+           "LEFT JOIN StudentCourseAverage a ON a.studentId = s.id AND a.courseId = s.courseId " +
+           "WHERE c.professorId = :professorId AND (s.document = :document OR s.email = :email) " +
+           "ORDER BY c.id, s.id")
+    List<StudentCourseSummary> findHistory(@Param("professorId") Long professorId,
+                                           @Param("document") String document,
+                                           @Param("email") String email);
+    
+    interface StudentCourseSummary {
+        Long getStudentId();
+        String getFirstName();
+        String getLastName();
+        String getDocument();
+        String getEmail();
+        Long getCourseId();
+        String getCourseName();
+        String getSchool();
+        Boolean getArchived();
+        Long getAverageId(); // null si el curso todavía no tiene promedios materializados
+        Double getFinalAverage();
+        Double getGradeSum();
+        Integer getNumericCount();
+        Long getGradesCount();
+        Long getTotalDays();
+        Long getPresentDays();
+    }
+    
+    // Estudiante por ID acotado a los cursos del profesor
+    @Query("SELECT s FROM Student s WHERE s.id = :id AND s.courseId IN " +
+           "(SELECT c.id FROM Course c WHERE c.professorId = :professorId)")
+    Optional<Student> findByIdAndProfessorId(@Param("id") Long id, @Param("professorId") Long professorId);
 }
-
@@ -0,0 +1,18 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentTypeAverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StudentTypeAverageRepository extends JpaRepository<StudentTypeAverage, Long> {
+    
+    List<StudentTypeAverage> findByCourseId(Long courseId);
+    
+    List<StudentTypeAverage> findByCourseIdAndStudentIdIn(Long courseId, Collection<Long> studentIds);
+    
+    List<StudentTypeAverage> findByStudentIdAndCourseIdOrderByEvaluationTypeIdAsc(Long studentId, Long courseId);
+}
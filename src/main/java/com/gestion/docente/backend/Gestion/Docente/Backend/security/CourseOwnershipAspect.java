@@ -0,0 +1,36 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * Valida el ownership del curso antes de los métodos anotados con @RequiresCourseOwnership,
+ * con CourseOwnershipValidator (una consulta por curso y petición).
+ */
+@Aspect
+@Component
+public class CourseOwnershipAspect {
+    
+    private final CourseOwnershipValidator validator;
+    
+    public CourseOwnershipAspect(CourseOwnershipValidator validator) {
+        this.validator = validator;
+    }
+    
+    @Before("@annotation(requiresCourseOwnership)")
+    public void validateOwnership(JoinPoint joinPoint, RequiresCourseOwnership requiresCourseOwnership) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String[] names = signature.getParameterNames();
+        for (int i = 0; names != null && i < names.length; i++) {
+            if (names[i].equals(requiresCourseOwnership.value())) {
+                validator.validate((Long) joinPoint.getArgs()[i]);
+                return;
+            }
+        }
+        throw new IllegalStateException("El método " + signature.toShortString() +
+                " no tiene el parámetro " + requiresCourseOwnership.value());
+    }
+}
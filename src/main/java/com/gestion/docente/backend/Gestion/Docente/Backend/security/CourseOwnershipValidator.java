@@ -0,0 +1,89 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Valida que un curso pertenezca al profesor autenticado.
+ * 
+ * Primero busca el curso entre los cursos del profesor en OwnedCourseCache, sin consultar la BD.
+ * Si no está (el curso no existe, es de otro profesor o el conjunto está desactualizado), lee solo
+ * el professorId del curso (sin cargar la entidad) y lo recuerda hasta el final de la petición
+ * HTTP actual, así las validaciones repetidas del mismo curso dentro de una petición (servicios
+ * que llaman a otros servicios, ETags, el aspecto de @RequiresCourseOwnership) hacen a lo sumo
+ * una consulta. Fuera de una petición (por ejemplo, en hilos propios) no se recuerda nada.
+ */
+@Component
+public class CourseOwnershipValidator {
+    
+    private static final String OWNERS_ATTRIBUTE = CourseOwnershipValidator.class.getName() + ".owners";
+    
+    private final CourseRepository courseRepository;
+    private final OwnedCourseCache ownedCourseCache;
+    
+    public CourseOwnershipValidator(CourseRepository courseRepository, OwnedCourseCache ownedCourseCache) {
+        this.courseRepository = courseRepository;
+        this.ownedCourseCache = ownedCourseCache;
+    }
+    
+    /**
+     * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
+     */
+    public void validate(Long courseId) {
+        validate(courseId, "No tiene acceso a este curso");
+    }
+    
+    /**
+     * Igual que validate(courseId), con el mensaje de error a usar si el curso es de otro profesor.
+     */
+    public void validate(Long courseId, String accessDeniedMessage) {
+        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        if (courseId != null && ownedCourseCache.owns(currentProfessorId, courseId)) {
+            return;
+        }
+        if (!ownerOf(courseId).equals(currentProfessorId)) {
+            throw new IllegalArgumentException(accessDeniedMessage);
+        }
+        // El curso es del profesor pero su conjunto en caché no lo tenía (se creó después de cargarlo)
+        ownedCourseCache.invalidate(currentProfessorId);
+    }
+    
+    /**
+     * @return ID del profesor dueño del curso
+     * @throws IllegalArgumentException si el curso no existe
+     */
+    public Long ownerOf(Long courseId) {
+        if (courseId == null) {
+            throw new IllegalArgumentException("El ID del curso es obligatorio");
+        }
+        Map<Long, Long> owners = requestOwners();
+        Long ownerId = owners != null ? owners.get(courseId) : null;
+        if (ownerId == null) {
+            ownerId = courseRepository.findProfessorIdById(courseId)
+                    .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
+            if (owners != null) {
+                owners.put(courseId, ownerId);
+            }
+        }
+        return ownerId;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<Long, Long> requestOwners() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, Long> owners = (Map<Long, Long>) attributes.getAttribute(OWNERS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (owners == null) {
+            owners = new HashMap<>();
+            attributes.setAttribute(OWNERS_ATTRIBUTE, owners, RequestAttributes.SCOPE_REQUEST);
+        }
+        return owners;
+    }
+}
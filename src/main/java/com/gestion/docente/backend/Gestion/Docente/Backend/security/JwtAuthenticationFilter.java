@@ -1,8 +1,7 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.security;
 
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.ProfessorRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.JwtService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.VerifiedClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,8 +24,8 @@ import java.util.Collections;
  * 
  * Este filtro:
  * 1. Extrae el token JWT del header Authorization
- * 2. Valida el token
- * 3. Carga los datos del profesor desde la BD
+ * 2. Valida el token con JwtService.verify (una sola verificación de firma por token)
+ * 3. Obtiene los datos del profesor de PrincipalCache (solo consulta la BD si no están en caché o vencieron)
  * 4. Establece la autenticación en el SecurityContext
  * 
  * Solo procesa requests que incluyan un token válido.
@@ -39,7 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService;
     
     @Autowired
-    private ProfessorRepository professorRepository;
+    private PrincipalCache principalCache;
     
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String AUTHORIZATION_HEADER = "Authorization";
@@ -57,15 +56,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             System.out.println("Token extracted: " + (token != null ? "YES (length: " + token.length() + ")" : "NO"));
             System.out.println("Authorization header: " + request.getHeader("Authorization"));
             
-            if (token != null && jwtService.validateToken(token)) {
+            // Verificar el token una sola vez (o tomarlo de la caché de tokens ya verificados)
+            VerifiedClaims claims = token != null ? jwtService.verify(token) : null;
+            
+            if (claims != null) {
                 System.out.println("Token is valid");
                 // Extraer información del token
-                Long professorId = jwtService.extractProfessorId(token);
-                String email = jwtService.extractEmail(token);
+                Long professorId = claims.getProfessorId();
+                String email = claims.getEmail();
                 
-                // Cargar el profesor desde la BD
-                Professor professor = professorRepository.findById(professorId)
-                        .orElse(null);
+                // Obtener el profesor (snapshot inmutable en caché)
+                ProfessorSnapshot professor = principalCache.get(professorId);
                 
                 if (professor != null && professor.getEmail().equals(email)) {
                     // Log para debugging
@@ -83,7 +84,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 } else {
                     System.err.println("❌ JWT Filter - Professor not found or email mismatch");
-                    System.err.println("Professor from DB: " + (professor != null ? professor.getEmail() : "null"));
+                    System.err.println("Professor from cache/DB: " + (professor != null ? professor.getEmail() : "null"));
                     System.err.println("Email from token: " + email);
                 }
             } else {
@@ -126,7 +127,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Crea un objeto Authentication para el profesor autenticado.
      */
-    private Authentication createAuthentication(Professor professor, HttpServletRequest request) {
+    private Authentication createAuthentication(ProfessorSnapshot professor, HttpServletRequest request) {
         // Crear el principal (objeto que representa al usuario autenticado)
         ProfessorPrincipal principal = new ProfessorPrincipal(professor);
         
@@ -0,0 +1,150 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.OwnedCourseCacheStatsDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria de los IDs de los cursos de cada profesor, para que validar el ownership
+ * de un curso sea una búsqueda en un conjunto en lugar de una consulta.
+ * 
+ * El conjunto de un profesor se carga con una consulta la primera vez que se usa y vence a los
+ * app.security.owned-courses.ttl-seconds (300 por defecto). Se guardan a lo sumo
+ * app.security.owned-courses.max-professors profesores (1000 por defecto): al llenarse se
+ * descarta el conjunto cargado hace más tiempo. Los servicios que crean o eliminan cursos
+ * invalidan el conjunto del profesor (ver CourseServiceImpl y ProfessorServiceImpl).
+ * 
+ * Un curso que no está en el conjunto no se rechaza directamente: CourseOwnershipValidator lo
+ * confirma con la BD, así un conjunto desactualizado nunca niega el acceso al dueño.
+ */
+@Component
+public class OwnedCourseCache {
+    
+    private final CourseRepository courseRepository;
+    private final int maxProfessors;
+    private final long ttlNanos;
+    
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    // Se incrementa en cada invalidación para no guardar cargas que empezaron antes de un cambio
+    private long invalidations = 0;
+    
+    public OwnedCourseCache(
+            CourseRepository courseRepository,
+            @Value("${app.security.owned-courses.max-professors:1000}") int maxProfessors,
+            @Value("${app.security.owned-courses.ttl-seconds:300}") long ttlSeconds) {
+        this.courseRepository = courseRepository;
+        this.maxProfessors = Math.max(1, maxProfessors);
+        this.ttlNanos = Math.max(1, ttlSeconds) * 1_000_000_000L;
+    }
+    
+    /**
+     * @return true si el curso está entre los cursos del profesor (cargándolos si no están en caché)
+     */
+    public boolean owns(Long professorId, Long courseId) {
+        return coursesOf(professorId).contains(courseId);
+    }
+    
+    private Set<Long> coursesOf(Long professorId) {
+        Entry entry = cache.get(professorId);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            hits.increment();
+            return entry.courseIds;
+        }
+        misses.increment();
+        
+        long startedAt;
+        synchronized (this) {
+            startedAt = invalidations;
+        }
+        Set<Long> courseIds = Set.copyOf(courseRepository.findIdsByProfessorId(professorId));
+        synchronized (this) {
+            // Si hubo una invalidación mientras se cargaba, no se guarda
+            if (startedAt == invalidations) {
+                if (!cache.containsKey(professorId) && cache.size() >= maxProfessors) {
+                    evictOldest();
+                }
+                cache.put(professorId, new Entry(courseIds, now));
+            }
+        }
+        return courseIds;
+    }
+    
+    /**
+     * Invalida el conjunto de cursos de un profesor, inmediatamente y de nuevo al terminar
+     * la transacción actual (igual que GradeDistributionCache.invalidate).
+     */
+    public void invalidate(Long professorId) {
+        if (professorId == null) {
+            return;
+        }
+        evict(professorId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(professorId);
+                }
+            });
+        }
+    }
+    
+    public OwnedCourseCacheStatsDTO getStats() {
+        OwnedCourseCacheStatsDTO stats = new OwnedCourseCacheStatsDTO();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : null);
+        synchronized (this) {
+            stats.setInvalidations(invalidations);
+        }
+        stats.setProfessors(cache.size());
+        stats.setMaxProfessors(maxProfessors);
+        stats.setTtlSeconds(ttlNanos / 1_000_000_000L);
+        return stats;
+    }
+    
+    private synchronized void evict(Long professorId) {
+        invalidations++;
+        cache.remove(professorId);
+    }
+    
+    // Se llama con el monitor tomado y solo al cargar un profesor nuevo con la caché llena
+    private void evictOldest() {
+        Long oldest = null;
+        long oldestLoadedAt = 0;
+        for (Map.Entry<Long, Entry> candidate : cache.entrySet()) {
+            if (oldest == null || candidate.getValue().loadedAt - oldestLoadedAt < 0) {
+                oldest = candidate.getKey();
+                oldestLoadedAt = candidate.getValue().loadedAt;
+            }
+        }
+        if (oldest != null) {
+            cache.remove(oldest);
+        }
+    }
+    
+    private static final class Entry {
+        private final Set<Long> courseIds;
+        private final long loadedAt; // System.nanoTime() al cargar
+        
+        Entry(Set<Long> courseIds, long loadedAt) {
+            this.courseIds = courseIds;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.ProfessorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria de los ProfessorSnapshot con los que JwtAuthenticationFilter arma el principal,
+ * para que las peticiones autenticadas no consulten la BD antes de llegar al controlador.
+ * 
+ * Cada snapshot vence a los app.security.principal-cache.ttl-seconds (60 por defecto), así un
+ * cambio hecho por fuera de la aplicación se ve a lo sumo un minuto después. Se guardan a lo sumo
+ * app.security.principal-cache.max-entries profesores (10000 por defecto). ProfessorServiceImpl
+ * invalida la entrada al actualizar (incluido el rol), verificar o eliminar un profesor.
+ * Los profesores que no existen no se guardan.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final ProfessorRepository professorRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+    
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    
+    // Se incrementa en cada invalidación para no guardar cargas que empezaron antes de un cambio
+    private long invalidations = 0;
+    
+    public PrincipalCache(
+            ProfessorRepository professorRepository,
+            @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.professorRepository = professorRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = Math.max(1, ttlSeconds) * 1_000_000_000L;
+    }
+    
+    /**
+     * @return Snapshot del profesor, o null si no existe
+     */
+    public ProfessorSnapshot get(Long professorId) {
+        Entry entry = cache.get(professorId);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry.snapshot;
+        }
+        
+        long startedAt;
+        synchronized (this) {
+            startedAt = invalidations;
+        }
+        ProfessorSnapshot snapshot = professorRepository.findById(professorId)
+                .map(ProfessorSnapshot::of)
+                .orElse(null);
+        if (snapshot == null) {
+            cache.remove(professorId);
+            return null;
+        }
+        synchronized (this) {
+            // Si hubo una invalidación mientras se cargaba, no se guarda
+            if (startedAt == invalidations) {
+                if (!cache.containsKey(professorId) && cache.size() >= maxEntries) {
+                    evictExpiredOrAny(now);
+                }
+                cache.put(professorId, new Entry(snapshot, now));
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Invalida el snapshot de un profesor, inmediatamente y de nuevo al terminar la transacción
+     * actual (igual que OwnedCourseCache.invalidate).
+     */
+    public void invalidate(Long professorId) {
+        if (professorId == null) {
+            return;
+        }
+        evict(professorId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(professorId);
+                }
+            });
+        }
+    }
+    
+    private synchronized void evict(Long professorId) {
+        invalidations++;
+        cache.remove(professorId);
+    }
+    
+    // Se llama con el monitor tomado y solo al cargar un profesor nuevo con la caché llena:
+    // descarta los vencidos y, si no había ninguno, una entrada cualquiera
+    private void evictExpiredOrAny(long now) {
+        cache.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+        if (cache.size() >= maxEntries) {
+            cache.keySet().stream().findAny().ifPresent(cache::remove);
+        }
+    }
+    
+    private static final class Entry {
+        private final ProfessorSnapshot snapshot;
+        private final long loadedAt; // System.nanoTime() al cargar
+        
+        Entry(ProfessorSnapshot snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.security;
 
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
-import lombok.Getter;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Role;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
@@ -11,28 +10,28 @@ import java.util.Collections;
  * Implementación de UserDetails para representar al profesor autenticado.
  * 
  * Este objeto se almacena en el SecurityContext y permite acceder a los datos
- * del profesor autenticado en cualquier parte de la aplicación.
+ * del profesor autenticado en cualquier parte de la aplicación. Guarda un ProfessorSnapshot
+ * (id, email, rol y verificación) en lugar de la entidad: para el resto de los datos del
+ * profesor hay que buscarlo por ID.
  */
-@Getter
 public class ProfessorPrincipal implements UserDetails {
     
-    private final Professor professor;
+    private final ProfessorSnapshot professor;
     
-    public ProfessorPrincipal(Professor professor) {
+    public ProfessorPrincipal(ProfessorSnapshot professor) {
         this.professor = professor;
     }
     
     @Override
     public Collection<? extends org.springframework.security.core.GrantedAuthority> getAuthorities() {
-        String roleName = professor.getRole() != null 
-            ? professor.getRole().name() 
-            : "PROFESSOR";
+        String roleName = professor.getRole().name();
         return Collections.singletonList(() -> "ROLE_" + roleName);
     }
     
     @Override
     public String getPassword() {
-        return professor.getPassword();
+        // La autenticación es por JWT: la contraseña no se guarda en el principal
+        return null;
     }
     
     @Override
@@ -73,5 +72,19 @@ public class ProfessorPrincipal implements UserDetails {
     public String getEmail() {
         return professor.getEmail();
     }
+    
+    /**
+     * Obtiene el rol del profesor.
+     */
+    public Role getRole() {
+        return professor.getRole();
+    }
+    
+    /**
+     * Indica si el profesor verificó su email.
+     */
+    public boolean isEmailVerified() {
+        return professor.isEmailVerified();
+    }
 }
 
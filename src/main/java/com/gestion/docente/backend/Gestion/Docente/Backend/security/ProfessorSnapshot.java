@@ -0,0 +1,45 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Role;
+
+/**
+ * Datos del profesor que necesita la autenticación, copiados de la entidad en el momento de
+ * cargarla. Es inmutable para poder compartirse entre peticiones (ver PrincipalCache).
+ */
+public final class ProfessorSnapshot {
+    
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final boolean emailVerified;
+    
+    private ProfessorSnapshot(Long id, String email, Role role, boolean emailVerified) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.emailVerified = emailVerified;
+    }
+    
+    public static ProfessorSnapshot of(Professor professor) {
+        return new ProfessorSnapshot(professor.getId(), professor.getEmail(),
+                professor.getRole() != null ? professor.getRole() : Role.PROFESSOR,
+                Boolean.TRUE.equals(professor.getEmailVerified()));
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public boolean isEmailVerified() {
+        return emailVerified;
+    }
+}
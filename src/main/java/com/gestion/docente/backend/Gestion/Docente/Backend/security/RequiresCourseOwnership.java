@@ -0,0 +1,23 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indica que el método solo puede ejecutarse si el curso recibido como parámetro pertenece
+ * al profesor autenticado. Lo valida CourseOwnershipAspect antes de entrar al método
+ * (solo en llamadas a través del proxy del bean, no en llamadas internas de la misma clase).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresCourseOwnership {
+    
+    /**
+     * Nombre del parámetro con el ID del curso.
+     */
+    String value() default "courseId";
+}
@@ -51,7 +51,7 @@ public class SecurityUtils {
         
         if (principal instanceof ProfessorPrincipal) {
             ProfessorPrincipal professorPrincipal = (ProfessorPrincipal) principal;
-            Role role = professorPrincipal.getProfessor().getRole();
+            Role role = professorPrincipal.getRole();
             return role != null ? role : Role.PROFESSOR; // Por defecto PROFESSOR
         }
         
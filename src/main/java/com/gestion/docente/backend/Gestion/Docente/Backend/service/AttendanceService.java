@@ -3,11 +3,24 @@ package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 import java.util.List;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AttendanceDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface AttendanceService {
     
     List<AttendanceDTO> getAttendancesByCourse(Long courseId);
     
+    /**
+     * Obtiene todas las asistencias de un curso como un arreglo JSON que se escribe a medida
+     * que se leen las filas. El ownership se valida antes de empezar a escribir la respuesta.
+     */
+    StreamingResponseBody streamAttendancesByCourse(Long courseId);
+    
+    /**
+     * Obtiene las asistencias de un curso con paginación por cursor (orden por fecha e ID).
+     */
+    CursorPageDTO<AttendanceDTO> getAttendancesByCourse(Long courseId, String cursor, Integer limit, boolean count);
+    
     List<AttendanceDTO> getAttendancesByStudent(Long studentId);
     
     AttendanceDTO markAttendance(AttendanceDTO attendanceDTO);
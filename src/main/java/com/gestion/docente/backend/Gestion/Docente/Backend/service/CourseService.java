@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +13,8 @@ public interface CourseService {
     
     Page<CourseDTO> getAllCourses(Pageable pageable);
     
+    CursorPageDTO<CourseDTO> getAllCourses(String cursor, Integer limit, boolean count);
+    
     CourseDTO getCourseById(Long id);
     
     CourseDTO createCourse(CourseDTO courseDTO);
@@ -1,6 +1,8 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +14,8 @@ public interface EvaluationService {
     
     Page<EvaluationDTO> getEvaluationsByCourse(Long courseId, Pageable pageable);
     
+    CursorPageDTO<EvaluationDTO> getEvaluationsByCourse(Long courseId, String cursor, Integer limit, boolean count);
+    
     EvaluationDTO addEvaluation(EvaluationDTO evaluationDTO);
     
     EvaluationDTO updateEvaluation(Long id, EvaluationDTO evaluationDTO);
@@ -23,5 +27,14 @@ public interface EvaluationService {
     void sendGradesByEmailCustom(Long evaluationId, com.gestion.docente.backend.Gestion.Docente.Backend.dto.SendGradesCustomDTO sendDTO);
     
     EvaluationDTO updateEvaluationGradeScale(Long id, Long gradeScaleId);
+    
+    /**
+     * Obtiene estadísticas de las notas de una evaluación (media, mediana, desvío,
+     * mínimo/máximo, percentiles e histograma), respetando el mapeo de su escala de notas.
+     * 
+     * @param bins Cantidad de intervalos del histograma (null = 10)
+     * @param percentiles Percentiles a calcular entre 0 y 100 (null = 25, 50, 75 y 90)
+     */
+    GradeStatisticsDTO getEvaluationStatistics(Long evaluationId, Integer bins, List<Double> percentiles);
 }
 
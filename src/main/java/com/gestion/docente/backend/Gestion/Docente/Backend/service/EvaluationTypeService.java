@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationTypeDTO;
 
 import java.util.List;
@@ -8,6 +9,8 @@ public interface EvaluationTypeService {
     
     List<EvaluationTypeDTO> getEvaluationTypesByCourse(Long courseId);
     
+    CursorPageDTO<EvaluationTypeDTO> getEvaluationTypesByCourse(Long courseId, String cursor, Integer limit, boolean count);
+    
     EvaluationTypeDTO createEvaluationType(EvaluationTypeDTO evaluationTypeDTO);
     
     EvaluationTypeDTO updateEvaluationType(Long id, EvaluationTypeDTO evaluationTypeDTO);
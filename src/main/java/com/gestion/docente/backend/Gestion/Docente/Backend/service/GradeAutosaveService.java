@@ -0,0 +1,31 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveAckDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+
+/**
+ * Autoguardado de notas con escritura diferida: las notas se reciben en memoria, se combinan
+ * por celda y se guardan cada pocos segundos en una transacción por curso (ver GradeWriteBuffer
+ * para las garantías de durabilidad). Es opcional: POST /api/grades sigue guardando en el momento.
+ */
+public interface GradeAutosaveService {
+    
+    /**
+     * Recibe una nota para guardarla en el próximo lote del curso.
+     * Valida el ownership y el rango; la pertenencia del estudiante y la evaluación al curso
+     * se valida al guardar, y un rechazo se informa en el estado del curso.
+     */
+    GradeAutosaveAckDTO autosaveGrade(GradeDTO gradeDTO);
+    
+    /**
+     * Obtiene hasta qué secuencia están guardadas las notas autoguardadas del curso.
+     */
+    GradeAutosaveStatusDTO getStatus(Long courseId);
+    
+    /**
+     * Guarda en el momento las notas pendientes del curso (por ejemplo, antes de salir de la planilla)
+     * y devuelve el estado resultante.
+     */
+    GradeAutosaveStatusDTO flush(Long courseId);
+}
@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeScaleDTO;
 
 import java.util.List;
@@ -8,6 +9,8 @@ public interface GradeScaleService {
     
     List<GradeScaleDTO> getGradeScales(Boolean includeGlobal);
     
+    CursorPageDTO<GradeScaleDTO> getGradeScales(Boolean includeGlobal, String cursor, Integer limit, boolean count);
+    
     GradeScaleDTO createGradeScale(GradeScaleDTO gradeScaleDTO);
     
     GradeScaleDTO updateGradeScale(Long id, GradeScaleDTO gradeScaleDTO);
@@ -1,10 +1,24 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AcademicStatus;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseRankingDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseStatusReportDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformResultDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentAverageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentGroupedAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectAveragesDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,14 +28,69 @@ public interface GradeService {
     
     Page<GradeDTO> getGradesByCourse(Long courseId, Pageable pageable);
     
+    /**
+     * Obtiene todas las notas de un curso como un arreglo JSON que se escribe a medida que
+     * se leen las filas, sin cargar la lista completa en memoria.
+     * El ownership se valida al llamar al método, antes de empezar a escribir la respuesta.
+     */
+    StreamingResponseBody streamGradesByCourse(Long courseId);
+    
+    /**
+     * Obtiene las notas de un curso con paginación por cursor (orden por ID).
+     * 
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera página
+     * @param limit Cantidad de notas por página (máximo 100)
+     * @param count Si es true también se calcula el total de notas del curso
+     */
+    CursorPageDTO<GradeDTO> getGradesByCourse(Long courseId, String cursor, Integer limit, boolean count);
+    
     GradeDTO setGrade(GradeDTO gradeDTO);
     
     GradeDTO updateGrade(Long id, GradeDTO gradeDTO);
     
+    /**
+     * Crea o actualiza varias notas de un curso en una sola transacción.
+     * El ownership y la pertenencia de estudiantes y evaluaciones al curso se validan
+     * una sola vez para todas las filas. Las filas inválidas no se guardan y se informan
+     * en el resultado junto con el estado de cada fila.
+     * 
+     * @param request Curso y notas a guardar
+     * @return Resultado con el detalle de cada fila
+     */
+    BulkGradeResultDTO saveGradesBulk(BulkGradeRequestDTO request);
+    
+    /**
+     * Igual que saveGradesBulk, pero en nombre del profesor indicado en lugar del autenticado.
+     * Lo usa el autoguardado, que recibe las notas en la petición del profesor y las guarda más
+     * tarde desde un hilo propio, donde no hay profesor autenticado.
+     * 
+     * @param request Curso y notas a guardar
+     * @param professorId ID del profesor que envió las notas
+     * @return Resultado con el detalle de cada fila
+     * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor indicado
+     */
+    BulkGradeResultDTO applyGradesBulk(BulkGradeRequestDTO request, Long professorId);
+    
+    /**
+     * Aplica una transformación (sumar, escalar, acotar o pasar de escala a número) a todas las
+     * notas de una evaluación con una sola sentencia UPDATE. Los resultados deben quedar entre 0 y 10.
+     * Los promedios y agregados derivados se actualizan una sola vez para toda la evaluación.
+     * 
+     * @param evaluationId ID de la evaluación
+     * @param request Operación y sus parámetros
+     * @return Cantidad de notas modificadas y no alcanzadas
+     */
+    GradeTransformResultDTO transformGrades(Long evaluationId, GradeTransformRequestDTO request);
+    
     List<GradeDTO> getGradesByEvaluation(Long evaluationId);
     
     Page<GradeDTO> getGradesByEvaluation(Long evaluationId, Pageable pageable);
     
+    /**
+     * Obtiene las notas de una evaluación con paginación por cursor (orden por ID).
+     */
+    CursorPageDTO<GradeDTO> getGradesByEvaluation(Long evaluationId, String cursor, Integer limit, boolean count);
+    
     Double calculateAverage(Long studentId, Long courseId, Long subjectId);
     
     /**
@@ -34,6 +103,15 @@ public interface GradeService {
      */
     List<StudentAverageDTO> getAveragesByCourse(Long courseId);
     
+    /**
+     * Recalcula desde las notas los promedios materializados de todos los estudiantes de un curso.
+     * Permite reparar diferencias entre los promedios guardados y las notas.
+     * 
+     * @param courseId ID del curso
+     * @return Cantidad de estudiantes recalculados
+     */
+    int rebuildAverages(Long courseId);
+    
     /**
      * Obtiene los promedios agrupados por tipo de evaluación para un estudiante en un curso.
      * Calcula el promedio de cada grupo de evaluaciones del mismo tipo y el promedio final.
@@ -51,5 +129,73 @@ public interface GradeService {
      * @return Lista de StudentGroupedAveragesDTO con promedios agrupados por tipo y promedio final para cada estudiante
      */
     List<StudentGroupedAveragesDTO> getGroupedAveragesByCourse(Long courseId);
+    
+    /**
+     * Obtiene el promedio de cada estudiante del curso en cada una de sus materias,
+     * con una consulta agregada para todo el curso.
+     * 
+     * @param courseId ID del curso
+     * @return Una entrada por materia del curso, con todos sus estudiantes
+     */
+    List<SubjectAveragesDTO> getSubjectAveragesByCourse(Long courseId);
+    
+    /**
+     * Obtiene el ranking del curso por promedio final: los k mejores y los k peores estudiantes
+     * y, opcionalmente, los de un cuartil. Se calcula sobre la planilla en caché y el resultado
+     * queda guardado hasta que cambie la versión del curso.
+     * 
+     * @param courseId ID del curso
+     * @param k Cantidad de estudiantes de cada extremo (null = 10, máximo 100)
+     * @param evaluationTypeId Si no es null, se ordena por el promedio de ese tipo de evaluación
+     * @param subjectId Si no es null, solo se consideran las evaluaciones de esa materia
+     * @param quartile Si no es null (1 a 4), se incluyen los estudiantes de ese cuartil (1 = mejores promedios)
+     */
+    CourseRankingDTO getCourseRanking(Long courseId, Integer k, Long evaluationTypeId, Long subjectId, Integer quartile);
+    
+    /**
+     * Obtiene estadísticas de todas las notas de un curso (media, mediana, desvío,
+     * mínimo/máximo, percentiles e histograma). Se calculan en el servidor sobre la
+     * distribución en caché del curso, que se invalida con cada escritura de notas.
+     * 
+     * @param courseId ID del curso
+     * @param bins Cantidad de intervalos del histograma (null = 10)
+     * @param percentiles Percentiles a calcular entre 0 y 100 (null = 25, 50, 75 y 90)
+     */
+    GradeStatisticsDTO getCourseStatistics(Long courseId, Integer bins, List<Double> percentiles);
+    
+    /**
+     * Clasifica a todos los estudiantes del curso como aprobados, habilitados o desaprobados,
+     * en general (nota mínima del curso) y por tipo de evaluación (notas mínimas de cada evaluación,
+     * o las del curso si no tienen). Se calcula con una sola carga de las notas del curso.
+     * 
+     * @param courseId ID del curso
+     * @param statuses Situaciones generales a incluir (null o vacío = todas)
+     * @param atRisk true = solo estudiantes en riesgo, false = solo los que no lo están, null = todos
+     * @return Reporte con el resumen del curso y los estudiantes que cumplen los filtros
+     */
+    CourseStatusReportDTO getStatusReport(Long courseId, List<AcademicStatus> statuses, Boolean atRisk);
+    
+    /**
+     * Sincronización incremental de las notas de un curso.
+     * Sin since devuelve todas las notas actuales y el cursor desde el que seguir; con since,
+     * solo las notas creadas, modificadas o eliminadas después de ese cursor.
+     * 
+     * @param courseId ID del curso
+     * @param since Cursor devuelto por la llamada anterior (null = todas las notas)
+     * @param limit Cantidad máxima de cambios a leer (null = 1000, máximo 5000)
+     */
+    GradeChangesDTO getGradeChanges(Long courseId, String since, Integer limit);
+    
+    /**
+     * Simula los promedios de un estudiante con notas hipotéticas, sin guardar nada.
+     * Si el curso tiene nota de aprobación, calcula también la nota mínima necesaria en cada
+     * evaluación pedida (o en las que siguen sin nota), con el resto de las notas fijas.
+     * 
+     * @param studentId ID del estudiante
+     * @param courseId ID del curso
+     * @param request Notas hipotéticas y evaluaciones para las que calcular la nota mínima
+     * @return Promedios agrupados y final simulados, y notas mínimas
+     */
+    GradeSimulationResultDTO simulateGrades(Long studentId, Long courseId, GradeSimulationRequestDTO request);
 }
 
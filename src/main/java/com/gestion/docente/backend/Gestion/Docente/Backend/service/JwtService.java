@@ -8,8 +8,12 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -21,6 +25,11 @@ import java.util.function.Function;
  * - Validación de tokens (firma, expiración)
  * - Extracción de claims del token
  * 
+ * verify() verifica y parsea el token una sola vez y guarda el resultado en una caché LRU
+ * (app.jwt.verified-cache.max-entries, 10000 por defecto) indexada por el hash SHA-256 del token,
+ * así las peticiones siguientes con el mismo token no vuelven a verificar la firma. Cada entrada
+ * vale hasta la expiración del token.
+ * 
  * Preparado para futura extensión con refresh tokens.
  */
 @Service
@@ -32,12 +41,30 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private Long expiration; // en segundos
     
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+    
+    private volatile SecretKey signingKey;
+    
+    // Hash SHA-256 del token -> claims verificados, en orden de acceso (LRU). Se accede con su monitor.
+    private final Map<String, VerifiedClaims> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedClaims> eldest) {
+            return size() > verifiedCacheMaxEntries;
+        }
+    };
+    
     /**
-     * Obtiene la clave secreta para firmar los tokens.
+     * Obtiene la clave secreta para firmar los tokens (se arma una sola vez).
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
     }
     
     /**
@@ -108,6 +135,63 @@ public class JwtService {
                 .getPayload();
     }
     
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims, parseándolo una sola vez.
+     * Si el mismo token ya se verificó y no expiró, devuelve los claims guardados sin volver a
+     * verificar la firma.
+     * 
+     * @param token Token a verificar
+     * @return Claims del token, o null si la firma es inválida, el token expiró o le faltan claims
+     */
+    public VerifiedClaims verify(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        synchronized (verifiedTokens) {
+            VerifiedClaims cached = verifiedTokens.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                verifiedTokens.remove(key);
+            }
+        }
+        
+        VerifiedClaims claims;
+        try {
+            Claims parsed = extractAllClaims(token); // Esto valida la firma y la expiración
+            Object roleObj = parsed.get("role");
+            claims = new VerifiedClaims(
+                    toProfessorId(parsed.get("professorId")),
+                    parsed.getSubject(),
+                    roleObj != null ? roleObj.toString() : "PROFESSOR",
+                    parsed.getExpiration().getTime());
+        } catch (Exception e) {
+            System.err.println("❌ Token validation FAILED:");
+            System.err.println("Error type: " + e.getClass().getName());
+            System.err.println("Error message: " + e.getMessage());
+            return null;
+        }
+        if (claims.isExpired(now)) {
+            return null;
+        }
+        
+        if (verifiedCacheMaxEntries > 0) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(key, claims);
+            }
+        }
+        return claims;
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+    
     /**
      * Extrae un claim específico del token.
      */
@@ -127,8 +211,10 @@ public class JwtService {
      * Extrae el ID del profesor del token.
      */
     public Long extractProfessorId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object professorIdObj = claims.get("professorId");
+        return toProfessorId(extractAllClaims(token).get("professorId"));
+    }
+    
+    private static Long toProfessorId(Object professorIdObj) {
         if (professorIdObj instanceof Integer) {
             return ((Integer) professorIdObj).longValue();
         } else if (professorIdObj instanceof Long) {
@@ -144,13 +230,6 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
     
-    /**
-     * Verifica si un token ha expirado.
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
     /**
      * Valida un token JWT.
      * Verifica que el token no haya expirado y que la firma sea válida.
@@ -159,18 +238,7 @@ public class JwtService {
      * @return true si el token es válido, false en caso contrario
      */
     public Boolean validateToken(String token) {
-        try {
-            extractAllClaims(token); // Esto valida la firma
-            boolean notExpired = !isTokenExpired(token);
-            System.out.println("✓ Token validation: signature valid, expired: " + isTokenExpired(token));
-            return notExpired;
-        } catch (Exception e) {
-            System.err.println("❌ Token validation FAILED:");
-            System.err.println("Error type: " + e.getClass().getName());
-            System.err.println("Error message: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        return verify(token) != null;
     }
     
     /**
@@ -2,6 +2,7 @@ package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CreateProfessorByAdminRequest;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.LoginResponse;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.OwnedCourseCacheStatsDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.ProfessorDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.RegisterRequest;
 
@@ -31,6 +32,8 @@ public interface ProfessorService {
     
     void deleteProfessor(Long id);
     
+    OwnedCourseCacheStatsDTO getOwnedCourseCacheStats();
+    
     boolean verifyEmail(String token);
 }
 
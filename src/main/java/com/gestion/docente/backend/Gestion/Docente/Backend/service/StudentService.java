@@ -1,5 +1,7 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentCourseHistoryDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
 
 import java.util.List;
@@ -8,6 +10,8 @@ public interface StudentService {
     
     List<StudentDTO> getStudentsByCourse(Long courseId);
     
+    CursorPageDTO<StudentDTO> getStudentsByCourse(Long courseId, String cursor, Integer limit, boolean count);
+    
     StudentDTO addStudentToCourse(StudentDTO studentDTO);
     
     StudentDTO updateStudent(Long id, StudentDTO studentDTO);
@@ -15,5 +19,11 @@ public interface StudentService {
     void removeStudent(Long id);
     
     List<StudentDTO> importStudents(Long courseId, List<StudentDTO> students);
+    
+    /**
+     * Obtiene el historial de un estudiante en todos los cursos del profesor autenticado,
+     * buscándolo por documento o por email, con su promedio final y porcentaje de asistencia en cada curso.
+     */
+    List<StudentCourseHistoryDTO> getStudentHistory(String document, String email);
 }
 
@@ -0,0 +1,40 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service;
+
+/**
+ * Claims de un token JWT cuya firma ya fue verificada (ver JwtService.verify).
+ * Es inmutable para poder guardarse en la caché de tokens verificados y compartirse entre peticiones.
+ */
+public final class VerifiedClaims {
+    
+    private final Long professorId;
+    private final String email;
+    private final String role;
+    private final long expiresAt; // epoch millis
+    
+    VerifiedClaims(Long professorId, String email, String role, long expiresAt) {
+        this.professorId = professorId;
+        this.email = email;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getProfessorId() {
+        return professorId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAt;
+    }
+}
@@ -0,0 +1,279 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.autosave;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveFailureDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer en memoria de las notas autoguardadas, agrupadas por curso y combinadas por celda
+ * (estudiante, evaluación): si llegan varias escrituras de la misma celda antes de guardar,
+ * solo se guarda la última.
+ * 
+ * Cada nota recibida lleva el siguiente número de secuencia del curso. Las notas pendientes
+ * de un curso se retiran todas juntas (drain) para guardarlas en una sola transacción, y el
+ * resultado se informa con complete (se guardaron, con los rechazos por fila) o fail (no se
+ * guardó nada y vuelven a quedar pendientes). Cada lote lleva el profesor que envió sus notas,
+ * para guardarlas en su nombre (el dueño de un curso no cambia). Garantías:
+ * 
+ * - Recibir una nota no la hace durable: hasta guardarse solo está en la memoria de este proceso.
+ * - appliedThrough = N significa que todas las notas del curso con secuencia <= N ya se guardaron
+ *   o se rechazaron (las rechazadas figuran en failures). Una nota reemplazada por otra posterior
+ *   de la misma celda queda resuelta junto con esa.
+ * - Si falla la transacción, las notas vuelven a quedar pendientes salvo las celdas que
+ *   recibieron una escritura más nueva, y appliedThrough no avanza. Después de maxAttempts
+ *   fallos seguidos del mismo curso, las notas del lote se dan por rechazadas (figuran en
+ *   failures con el error) y appliedThrough avanza, para no reintentarlas indefinidamente.
+ * - El epoch identifica esta instancia: si cambia, el servidor se reinició y las notas que no
+ *   estaban confirmadas se perdieron, así que el cliente debe reenviarlas.
+ * 
+ * No hay más de un guardado en curso por curso: mientras tanto, drain devuelve null.
+ */
+public class GradeWriteBuffer {
+    
+    private final int maxPendingPerCourse;
+    private final int maxFailuresKept;
+    private final int maxAttempts;
+    private final String epoch = UUID.randomUUID().toString();
+    
+    private final Map<Long, CourseBuffer> courses = new ConcurrentHashMap<>();
+    
+    public GradeWriteBuffer(int maxPendingPerCourse, int maxFailuresKept, int maxAttempts) {
+        this.maxPendingPerCourse = maxPendingPerCourse;
+        this.maxFailuresKept = maxFailuresKept;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+    
+    public String getEpoch() {
+        return epoch;
+    }
+    
+    /**
+     * Agrega una nota al buffer, reemplazando la pendiente de la misma celda si la hay.
+     * 
+     * @param professorId ID del profesor que envió la nota (ya validado como dueño del curso)
+     * @return Número de secuencia asignado dentro del curso
+     * @throws IllegalArgumentException si el curso ya tiene demasiadas notas pendientes
+     */
+    public long accept(Long courseId, Long professorId, GradeDTO grade) {
+        CourseBuffer buffer = courses.computeIfAbsent(courseId, id -> new CourseBuffer());
+        synchronized (buffer) {
+            String key = grade.getStudentId() + ":" + grade.getEvaluationId();
+            if (!buffer.pending.containsKey(key) && buffer.pending.size() >= maxPendingPerCourse) {
+                throw new IllegalArgumentException("Hay demasiadas notas pendientes de guardar en el curso con ID " +
+                        courseId + ", intente nuevamente en unos segundos");
+            }
+            long sequence = ++buffer.acceptedThrough;
+            buffer.professorId = professorId;
+            // Al quitar y volver a poner, las celdas quedan en el orden de su última escritura
+            buffer.pending.remove(key);
+            buffer.pending.put(key, new Pending(sequence, copyOf(grade, courseId)));
+            return sequence;
+        }
+    }
+    
+    /**
+     * @return IDs de los cursos con notas pendientes
+     */
+    public Set<Long> pendingCourses() {
+        Set<Long> result = new HashSet<>();
+        courses.forEach((courseId, buffer) -> {
+            synchronized (buffer) {
+                if (!buffer.pending.isEmpty()) {
+                    result.add(courseId);
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Retira todas las notas pendientes del curso para guardarlas.
+     * 
+     * @return El lote, o null si no hay pendientes o ya hay un guardado en curso para el curso
+     */
+    public Batch drain(Long courseId) {
+        CourseBuffer buffer = courses.get(courseId);
+        if (buffer == null) {
+            return null;
+        }
+        synchronized (buffer) {
+            if (buffer.inFlight > 0 || buffer.pending.isEmpty()) {
+                return null;
+            }
+            Batch batch = new Batch(courseId, buffer.professorId, buffer.acceptedThrough, new ArrayList<>(buffer.pending.values()));
+            buffer.pending.clear();
+            buffer.inFlight = batch.entries.size();
+            return batch;
+        }
+    }
+    
+    /**
+     * Informa que el lote se guardó. Las notas con error se registran como rechazadas.
+     * 
+     * @param errors Un elemento por nota del lote, en el mismo orden (null = guardada)
+     */
+    public void complete(Batch batch, List<String> errors) {
+        CourseBuffer buffer = courses.get(batch.courseId);
+        synchronized (buffer) {
+            for (int i = 0; i < batch.entries.size(); i++) {
+                String error = errors.get(i);
+                if (error != null) {
+                    addFailure(buffer, batch.entries.get(i), error);
+                }
+            }
+            buffer.appliedThrough = batch.throughSequence;
+            buffer.lastError = null;
+            buffer.failedAttempts = 0;
+            buffer.inFlight = 0;
+        }
+    }
+    
+    /**
+     * Informa que el lote no se guardó: sus notas vuelven a quedar pendientes,
+     * salvo las celdas que ya recibieron una escritura más nueva. Si el curso ya
+     * llegó a maxAttempts fallos seguidos, las notas del lote se rechazan con el error.
+     * 
+     * @return true si las notas volvieron a quedar pendientes, false si se rechazaron
+     */
+    public boolean fail(Batch batch, String error) {
+        CourseBuffer buffer = courses.get(batch.courseId);
+        synchronized (buffer) {
+            buffer.lastError = error;
+            buffer.inFlight = 0;
+            if (++buffer.failedAttempts >= maxAttempts) {
+                for (Pending entry : batch.entries) {
+                    String key = entry.grade.getStudentId() + ":" + entry.grade.getEvaluationId();
+                    // Una celda con una escritura más nueva pendiente no se rechaza: se guarda esa
+                    if (!buffer.pending.containsKey(key)) {
+                        addFailure(buffer, entry, "No se pudo guardar después de " + buffer.failedAttempts +
+                                " intentos: " + error);
+                    }
+                }
+                buffer.appliedThrough = batch.throughSequence;
+                buffer.failedAttempts = 0;
+                return false;
+            }
+            Map<String, Pending> restored = new LinkedHashMap<>();
+            for (Pending entry : batch.entries) {
+                String key = entry.grade.getStudentId() + ":" + entry.grade.getEvaluationId();
+                if (!buffer.pending.containsKey(key)) {
+                    restored.put(key, entry);
+                }
+            }
+            // Las restauradas son más viejas que las recibidas durante el guardado: van primero
+            restored.putAll(buffer.pending);
+            buffer.pending.clear();
+            buffer.pending.putAll(restored);
+            return true;
+        }
+    }
+    
+    private void addFailure(CourseBuffer buffer, Pending entry, String error) {
+        buffer.failures.addLast(new GradeAutosaveFailureDTO(entry.sequence, entry.grade.getStudentId(),
+                entry.grade.getEvaluationId(), error));
+        while (buffer.failures.size() > maxFailuresKept) {
+            buffer.failures.removeFirst();
+        }
+    }
+    
+    public GradeAutosaveStatusDTO status(Long courseId) {
+        GradeAutosaveStatusDTO status = new GradeAutosaveStatusDTO();
+        status.setCourseId(courseId);
+        status.setEpoch(epoch);
+        CourseBuffer buffer = courses.get(courseId);
+        if (buffer == null) {
+            status.setAcceptedThrough(0L);
+            status.setAppliedThrough(0L);
+            status.setPending(0);
+            status.setFailures(new ArrayList<>());
+            return status;
+        }
+        synchronized (buffer) {
+            status.setAcceptedThrough(buffer.acceptedThrough);
+            status.setAppliedThrough(buffer.appliedThrough);
+            status.setPending(buffer.pending.size() + buffer.inFlight);
+            status.setFailures(new ArrayList<>(buffer.failures));
+            status.setLastError(buffer.lastError);
+        }
+        return status;
+    }
+    
+    private static GradeDTO copyOf(GradeDTO grade, Long courseId) {
+        GradeDTO copy = new GradeDTO();
+        copy.setGrade(grade.getGrade());
+        copy.setGradeValue(grade.getGradeValue());
+        copy.setCourseId(courseId);
+        copy.setStudentId(grade.getStudentId());
+        copy.setEvaluationId(grade.getEvaluationId());
+        return copy;
+    }
+    
+    private static final class CourseBuffer {
+        private long acceptedThrough;
+        private long appliedThrough;
+        private Long professorId; // Profesor que envió las últimas notas
+        private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+        private final Deque<GradeAutosaveFailureDTO> failures = new ArrayDeque<>();
+        private String lastError;
+        private int failedAttempts; // Guardados fallidos seguidos (0 = el último se guardó)
+        private int inFlight; // Notas del lote que se está guardando (0 = ninguno)
+    }
+    
+    private static final class Pending {
+        private final long sequence;
+        private final GradeDTO grade;
+        
+        private Pending(long sequence, GradeDTO grade) {
+            this.sequence = sequence;
+            this.grade = grade;
+        }
+    }
+    
+    /**
+     * Notas retiradas de un curso para guardarlas juntas.
+     */
+    public static final class Batch {
+        private final Long courseId;
+        private final Long professorId;
+        private final long throughSequence;
+        private final List<Pending> entries;
+        
+        private Batch(Long courseId, Long professorId, long throughSequence, List<Pending> entries) {
+            this.courseId = courseId;
+            this.professorId = professorId;
+            this.throughSequence = throughSequence;
+            this.entries = entries;
+        }
+        
+        public Long getCourseId() {
+            return courseId;
+        }
+        
+        /**
+         * @return ID del profesor que envió las notas del lote
+         */
+        public Long getProfessorId() {
+            return professorId;
+        }
+        
+        /**
+         * @return Notas del lote, en el orden de su última escritura
+         */
+        public List<GradeDTO> getGrades() {
+            List<GradeDTO> grades = new ArrayList<>(entries.size());
+            entries.forEach(entry -> grades.add(entry.grade));
+            return grades;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentCourseAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentTypeAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentCourseAverageRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentTypeAverageRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.StudentAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.TypeAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene las tablas de promedios materializados (student_course_averages y student_type_averages).
+ * 
+ * Se invoca desde los servicios que modifican datos que afectan a los promedios, dentro de
+ * la misma transacción y con el curso bloqueado (CourseVersionCounter.lock): al guardar una nota
+ * se recalcula solo ese estudiante, y cuando cambia algo que afecta a todo el curso (evaluaciones,
+ * pesos de tipos, escalas) se reconstruye el curso. Un curso que todavía no tiene filas se
+ * construye completo en la primera escritura.
+ * 
+ * Las lecturas (read) nunca escriben: si el curso todavía no está materializado, los promedios
+ * se calculan en memoria desde las notas. Cada recálculo invalida también la distribución de
+ * notas del curso en GradeDistributionCache.
+ */
+@Component
+@Transactional
+public class CourseAverageMaintainer {
+    
+    private final StudentCourseAverageRepository courseAverageRepository;
+    private final StudentTypeAverageRepository typeAverageRepository;
+    private final CourseGradebookLoader gradebookLoader;
+    private final GroupedAverageCalculator calculator;
+    private final GradeDistributionCache distributionCache;
+    private final CourseVersionCounter versionCounter;
+    
+    public CourseAverageMaintainer(
+            StudentCourseAverageRepository courseAverageRepository,
+            StudentTypeAverageRepository typeAverageRepository,
+            CourseGradebookLoader gradebookLoader,
+            GroupedAverageCalculator calculator,
+            GradeDistributionCache distributionCache,
+            CourseVersionCounter versionCounter) {
+        this.courseAverageRepository = courseAverageRepository;
+        this.typeAverageRepository = typeAverageRepository;
+        this.gradebookLoader = gradebookLoader;
+        this.calculator = calculator;
+        this.distributionCache = distributionCache;
+        this.versionCounter = versionCounter;
+    }
+    
+    /**
+     * Promedios de todos los estudiantes del curso, sin escribir: las filas materializadas o,
+     * si el curso todavía no tiene, filas calculadas en memoria desde las notas (sin guardar).
+     */
+    @Transactional(readOnly = true)
+    public CourseAverages read(Long courseId) {
+        if (courseAverageRepository.existsByCourseId(courseId)) {
+            return new CourseAverages(courseAverageRepository.findByCourseId(courseId),
+                    typeAverageRepository.findByCourseId(courseId));
+        }
+        return calculate(courseId, gradebookLoader.load(courseId));
+    }
+    
+    /**
+     * Promedios de un estudiante del curso, sin escribir (igual que read(courseId)).
+     */
+    @Transactional(readOnly = true)
+    public CourseAverages read(Long courseId, Long studentId) {
+        if (courseAverageRepository.existsByCourseId(courseId)) {
+            return new CourseAverages(
+                    courseAverageRepository.findByStudentIdAndCourseId(studentId, courseId).stream().toList(),
+                    typeAverageRepository.findByStudentIdAndCourseIdOrderByEvaluationTypeIdAsc(studentId, courseId));
+        }
+        return calculate(courseId, gradebookLoader.load(courseId, List.of(studentId)));
+    }
+    
+    private CourseAverages calculate(Long courseId, CourseGradebook gradebook) {
+        Rows rows = toRows(courseId, calculator.calculate(gradebook), List.of(), List.of());
+        return new CourseAverages(rows.courseRows, rows.typeRows);
+    }
+    
+    /**
+     * Recalcula los promedios de un estudiante en un curso.
+     */
+    public void refreshStudent(Long courseId, Long studentId) {
+        refreshStudents(courseId, List.of(studentId));
+    }
+    
+    /**
+     * Recalcula los promedios de varios estudiantes de un curso.
+     * Si el curso no estaba materializado, lo construye completo.
+     * La transacción ya debe tener bloqueado el curso (CourseVersionCounter.lock).
+     */
+    public void refreshStudents(Long courseId, Collection<Long> studentIds) {
+        distributionCache.invalidate(courseId);
+        if (!courseAverageRepository.existsByCourseId(courseId)) {
+            rebuildCourse(courseId);
+            return;
+        }
+        
+        Set<Long> ids = studentIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        apply(courseId, gradebookLoader.load(courseId, ids),
+                courseAverageRepository.findByCourseIdAndStudentIdIn(courseId, ids),
+                typeAverageRepository.findByCourseIdAndStudentIdIn(courseId, ids));
+    }
+    
+    /**
+     * Recalcula desde las notas los promedios de todos los estudiantes del curso.
+     * Sirve también para reparar diferencias entre las tablas materializadas y las notas.
+     * Bloquea el curso, así no se cruza con una escritura de notas ni con otra reconstrucción.
+     * 
+     * @param courseId ID del curso
+     * @return Cantidad de estudiantes recalculados
+     */
+    public int rebuildCourse(Long courseId) {
+        versionCounter.lock(courseId);
+        distributionCache.invalidate(courseId);
+        CourseGradebook gradebook = gradebookLoader.load(courseId);
+        apply(courseId, gradebook,
+                courseAverageRepository.findByCourseId(courseId),
+                typeAverageRepository.findByCourseId(courseId));
+        return gradebook.getStudentCount();
+    }
+    
+    /**
+     * Calcula los promedios de los estudiantes indicados y actualiza las filas existentes
+     * en lugar de borrarlas y reinsertarlas (Hibernate ejecuta los INSERT antes que los DELETE,
+     * lo que rompería las restricciones únicas). Las filas que no correspondan a ningún
+     * estudiante o tipo calculado se eliminan.
+     */
+    private void apply(Long courseId, CourseGradebook gradebook,
+                       List<StudentCourseAverage> existingCourseRows, List<StudentTypeAverage> existingTypeRows) {
+        // Calcular en memoria, desde la planilla, los promedios de todos los estudiantes
+        Rows rows = toRows(courseId, calculator.calculate(gradebook), existingCourseRows, existingTypeRows);
+        
+        typeAverageRepository.deleteAll(rows.typeRowsToDelete);
+        courseAverageRepository.deleteAll(rows.courseRowsToDelete);
+        courseAverageRepository.saveAll(rows.courseRows);
+        typeAverageRepository.saveAll(rows.typeRows);
+    }
+    
+    /**
+     * Arma las filas con los promedios calculados, reutilizando las existentes del mismo
+     * estudiante (y tipo). Las existentes que no se reutilizan quedan para eliminar.
+     */
+    private Rows toRows(Long courseId, Map<Long, StudentAverages> averages,
+                        List<StudentCourseAverage> existingCourseRows, List<StudentTypeAverage> existingTypeRows) {
+        Map<Long, StudentCourseAverage> courseRows = existingCourseRows.stream()
+                .collect(Collectors.toMap(StudentCourseAverage::getStudentId, row -> row, (a, b) -> a));
+        Map<Long, Map<Long, StudentTypeAverage>> typeRows = new HashMap<>();
+        for (StudentTypeAverage row : existingTypeRows) {
+            typeRows.computeIfAbsent(row.getStudentId(), id -> new HashMap<>())
+                    .putIfAbsent(row.getEvaluationTypeId(), row);
+        }
+        
+        List<StudentCourseAverage> courseRowsToSave = new ArrayList<>();
+        List<StudentTypeAverage> typeRowsToSave = new ArrayList<>();
+        List<StudentTypeAverage> typeRowsToDelete = new ArrayList<>();
+        
+        for (Map.Entry<Long, StudentAverages> studentEntry : averages.entrySet()) {
+            Long studentId = studentEntry.getKey();
+            StudentAverages studentAverages = studentEntry.getValue();
+            
+            StudentCourseAverage courseRow = courseRows.remove(studentId);
+            if (courseRow == null) {
+                courseRow = new StudentCourseAverage();
+                courseRow.setCourseId(courseId);
+                courseRow.setStudentId(studentId);
+            }
+            courseRow.setGradeSum(studentAverages.getGradeSum());
+            courseRow.setGradeCount(studentAverages.getGradeCount());
+            courseRow.setFinalAverage(studentAverages.getFinalAverage());
+            courseRowsToSave.add(courseRow);
+            
+            Map<Long, StudentTypeAverage> studentTypeRows = typeRows.getOrDefault(studentId, new HashMap<>());
+            typeRows.remove(studentId);
+            for (Map.Entry<Long, TypeAverage> entry : studentAverages.getTypes().entrySet()) {
+                TypeAverage typeAverage = entry.getValue();
+                StudentTypeAverage row = studentTypeRows.remove(entry.getKey());
+                if (row == null) {
+                    row = new StudentTypeAverage();
+                    row.setStudentId(studentId);
+                    row.setEvaluationTypeId(entry.getKey());
+                }
+                row.setCourseId(courseId);
+                row.setGradeSum(typeAverage.getGradeSum());
+                row.setGradeCount(typeAverage.getGradeCount());
+                row.setEvaluationsCount(typeAverage.getEvaluationIds().size());
+                row.setEvaluationIds(joinIds(typeAverage.getEvaluationIds()));
+                typeRowsToSave.add(row);
+            }
+            typeRowsToDelete.addAll(studentTypeRows.values());
+        }
+        
+        // Filas de estudiantes que ya no están en el curso
+        typeRows.values().forEach(rows -> typeRowsToDelete.addAll(rows.values()));
+        
+        return new Rows(courseRowsToSave, typeRowsToSave, new ArrayList<>(courseRows.values()), typeRowsToDelete);
+    }
+    
+    /**
+     * Convierte la lista de IDs guardada en student_type_averages.evaluationIds.
+     */
+    public static List<Long> parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return new ArrayList<>();
+        }
+        List<Long> result = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            result.add(Long.valueOf(id.trim()));
+        }
+        return result;
+    }
+    
+    private static String joinIds(List<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+    
+    /**
+     * Filas de promedios de un curso (o de un estudiante), tal como se leen de las tablas materializadas.
+     */
+    public static final class CourseAverages {
+        private final List<StudentCourseAverage> courseRows;
+        private final List<StudentTypeAverage> typeRows;
+        
+        CourseAverages(List<StudentCourseAverage> courseRows, List<StudentTypeAverage> typeRows) {
+            this.courseRows = courseRows;
+            this.typeRows = typeRows;
+        }
+        
+        public List<StudentCourseAverage> getCourseRows() {
+            return courseRows;
+        }
+        
+        /**
+         * Filas por tipo de evaluación, ordenadas por tipo
+         */
+        public List<StudentTypeAverage> getTypeRows() {
+            return typeRows.stream()
+                    .sorted(Comparator.comparing(StudentTypeAverage::getEvaluationTypeId))
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    private static final class Rows {
+        private final List<StudentCourseAverage> courseRows;
+        private final List<StudentTypeAverage> typeRows;
+        private final List<StudentCourseAverage> courseRowsToDelete;
+        private final List<StudentTypeAverage> typeRowsToDelete;
+        
+        Rows(List<StudentCourseAverage> courseRows, List<StudentTypeAverage> typeRows,
+             List<StudentCourseAverage> courseRowsToDelete, List<StudentTypeAverage> typeRowsToDelete) {
+            this.courseRows = courseRows;
+            this.typeRows = typeRows;
+            this.courseRowsToDelete = courseRowsToDelete;
+            this.typeRowsToDelete = typeRowsToDelete;
+        }
+    }
+}
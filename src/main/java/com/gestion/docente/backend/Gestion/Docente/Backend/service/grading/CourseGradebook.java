@@ -0,0 +1,258 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Foto compacta de las notas de un curso: matriz estudiante × evaluación guardada en un
+ * double[] (NaN = sin valor numérico), más arreglos paralelos con el nombre de cada estudiante
+ * y el nombre, tipo, peso y materia de cada evaluación.
+ * 
+ * Es inmutable y no guarda entidades, así que puede compartirse entre hilos y reutilizarse
+ * para promedios, exportación a Excel y reportes. Se arma con CourseGradebookLoader.
+ * Estudiantes y evaluaciones quedan ordenados por ID.
+ */
+public final class CourseGradebook {
+    
+    /** Valor de los arreglos de IDs cuando la evaluación no tiene tipo o materia. */
+    public static final long NO_ID = -1L;
+    
+    private final Long courseId;
+    
+    private final long[] studentIds;
+    private final String[] studentNames; // "Nombre Apellido", o null si no se cargaron los nombres
+    private final Map<Long, Integer> studentIndex;
+    
+    private final long[] evaluationIds;
+    private final String[] evaluationNames;
+    private final Map<Long, Integer> evaluationIndex;
+    private final int[] evaluationTypeIndex; // índice en typeIds, o -1 si la evaluación no tiene tipo del curso
+    private final long[] evaluationSubjectIds; // NO_ID si no tiene materia
+    private final double[] evaluationApprovalGrades; // Nota de aprobación propia de la evaluación, NaN si usa la del curso
+    private final double[] evaluationQualificationGrades; // Nota de habilitación propia, NaN si usa la del curso
+    
+    private final long[] typeIds;
+    private final String[] typeNames;
+    private final double[] typeWeights; // NaN si el tipo no tiene peso
+    
+    private final double[] values; // [estudiante * cantidadEvaluaciones + evaluación]
+    private final String[] labels; // Etiqueta de las notas categóricas (null si no tiene)
+    
+    CourseGradebook(Long courseId, long[] studentIds, String[] studentNames, long[] evaluationIds,
+                    String[] evaluationNames, int[] evaluationTypeIndex, long[] evaluationSubjectIds,
+                    double[] evaluationApprovalGrades, double[] evaluationQualificationGrades,
+                    long[] typeIds, String[] typeNames, double[] typeWeights, double[] values, String[] labels) {
+        this.courseId = courseId;
+        this.studentIds = studentIds;
+        this.studentNames = studentNames;
+        this.evaluationIds = evaluationIds;
+        this.evaluationNames = evaluationNames;
+        this.evaluationTypeIndex = evaluationTypeIndex;
+        this.evaluationSubjectIds = evaluationSubjectIds;
+        this.evaluationApprovalGrades = evaluationApprovalGrades;
+        this.evaluationQualificationGrades = evaluationQualificationGrades;
+        this.typeIds = typeIds;
+        this.typeNames = typeNames;
+        this.typeWeights = typeWeights;
+        this.values = values;
+        this.labels = labels;
+        this.studentIndex = indexOf(studentIds);
+        this.evaluationIndex = indexOf(evaluationIds);
+    }
+    
+    private static Map<Long, Integer> indexOf(long[] ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+        return index;
+    }
+    
+    /**
+     * Crea la matriz vacía (todas las celdas en NaN) para las dimensiones dadas.
+     */
+    static double[] emptyValues(int students, int evaluations) {
+        double[] values = new double[students * evaluations];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+    
+    /**
+     * Planilla con un solo estudiante, copia de su fila con algunas notas reemplazadas.
+     * Sirve para calcular promedios hipotéticos sin modificar esta planilla.
+     * 
+     * @param student Índice del estudiante
+     * @param overrides Valor por índice de evaluación (reemplaza la nota, numérica o categórica)
+     */
+    public CourseGradebook forStudent(int student, Map<Integer, Double> overrides) {
+        int evaluations = evaluationIds.length;
+        double[] rowValues = Arrays.copyOfRange(values, student * evaluations, (student + 1) * evaluations);
+        String[] rowLabels = Arrays.copyOfRange(labels, student * evaluations, (student + 1) * evaluations);
+        for (Map.Entry<Integer, Double> override : overrides.entrySet()) {
+            rowValues[override.getKey()] = override.getValue();
+            rowLabels[override.getKey()] = null;
+        }
+        return new CourseGradebook(courseId, new long[] {studentIds[student]}, new String[] {studentNames[student]},
+                evaluationIds, evaluationNames, evaluationTypeIndex, evaluationSubjectIds, evaluationApprovalGrades,
+                evaluationQualificationGrades, typeIds, typeNames, typeWeights, rowValues, rowLabels);
+    }
+    
+    /**
+     * Planilla con todos los estudiantes y solo las evaluaciones que cumplen el filtro
+     * (por ejemplo, las de una materia). Los tipos se mantienen, así los promedios
+     * calculados sobre ella quedan restringidos a esas evaluaciones.
+     * 
+     * @param keep Recibe el índice de cada evaluación en esta planilla
+     */
+    public CourseGradebook withEvaluations(IntPredicate keep) {
+        int[] kept = IntStream.range(0, evaluationIds.length).filter(keep).toArray();
+        if (kept.length == evaluationIds.length) {
+            return this;
+        }
+        
+        long[] keptIds = new long[kept.length];
+        String[] keptNames = new String[kept.length];
+        int[] keptTypes = new int[kept.length];
+        long[] keptSubjects = new long[kept.length];
+        double[] keptApprovals = new double[kept.length];
+        double[] keptQualifications = new double[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            keptIds[i] = evaluationIds[kept[i]];
+            keptNames[i] = evaluationNames[kept[i]];
+            keptTypes[i] = evaluationTypeIndex[kept[i]];
+            keptSubjects[i] = evaluationSubjectIds[kept[i]];
+            keptApprovals[i] = evaluationApprovalGrades[kept[i]];
+            keptQualifications[i] = evaluationQualificationGrades[kept[i]];
+        }
+        
+        double[] keptValues = new double[studentIds.length * kept.length];
+        String[] keptLabels = new String[studentIds.length * kept.length];
+        for (int student = 0; student < studentIds.length; student++) {
+            for (int i = 0; i < kept.length; i++) {
+                keptValues[student * kept.length + i] = values[student * evaluationIds.length + kept[i]];
+                keptLabels[student * kept.length + i] = labels[student * evaluationIds.length + kept[i]];
+            }
+        }
+        return new CourseGradebook(courseId, studentIds, studentNames, keptIds, keptNames, keptTypes, keptSubjects,
+                keptApprovals, keptQualifications, typeIds, typeNames, typeWeights, keptValues, keptLabels);
+    }
+    
+    public Long getCourseId() {
+        return courseId;
+    }
+    
+    public int getStudentCount() {
+        return studentIds.length;
+    }
+    
+    public int getEvaluationCount() {
+        return evaluationIds.length;
+    }
+    
+    public int getTypeCount() {
+        return typeIds.length;
+    }
+    
+    public long getStudentId(int student) {
+        return studentIds[student];
+    }
+    
+    /**
+     * @return Nombre y apellido del estudiante (vacío si no tiene), o null si la planilla
+     *         se cargó solo con los IDs de los estudiantes
+     */
+    public String getStudentName(int student) {
+        return studentNames[student];
+    }
+    
+    /**
+     * @return Índice del estudiante en la matriz, o -1 si no está
+     */
+    public int getStudentIndex(Long studentId) {
+        return studentIndex.getOrDefault(studentId, -1);
+    }
+    
+    public long getEvaluationId(int evaluation) {
+        return evaluationIds[evaluation];
+    }
+    
+    /**
+     * @return Nombre de la evaluación, o null si no tiene
+     */
+    public String getEvaluationName(int evaluation) {
+        return evaluationNames[evaluation];
+    }
+    
+    /**
+     * @return Índice de la evaluación en la matriz, o -1 si no está
+     */
+    public int getEvaluationIndex(Long evaluationId) {
+        return evaluationIndex.getOrDefault(evaluationId, -1);
+    }
+    
+    /**
+     * @return Índice del tipo de la evaluación, o -1 si no tiene un tipo del curso
+     */
+    public int getEvaluationTypeIndex(int evaluation) {
+        return evaluationTypeIndex[evaluation];
+    }
+    
+    public long getEvaluationSubjectId(int evaluation) {
+        return evaluationSubjectIds[evaluation];
+    }
+    
+    /**
+     * @return Nota mínima para aprobar definida en la evaluación, o NaN si usa la del curso
+     */
+    public double getEvaluationApprovalGrade(int evaluation) {
+        return evaluationApprovalGrades[evaluation];
+    }
+    
+    /**
+     * @return Nota mínima para habilitar definida en la evaluación, o NaN si usa la del curso
+     */
+    public double getEvaluationQualificationGrade(int evaluation) {
+        return evaluationQualificationGrades[evaluation];
+    }
+    
+    public long getTypeId(int type) {
+        return typeIds[type];
+    }
+    
+    public String getTypeName(int type) {
+        return typeNames[type];
+    }
+    
+    /**
+     * @return Peso del tipo (0-100), o NaN si no tiene peso asignado
+     */
+    public double getTypeWeight(int type) {
+        return typeWeights[type];
+    }
+    
+    /**
+     * @return Valor numérico de la nota (incluye el mapeo de notas categóricas), o NaN si no tiene
+     */
+    public double getValue(int student, int evaluation) {
+        return values[student * evaluationIds.length + evaluation];
+    }
+    
+    /**
+     * @return Etiqueta de la nota categórica, o null
+     */
+    public String getLabel(int student, int evaluation) {
+        return labels[student * evaluationIds.length + evaluation];
+    }
+    
+    /**
+     * Indica si el estudiante tiene nota cargada en la evaluación (numérica o categórica,
+     * aunque la etiqueta no tenga un valor numérico asociado).
+     */
+    public boolean isGraded(int student, int evaluation) {
+        int cell = student * evaluationIds.length + evaluation;
+        return !Double.isNaN(values[cell]) || labels[cell] != null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria de la CourseGradebook completa de cada curso, para lecturas que
+ * no escriben (por ejemplo, simulaciones de notas).
+ * 
+ * Cada entrada guarda la versión del curso (course_versions) con la que se cargó y se descarta
+ * cuando la versión cambia, así no hace falta invalidarla desde cada servicio que escribe.
+ * La versión se lee antes de cargar: si entre medio hubo una escritura, la planilla queda
+ * guardada con la versión anterior y se vuelve a cargar en la siguiente consulta. La versión
+ * se confirma en la misma transacción que los datos (ver CourseChangeTracker).
+ * 
+ * Las planillas vencen a los app.grades.gradebook-cache.ttl-seconds (600 por defecto) y se guardan
+ * a lo sumo app.grades.gradebook-cache.max-courses cursos (200 por defecto): al llenarse se
+ * descartan las vencidas y, si no había ninguna, la usada hace más tiempo. CourseServiceImpl
+ * invalida la entrada al eliminar el curso.
+ */
+@Component
+public class CourseGradebookCache {
+    
+    private final CourseGradebookLoader gradebookLoader;
+    private final CourseVersionCounter versionCounter;
+    private final int maxCourses;
+    private final long ttlNanos;
+    
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    
+    // Se incrementa en cada invalidación para no guardar cargas que empezaron antes de un cambio
+    private long invalidations = 0;
+    
+    public CourseGradebookCache(
+            CourseGradebookLoader gradebookLoader,
+            CourseVersionCounter versionCounter,
+            @Value("${app.grades.gradebook-cache.max-courses:200}") int maxCourses,
+            @Value("${app.grades.gradebook-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.gradebookLoader = gradebookLoader;
+        this.versionCounter = versionCounter;
+        this.maxCourses = Math.max(1, maxCourses);
+        this.ttlNanos = Math.max(1, ttlSeconds) * 1_000_000_000L;
+    }
+    
+    /**
+     * Obtiene la planilla del curso en su versión actual, cargándola si no está en caché.
+     */
+    public CourseGradebook get(Long courseId) {
+        long version = versionCounter.current(courseId);
+        Entry entry = cache.get(courseId);
+        long now = System.nanoTime();
+        if (entry != null && entry.version == version && now - entry.loadedAt < ttlNanos) {
+            entry.lastUsedAt = now;
+            return entry.gradebook;
+        }
+        
+        long startedAt;
+        synchronized (this) {
+            startedAt = invalidations;
+        }
+        CourseGradebook gradebook = gradebookLoader.load(courseId);
+        synchronized (this) {
+            // Si hubo una invalidación mientras se cargaba, no se guarda
+            if (startedAt == invalidations) {
+                Entry current = cache.get(courseId);
+                if (current == null && cache.size() >= maxCourses) {
+                    evictExpiredOrLeastRecentlyUsed(now);
+                }
+                if (current == null || version >= current.version) {
+                    cache.put(courseId, new Entry(version, gradebook, now));
+                }
+            }
+        }
+        return gradebook;
+    }
+    
+    /**
+     * Invalida la planilla de un curso, inmediatamente y de nuevo al terminar la transacción
+     * actual (igual que GradeDistributionCache.invalidate).
+     */
+    public void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        evict(courseId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(courseId);
+                }
+            });
+        }
+    }
+    
+    /**
+     * @return Cantidad de cursos con la planilla en caché
+     */
+    public int size() {
+        return cache.size();
+    }
+    
+    private synchronized void evict(Long courseId) {
+        invalidations++;
+        cache.remove(courseId);
+    }
+    
+    // Se llama con el monitor tomado y solo al cargar un curso nuevo con la caché llena
+    private void evictExpiredOrLeastRecentlyUsed(long now) {
+        cache.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+        if (cache.size() < maxCourses) {
+            return;
+        }
+        Long leastRecent = null;
+        long leastRecentUsedAt = 0;
+        for (Map.Entry<Long, Entry> candidate : cache.entrySet()) {
+            if (leastRecent == null || candidate.getValue().lastUsedAt - leastRecentUsedAt < 0) {
+                leastRecent = candidate.getKey();
+                leastRecentUsedAt = candidate.getValue().lastUsedAt;
+            }
+        }
+        if (leastRecent != null) {
+            cache.remove(leastRecent);
+        }
+    }
+    
+    private static final class Entry {
+        private final long version;
+        private final CourseGradebook gradebook;
+        private final long loadedAt; // System.nanoTime() al cargar
+        private volatile long lastUsedAt; // System.nanoTime() de la última lectura
+        
+        private Entry(long version, CourseGradebook gradebook, long loadedAt) {
+            this.version = version;
+            this.gradebook = gradebook;
+            this.loadedAt = loadedAt;
+            this.lastUsedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.EvaluationType;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationTypeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Arma la CourseGradebook de un curso con una cantidad fija de consultas
+ * (estudiantes, evaluaciones, tipos y notas) y resuelve las notas categóricas
+ * con el índice de escalas.
+ */
+@Component
+public class CourseGradebookLoader {
+    
+    private final StudentRepository studentRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final EvaluationTypeRepository evaluationTypeRepository;
+    private final GradeRepository gradeRepository;
+    private final GradeScaleIndex gradeScaleIndex;
+    
+    public CourseGradebookLoader(
+            StudentRepository studentRepository,
+            EvaluationRepository evaluationRepository,
+            EvaluationTypeRepository evaluationTypeRepository,
+            GradeRepository gradeRepository,
+            GradeScaleIndex gradeScaleIndex) {
+        this.studentRepository = studentRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.evaluationTypeRepository = evaluationTypeRepository;
+        this.gradeRepository = gradeRepository;
+        this.gradeScaleIndex = gradeScaleIndex;
+    }
+    
+    /**
+     * Carga las notas y los nombres de todos los estudiantes del curso.
+     */
+    public CourseGradebook load(Long courseId) {
+        Map<Long, String> students = new HashMap<>();
+        for (Student student : studentRepository.findByCourseId(courseId)) {
+            students.put(student.getId(), fullName(student));
+        }
+        return build(courseId, students.keySet(), students, gradeRepository.findByCourseId(courseId));
+    }
+    
+    /**
+     * Carga las notas del curso solo para los estudiantes indicados, sin sus nombres.
+     */
+    public CourseGradebook load(Long courseId, Collection<Long> studentIds) {
+        List<Long> ids = studentIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Grade> grades = ids.isEmpty() ? List.of() : gradeRepository.findByCourseIdAndStudentIdIn(courseId, ids);
+        return build(courseId, ids, null, grades);
+    }
+    
+    private static String fullName(Student student) {
+        String fullName = (student.getFirstName() != null ? student.getFirstName() : "") +
+                (student.getLastName() != null ? " " + student.getLastName() : "");
+        return fullName.trim();
+    }
+    
+    /**
+     * @param names Nombre de cada estudiante, o null para no incluir los nombres
+     */
+    private CourseGradebook build(Long courseId, Collection<Long> studentIdList, Map<Long, String> names,
+                                  List<Grade> grades) {
+        long[] studentIds = studentIdList.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        String[] studentNames = new String[studentIds.length];
+        if (names != null) {
+            for (int s = 0; s < studentIds.length; s++) {
+                studentNames[s] = names.get(studentIds[s]);
+            }
+        }
+        
+        List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId).stream()
+                .sorted(Comparator.comparing(Evaluation::getId))
+                .collect(Collectors.toList());
+        List<EvaluationType> types = evaluationTypeRepository.findByCourseId(courseId).stream()
+                .sorted(Comparator.comparing(EvaluationType::getId))
+                .collect(Collectors.toList());
+        gradeScaleIndex.preload(evaluations.stream()
+                .map(Evaluation::getGradeScaleId)
+                .collect(Collectors.toSet()));
+        
+        // Tipos de evaluación
+        long[] typeIds = new long[types.size()];
+        String[] typeNames = new String[types.size()];
+        double[] typeWeights = new double[types.size()];
+        Map<Long, Integer> typeIndex = new HashMap<>();
+        for (int t = 0; t < types.size(); t++) {
+            EvaluationType type = types.get(t);
+            typeIds[t] = type.getId();
+            typeNames[t] = type.getNombre();
+            typeWeights[t] = type.getWeight() != null ? type.getWeight() : Double.NaN;
+            typeIndex.put(type.getId(), t);
+        }
+        
+        // Evaluaciones y sus arreglos paralelos
+        int evaluationCount = evaluations.size();
+        long[] evaluationIds = new long[evaluationCount];
+        String[] evaluationNames = new String[evaluationCount];
+        int[] evaluationTypeIndex = new int[evaluationCount];
+        long[] evaluationSubjectIds = new long[evaluationCount];
+        double[] evaluationApprovalGrades = new double[evaluationCount];
+        double[] evaluationQualificationGrades = new double[evaluationCount];
+        Map<Long, Integer> evaluationIndex = new HashMap<>();
+        for (int e = 0; e < evaluationCount; e++) {
+            Evaluation evaluation = evaluations.get(e);
+            evaluationIds[e] = evaluation.getId();
+            evaluationNames[e] = evaluation.getNombre();
+            evaluationTypeIndex[e] = evaluation.getEvaluationTypeId() != null
+                    ? typeIndex.getOrDefault(evaluation.getEvaluationTypeId(), -1) : -1;
+            evaluationSubjectIds[e] = evaluation.getSubjectId() != null ? evaluation.getSubjectId() : CourseGradebook.NO_ID;
+            evaluationApprovalGrades[e] = evaluation.getApprovalGrade() != null ? evaluation.getApprovalGrade() : Double.NaN;
+            evaluationQualificationGrades[e] = evaluation.getQualificationGrade() != null
+                    ? evaluation.getQualificationGrade() : Double.NaN;
+            evaluationIndex.put(evaluation.getId(), e);
+        }
+        
+        Map<Long, Integer> studentIndex = new HashMap<>();
+        for (int s = 0; s < studentIds.length; s++) {
+            studentIndex.put(studentIds[s], s);
+        }
+        
+        // Matriz de notas: si hay más de una nota para la misma celda, se conserva la primera cargada
+        double[] values = CourseGradebook.emptyValues(studentIds.length, evaluationCount);
+        String[] labels = new String[values.length];
+        boolean[] filled = new boolean[values.length];
+        for (Grade grade : grades) {
+            Integer s = studentIndex.get(grade.getStudentId());
+            Integer e = evaluationIndex.get(grade.getEvaluationId());
+            if (s == null || e == null || (grade.getGrade() == null && grade.getGradeValue() == null)) {
+                continue;
+            }
+            int cell = s * evaluationCount + e;
+            if (filled[cell]) {
+                continue;
+            }
+            filled[cell] = true;
+            
+            Double value = gradeScaleIndex.numericValue(grade, evaluations.get(e));
+            if (value != null) {
+                values[cell] = value;
+            }
+            if (grade.getGrade() == null) {
+                labels[cell] = grade.getGradeValue();
+            }
+        }
+        
+        return new CourseGradebook(courseId, studentIds, studentNames, evaluationIds, evaluationNames,
+                evaluationTypeIndex, evaluationSubjectIds, evaluationApprovalGrades, evaluationQualificationGrades,
+                typeIds, typeNames, typeWeights, values, labels);
+    }
+}
@@ -0,0 +1,268 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseRankingDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.RankedStudentDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.StudentAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Arma el ranking de un curso por promedio final: los k mejores, los k peores y, si se pide,
+ * los estudiantes de un cuartil.
+ * 
+ * Los promedios se calculan con GroupedAverageCalculator sobre la planilla en caché del curso,
+ * restringida a las evaluaciones del tipo o la materia pedidos. De ahí se eligen los k extremos
+ * con un heap acotado a k elementos (O(n log k)), sin ordenar todo el curso.
+ * 
+ * Los rankings ya armados se guardan por curso junto con la versión (course_versions) con la
+ * que se calcularon, igual que CourseGradebookCache: cuando el curso cambia se descartan solos.
+ * Se guardan los rankings de a lo sumo app.grades.ranking-cache.max-courses cursos (200 por
+ * defecto): al llenarse se descarta el curso consultado hace más tiempo.
+ */
+@Component
+public class CourseRankingCalculator {
+    
+    public static final int DEFAULT_K = 10;
+    public static final int MAX_K = 100;
+    
+    // Combinaciones de parámetros guardadas por curso; al superarlas se vacía la entrada
+    private static final int MAX_RANKINGS_PER_COURSE = 64;
+    
+    // Mejor promedio primero; a igual promedio, menor ID de estudiante
+    private static final Comparator<Scored> BEST_FIRST = Comparator.comparingDouble((Scored s) -> s.average).reversed()
+            .thenComparingLong(s -> s.studentId);
+    
+    private final CourseGradebookCache gradebookCache;
+    private final GroupedAverageCalculator calculator;
+    private final CourseVersionCounter versionCounter;
+    private final StudentRepository studentRepository;
+    private final int maxCourses;
+    
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    
+    public CourseRankingCalculator(
+            CourseGradebookCache gradebookCache,
+            GroupedAverageCalculator calculator,
+            CourseVersionCounter versionCounter,
+            StudentRepository studentRepository,
+            @Value("${app.grades.ranking-cache.max-courses:200}") int maxCourses) {
+        this.gradebookCache = gradebookCache;
+        this.calculator = calculator;
+        this.versionCounter = versionCounter;
+        this.studentRepository = studentRepository;
+        this.maxCourses = Math.max(1, maxCourses);
+    }
+    
+    /**
+     * Obtiene el ranking del curso. El ownership del curso y la materia los valida quien llama.
+     * 
+     * @param k Cantidad de estudiantes de top y bottom (null = 10, máximo 100)
+     * @param evaluationTypeId Si no es null, se ordena por el promedio de ese tipo
+     * @param subjectId Si no es null, se ordena por el promedio final de las evaluaciones de esa materia
+     * @param quartile Si no es null (1 a 4), se devuelven también los estudiantes de ese cuartil
+     */
+    public CourseRankingDTO rank(Long courseId, Integer k, Long evaluationTypeId, Long subjectId, Integer quartile) {
+        if (quartile != null && (quartile < 1 || quartile > 4)) {
+            throw new IllegalArgumentException("El cuartil debe estar entre 1 y 4");
+        }
+        int size = k == null ? DEFAULT_K : Math.max(1, Math.min(k, MAX_K));
+        String key = evaluationTypeId + ":" + subjectId + ":" + size + ":" + quartile;
+        
+        // La versión se lee antes de calcular (ver CourseGradebookCache)
+        long version = versionCounter.current(courseId);
+        Entry entry = cache.get(courseId);
+        if (entry != null && entry.version == version) {
+            CourseRankingDTO cached = entry.rankings.get(key);
+            if (cached != null) {
+                entry.lastUsedAt = System.nanoTime();
+                return cached;
+            }
+        }
+        
+        CourseRankingDTO ranking = build(gradebookCache.get(courseId), size, evaluationTypeId, subjectId, quartile);
+        Entry current;
+        synchronized (this) {
+            current = cache.get(courseId);
+            if (current == null || current.version < version) {
+                if (current == null && cache.size() >= maxCourses) {
+                    evictLeastRecentlyUsed();
+                }
+                current = new Entry(version);
+                cache.put(courseId, current);
+            }
+        }
+        current.lastUsedAt = System.nanoTime();
+        if (current.version == version) {
+            if (current.rankings.size() >= MAX_RANKINGS_PER_COURSE) {
+                current.rankings.clear();
+            }
+            current.rankings.put(key, ranking);
+        }
+        return ranking;
+    }
+    
+    private CourseRankingDTO build(CourseGradebook gradebook, int k, Long evaluationTypeId, Long subjectId,
+                                   Integer quartile) {
+        int typeIndex = -1;
+        if (evaluationTypeId != null) {
+            for (int type = 0; type < gradebook.getTypeCount(); type++) {
+                if (gradebook.getTypeId(type) == evaluationTypeId) {
+                    typeIndex = type;
+                    break;
+                }
+            }
+            if (typeIndex < 0) {
+                throw new IllegalArgumentException("El tipo de evaluación con ID " + evaluationTypeId +
+                        " no pertenece al curso con ID " + gradebook.getCourseId());
+            }
+        }
+        
+        // Con un solo tipo, el promedio final de la planilla restringida es el promedio de ese tipo
+        int selectedType = typeIndex;
+        CourseGradebook filtered = gradebook.withEvaluations(evaluation ->
+                (selectedType < 0 || gradebook.getEvaluationTypeIndex(evaluation) == selectedType)
+                        && (subjectId == null || gradebook.getEvaluationSubjectId(evaluation) == subjectId));
+        
+        List<Scored> scored = new ArrayList<>();
+        for (Map.Entry<Long, StudentAverages> averages : calculator.calculate(filtered).entrySet()) {
+            StudentAverages studentAverages = averages.getValue();
+            // Sin notas con tipo no hay promedio ponderado: se usa el promedio simple
+            Double average = studentAverages.getFinalAverage() != null
+                    ? studentAverages.getFinalAverage() : studentAverages.getAverage();
+            if (average != null) {
+                scored.add(new Scored(averages.getKey(), average));
+            }
+        }
+        int n = scored.size();
+        
+        List<Scored> top = select(scored, k, BEST_FIRST);
+        List<Scored> bottom = select(scored, k, BEST_FIRST.reversed());
+        List<Scored> quartileStudents = null;
+        int quartileStart = 0;
+        if (quartile != null) {
+            // El cuartil q ocupa las posiciones [ceil((q-1)n/4), ceil(qn/4)) del ranking
+            quartileStart = (int) Math.ceil((quartile - 1) * n / 4.0);
+            int quartileEnd = (int) Math.ceil(quartile * n / 4.0);
+            quartileStudents = select(scored, quartileEnd, BEST_FIRST).subList(quartileStart, quartileEnd);
+        }
+        
+        // Solo se leen los nombres de los estudiantes que aparecen en el resultado
+        Set<Long> ids = new HashSet<>();
+        top.forEach(s -> ids.add(s.studentId));
+        bottom.forEach(s -> ids.add(s.studentId));
+        if (quartileStudents != null) {
+            quartileStudents.forEach(s -> ids.add(s.studentId));
+        }
+        Map<Long, Student> students = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        
+        CourseRankingDTO ranking = new CourseRankingDTO();
+        ranking.setCourseId(gradebook.getCourseId());
+        ranking.setEvaluationTypeId(evaluationTypeId);
+        ranking.setSubjectId(subjectId);
+        ranking.setK(k);
+        ranking.setRankedCount(n);
+        ranking.setTop(toDTOs(top, 1, 1, students));
+        ranking.setBottom(toDTOs(bottom, n, -1, students));
+        ranking.setQuartile(quartile);
+        if (quartileStudents != null) {
+            ranking.setQuartileStudents(toDTOs(quartileStudents, quartileStart + 1, 1, students));
+        }
+        return ranking;
+    }
+    
+    /**
+     * Elige los k primeros según el orden dado con un heap de a lo sumo k elementos
+     * cuya cabeza es el peor de los elegidos hasta el momento.
+     * 
+     * @return Los elegidos, ordenados según order
+     */
+    static List<Scored> select(List<Scored> scored, int k, Comparator<Scored> order) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Math.min(k, Math.max(1, scored.size())), order.reversed());
+        for (Scored candidate : scored) {
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (order.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        List<Scored> selected = new ArrayList<>(heap);
+        selected.sort(order);
+        return selected;
+    }
+    
+    private static List<RankedStudentDTO> toDTOs(List<Scored> scored, int firstRank, int step,
+                                                 Map<Long, Student> students) {
+        List<RankedStudentDTO> result = new ArrayList<>(scored.size());
+        int rank = firstRank;
+        for (Scored s : scored) {
+            Student student = students.get(s.studentId);
+            result.add(new RankedStudentDTO(rank, s.studentId,
+                    student != null ? student.getFirstName() : null,
+                    student != null ? student.getLastName() : null,
+                    s.average));
+            rank += step;
+        }
+        return result;
+    }
+    
+    static final class Scored {
+        private final long studentId;
+        private final double average;
+        
+        Scored(long studentId, double average) {
+            this.studentId = studentId;
+            this.average = average;
+        }
+    }
+    
+    /**
+     * @return Cantidad de cursos con rankings en caché
+     */
+    public int cachedCourses() {
+        return cache.size();
+    }
+    
+    // Se llama con el monitor tomado y solo al guardar un curso nuevo con la caché llena
+    private void evictLeastRecentlyUsed() {
+        Long leastRecent = null;
+        long leastRecentUsedAt = 0;
+        for (Map.Entry<Long, Entry> candidate : cache.entrySet()) {
+            if (leastRecent == null || candidate.getValue().lastUsedAt - leastRecentUsedAt < 0) {
+                leastRecent = candidate.getKey();
+                leastRecentUsedAt = candidate.getValue().lastUsedAt;
+            }
+        }
+        if (leastRecent != null) {
+            cache.remove(leastRecent);
+        }
+    }
+    
+    private static final class Entry {
+        private final long version;
+        private final Map<String, CourseRankingDTO> rankings = new ConcurrentHashMap<>();
+        private volatile long lastUsedAt = System.nanoTime(); // Última consulta del curso
+        
+        private Entry(long version) {
+            this.version = version;
+        }
+    }
+}
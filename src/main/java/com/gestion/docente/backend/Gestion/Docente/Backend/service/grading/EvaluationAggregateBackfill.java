@@ -0,0 +1,44 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calcula una sola vez, al iniciar la aplicación, los agregados de notas de las evaluaciones
+ * creadas antes de que existieran esas columnas (gradedCount null).
+ * 
+ * Cada curso se procesa en su propia transacción y con el curso bloqueado, igual que una
+ * escritura de notas (ver EvaluationAggregateMaintainer.buildMissing). Si un curso falla se
+ * sigue con los demás; en el próximo inicio se vuelve a intentar.
+ */
+@Component
+public class EvaluationAggregateBackfill {
+    
+    private final EvaluationRepository evaluationRepository;
+    private final EvaluationAggregateMaintainer aggregateMaintainer;
+    
+    public EvaluationAggregateBackfill(
+            EvaluationRepository evaluationRepository,
+            EvaluationAggregateMaintainer aggregateMaintainer) {
+        this.evaluationRepository = evaluationRepository;
+        this.aggregateMaintainer = aggregateMaintainer;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int evaluations = 0;
+        for (Long courseId : evaluationRepository.findCourseIdsWithoutAggregates()) {
+            try {
+                evaluations += aggregateMaintainer.buildMissing(courseId);
+            } catch (RuntimeException e) {
+                System.err.println("No se pudieron calcular los agregados de las evaluaciones del curso "
+                        + courseId + ": " + e.getMessage());
+            }
+        }
+        if (evaluations > 0) {
+            System.out.println("Agregados de notas calculados para " + evaluations + " evaluaciones");
+        }
+    }
+}
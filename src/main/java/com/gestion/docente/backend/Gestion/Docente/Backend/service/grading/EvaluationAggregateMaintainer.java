@@ -0,0 +1,120 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los agregados de notas guardados en cada evaluación (cantidad de notas, suma,
+ * mínimo, máximo y cantidad por etiqueta categórica), para que los listados de evaluaciones
+ * no tengan que leer las notas.
+ * 
+ * Los servicios que escriben notas llaman a refresh en la misma transacción, después de
+ * bloquear el curso con CourseVersionCounter.lock: los agregados numéricos se recalculan con
+ * un solo UPDATE sobre las notas de esas evaluaciones (el mínimo y el máximo no se pueden
+ * mantener sumando diferencias cuando se borra o cambia una nota) y las etiquetas con una
+ * lectura bloqueante, así ambos ven las notas confirmadas por escrituras anteriores.
+ * 
+ * Las evaluaciones nuevas se crean con los agregados en cero. Las que son anteriores a estas
+ * columnas se calculan una sola vez al iniciar la aplicación (EvaluationAggregateBackfill);
+ * los listados solo leen.
+ */
+@Component
+@Transactional
+public class EvaluationAggregateMaintainer {
+    
+    private static final TypeReference<LinkedHashMap<String, Integer>> LABEL_COUNTS = new TypeReference<>() {};
+    
+    private final EvaluationRepository evaluationRepository;
+    private final GradeRepository gradeRepository;
+    private final CourseVersionCounter versionCounter;
+    private final ObjectMapper objectMapper;
+    
+    public EvaluationAggregateMaintainer(
+            EvaluationRepository evaluationRepository,
+            GradeRepository gradeRepository,
+            CourseVersionCounter versionCounter,
+            ObjectMapper objectMapper) {
+        this.evaluationRepository = evaluationRepository;
+        this.gradeRepository = gradeRepository;
+        this.versionCounter = versionCounter;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Recalcula los agregados de las evaluaciones indicadas.
+     * La transacción ya debe tener bloqueado el curso (CourseVersionCounter.lock).
+     */
+    public void refresh(Collection<Long> evaluationIds) {
+        Set<Long> ids = evaluationIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        evaluationRepository.refreshGradeAggregates(ids);
+        
+        Map<Long, Map<String, Integer>> labelCounts = new HashMap<>();
+        for (Grade grade : gradeRepository.findCategoricalByEvaluationIdIn(ids)) {
+            labelCounts.computeIfAbsent(grade.getEvaluationId(), id -> new TreeMap<>())
+                    .merge(grade.getGradeValue(), 1, Integer::sum);
+        }
+        for (Long id : ids) {
+            Map<String, Integer> counts = labelCounts.get(id);
+            evaluationRepository.updateLabelCounts(id, counts != null ? toJson(counts) : null);
+        }
+    }
+    
+    /**
+     * Calcula, con el curso bloqueado, los agregados de las evaluaciones del curso que todavía no los tienen.
+     * 
+     * @return Cantidad de evaluaciones calculadas
+     */
+    public int buildMissing(Long courseId) {
+        versionCounter.lock(courseId);
+        List<Long> missing = evaluationRepository.findIdsWithoutAggregatesByCourseId(courseId);
+        refresh(missing);
+        return missing.size();
+    }
+    
+    /**
+     * Cantidad de notas por etiqueta categórica guardada en la evaluación.
+     */
+    public Map<String, Integer> labelCounts(Evaluation evaluation) {
+        if (evaluation.getLabelCounts() == null || evaluation.getLabelCounts().isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return objectMapper.readValue(evaluation.getLabelCounts(), LABEL_COUNTS);
+        } catch (JsonProcessingException e) {
+            System.err.println("Conteo de etiquetas inválido en la evaluación " + evaluation.getId() + ": " + e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+    
+    private String toJson(Map<String, Integer> counts) {
+        try {
+            return objectMapper.writeValueAsString(counts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar el conteo de etiquetas", e);
+        }
+    }
+}
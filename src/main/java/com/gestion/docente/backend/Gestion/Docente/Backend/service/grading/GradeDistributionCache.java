@@ -0,0 +1,207 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria de la distribución de notas de cada curso: los valores numéricos ordenados
+ * del curso completo y de cada evaluación, armados en una sola pasada sobre la CourseGradebook.
+ * 
+ * Con los valores ordenados, las estadísticas (mediana, percentiles, histograma) se calculan
+ * sin volver a la BD para cualquier configuración pedida.
+ * 
+ * Se apoya en CourseGradebookCache: cada entrada guarda la planilla con la que se armó y solo se
+ * reutiliza mientras esa caché siga devolviendo la misma planilla. Así la distribución sigue la
+ * versión del curso (course_versions) y el vencimiento de la planilla sin que cada servicio que
+ * escribe tenga que invalidarla. Se guardan a lo sumo app.grades.distribution-cache.max-courses
+ * cursos (200 por defecto); al llenarse se descarta el usado hace más tiempo.
+ */
+@Component
+public class GradeDistributionCache {
+    
+    private final CourseGradebookCache gradebookCache;
+    private final int maxCourses;
+    
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    
+    public GradeDistributionCache(
+            CourseGradebookCache gradebookCache,
+            @Value("${app.grades.distribution-cache.max-courses:200}") int maxCourses) {
+        this.gradebookCache = gradebookCache;
+        this.maxCourses = Math.max(1, maxCourses);
+    }
+    
+    /**
+     * Obtiene la distribución de notas del curso en su versión actual, armándola si no está en caché.
+     */
+    public CourseDistribution get(Long courseId) {
+        CourseGradebook gradebook = gradebookCache.get(courseId);
+        Entry entry = cache.get(courseId);
+        long now = System.nanoTime();
+        if (entry != null && entry.gradebook == gradebook) {
+            entry.lastUsedAt = now;
+            return entry.distribution;
+        }
+        
+        CourseDistribution distribution = build(gradebook);
+        synchronized (this) {
+            if (!cache.containsKey(courseId) && cache.size() >= maxCourses) {
+                evictLeastRecentlyUsed();
+            }
+            cache.put(courseId, new Entry(gradebook, distribution, now));
+        }
+        return distribution;
+    }
+    
+    /**
+     * Invalida la distribución de un curso, inmediatamente y de nuevo al terminar la
+     * transacción actual (igual que GradeScaleIndex.invalidate). No hace falta llamarlo en
+     * cada escritura: alcanza con que cambie la versión del curso.
+     */
+    public void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        cache.remove(courseId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.remove(courseId);
+                }
+            });
+        }
+    }
+    
+    /**
+     * @return Cantidad de cursos con la distribución en caché
+     */
+    public int size() {
+        return cache.size();
+    }
+    
+    // Se llama con el monitor tomado y solo al guardar un curso nuevo con la caché llena
+    private void evictLeastRecentlyUsed() {
+        Long leastRecent = null;
+        long leastRecentUsedAt = 0;
+        for (Map.Entry<Long, Entry> candidate : cache.entrySet()) {
+            if (leastRecent == null || candidate.getValue().lastUsedAt - leastRecentUsedAt < 0) {
+                leastRecent = candidate.getKey();
+                leastRecentUsedAt = candidate.getValue().lastUsedAt;
+            }
+        }
+        if (leastRecent != null) {
+            cache.remove(leastRecent);
+        }
+    }
+    
+    private static CourseDistribution build(CourseGradebook gradebook) {
+        int students = gradebook.getStudentCount();
+        int evaluations = gradebook.getEvaluationCount();
+        
+        double[] all = new double[students * evaluations];
+        int allCount = 0;
+        int allNonNumeric = 0;
+        double[][] byEvaluation = new double[evaluations][students];
+        int[] evaluationCount = new int[evaluations];
+        int[] evaluationNonNumeric = new int[evaluations];
+        
+        // Una pasada sobre la matriz, repartiendo cada valor en el curso y en su evaluación
+        for (int s = 0; s < students; s++) {
+            for (int e = 0; e < evaluations; e++) {
+                double value = gradebook.getValue(s, e);
+                if (!Double.isNaN(value)) {
+                    all[allCount++] = value;
+                    byEvaluation[e][evaluationCount[e]++] = value;
+                } else if (gradebook.isGraded(s, e)) {
+                    allNonNumeric++;
+                    evaluationNonNumeric[e]++;
+                }
+            }
+        }
+        
+        Map<Long, Distribution> evaluationDistributions = new HashMap<>();
+        for (int e = 0; e < evaluations; e++) {
+            evaluationDistributions.put(gradebook.getEvaluationId(e),
+                    Distribution.of(byEvaluation[e], evaluationCount[e], evaluationNonNumeric[e]));
+        }
+        return new CourseDistribution(Distribution.of(all, allCount, allNonNumeric), evaluationDistributions);
+    }
+    
+    private static final class Entry {
+        private final CourseGradebook gradebook; // Planilla con la que se armó la distribución
+        private final CourseDistribution distribution;
+        private volatile long lastUsedAt; // System.nanoTime() de la última lectura
+        
+        private Entry(CourseGradebook gradebook, CourseDistribution distribution, long lastUsedAt) {
+            this.gradebook = gradebook;
+            this.distribution = distribution;
+            this.lastUsedAt = lastUsedAt;
+        }
+    }
+    
+    /**
+     * Distribución de notas del curso y de cada una de sus evaluaciones.
+     */
+    public static final class CourseDistribution {
+        private final Distribution course;
+        private final Map<Long, Distribution> evaluations;
+        
+        CourseDistribution(Distribution course, Map<Long, Distribution> evaluations) {
+            this.course = course;
+            this.evaluations = evaluations;
+        }
+        
+        public Distribution getCourse() {
+            return course;
+        }
+        
+        /**
+         * @return Distribución de la evaluación, o una vacía si la evaluación no tiene notas
+         */
+        public Distribution getEvaluation(Long evaluationId) {
+            return evaluations.getOrDefault(evaluationId, Distribution.EMPTY);
+        }
+    }
+    
+    /**
+     * Valores numéricos ordenados de un conjunto de notas.
+     */
+    public static final class Distribution {
+        static final Distribution EMPTY = new Distribution(new double[0], 0);
+        
+        private final double[] sortedValues;
+        private final int nonNumericCount;
+        
+        private Distribution(double[] sortedValues, int nonNumericCount) {
+            this.sortedValues = sortedValues;
+            this.nonNumericCount = nonNumericCount;
+        }
+        
+        static Distribution of(double[] values, int count, int nonNumericCount) {
+            double[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return new Distribution(sorted, nonNumericCount);
+        }
+        
+        public int size() {
+            return sortedValues.length;
+        }
+        
+        public double get(int index) {
+            return sortedValues[index];
+        }
+        
+        public int getNonNumericCount() {
+            return nonNumericCount;
+        }
+    }
+}
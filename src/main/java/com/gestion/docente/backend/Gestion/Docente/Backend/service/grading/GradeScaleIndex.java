@@ -0,0 +1,157 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeScaleOption;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeScaleOptionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Índice en memoria de las escalas de notas: gradeScaleId -> (etiqueta normalizada -> valor numérico).
+ * 
+ * Resolver una nota categórica pasa a ser una búsqueda en un mapa en lugar de una consulta a la BD.
+ * Las escalas cambian muy poco, por eso el índice se carga bajo demanda y solo se invalida
+ * cuando se editan o eliminan las opciones de una escala (ver GradeScaleServiceImpl).
+ */
+@Component
+public class GradeScaleIndex {
+    
+    private final GradeScaleOptionRepository gradeScaleOptionRepository;
+    
+    private final Map<Long, Map<String, Double>> index = new ConcurrentHashMap<>();
+    
+    // Se incrementa en cada invalidación para no guardar cargas que empezaron antes de un cambio
+    private long invalidations = 0;
+    
+    public GradeScaleIndex(GradeScaleOptionRepository gradeScaleOptionRepository) {
+        this.gradeScaleOptionRepository = gradeScaleOptionRepository;
+    }
+    
+    /**
+     * Obtiene el valor numérico de una etiqueta categórica.
+     * 
+     * @param gradeScaleId ID de la escala (puede ser null)
+     * @param label Etiqueta de la nota (ej: "aprobado")
+     * @return Valor numérico mapeado o null si la etiqueta no tiene mapeo
+     */
+    public Double resolve(Long gradeScaleId, String label) {
+        if (gradeScaleId == null || label == null) {
+            return null;
+        }
+        return getValues(gradeScaleId).get(normalize(label));
+    }
+    
+    /**
+     * Obtiene el valor numérico de una nota: el valor directo si lo tiene, o el mapeo
+     * de su etiqueta en la escala de la evaluación si es categórica.
+     * 
+     * @param grade Nota
+     * @param evaluation Evaluación de la nota (puede ser null)
+     * @return Valor numérico o null si la nota no tiene un valor numérico asociado
+     */
+    public Double numericValue(Grade grade, Evaluation evaluation) {
+        if (grade.getGrade() != null) {
+            return grade.getGrade();
+        }
+        if (grade.getGradeValue() != null && evaluation != null) {
+            return resolve(evaluation.getGradeScaleId(), grade.getGradeValue());
+        }
+        return null;
+    }
+    
+    /**
+     * Obtiene el mapeo etiqueta normalizada -> valor numérico de una escala, cargándolo si no está en el índice.
+     */
+    public Map<String, Double> getValues(Long gradeScaleId) {
+        Map<String, Double> values = index.get(gradeScaleId);
+        if (values == null) {
+            values = load(Set.of(gradeScaleId)).get(gradeScaleId);
+        }
+        return values;
+    }
+    
+    /**
+     * Carga en una sola consulta todas las escalas indicadas que todavía no estén en el índice.
+     * Conviene llamarlo antes de resolver las notas de un curso completo.
+     */
+    public void preload(Collection<Long> gradeScaleIds) {
+        Set<Long> missing = gradeScaleIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !index.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            load(missing);
+        }
+    }
+    
+    private Map<Long, Map<String, Double>> load(Set<Long> gradeScaleIds) {
+        long startedAt;
+        synchronized (this) {
+            startedAt = invalidations;
+        }
+        
+        Map<Long, Map<String, Double>> loaded = new HashMap<>();
+        for (Long id : gradeScaleIds) {
+            loaded.put(id, new HashMap<>());
+        }
+        for (GradeScaleOption option : gradeScaleOptionRepository.findByGradeScaleIdInOrderByGradeScaleIdAscOrderValueAsc(gradeScaleIds)) {
+            // Si una escala tiene etiquetas repetidas, se respeta la primera según su orden
+            if (option.getLabel() != null && option.getNumericValue() != null) {
+                loaded.get(option.getGradeScaleId()).putIfAbsent(normalize(option.getLabel()), option.getNumericValue());
+            }
+        }
+        
+        loaded.replaceAll((id, values) -> Map.copyOf(values));
+        
+        synchronized (this) {
+            // Si hubo una invalidación mientras se cargaba, los datos pueden estar desactualizados:
+            // se usan para esta consulta pero no se guardan en el índice
+            if (startedAt == invalidations) {
+                loaded.forEach(index::putIfAbsent);
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * Invalida una escala del índice.
+     * Se invalida inmediatamente (para que la transacción actual lea las opciones nuevas) y
+     * de nuevo al terminar la transacción, para descartar lo que otros hilos hayan cargado
+     * antes del commit o datos de una transacción que se revirtió.
+     */
+    public void invalidate(Long gradeScaleId) {
+        evict(gradeScaleId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(gradeScaleId);
+                }
+            });
+        }
+    }
+    
+    private synchronized void evict(Long gradeScaleId) {
+        invalidations++;
+        index.remove(gradeScaleId);
+    }
+    
+    /**
+     * Normaliza una etiqueta para compararla sin importar mayúsculas ni espacios.
+     */
+    public static String normalize(String label) {
+        return label.trim().toLowerCase(Locale.ROOT);
+    }
+}
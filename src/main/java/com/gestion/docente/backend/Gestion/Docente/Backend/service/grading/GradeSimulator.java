@@ -0,0 +1,172 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GroupedAverageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.HypotheticalGradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.RequiredGradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.StudentAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.TypeAverage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simula los promedios de un estudiante con notas hipotéticas, sin escribir nada: trabaja
+ * sobre una copia de su fila de la planilla en caché (CourseGradebookCache).
+ * 
+ * La nota mínima para aprobar se despeja en lugar de buscarse: con las demás notas fijas,
+ * el promedio final es lineal en la nota de una evaluación (entra con el mismo peso en la
+ * suma de su tipo, y el tipo con el mismo peso en el final), así que alcanza con calcularlo
+ * con 0 y con 10 e interpolar.
+ */
+@Component
+public class GradeSimulator {
+    
+    private static final double MIN_GRADE = 0.0;
+    private static final double MAX_GRADE = 10.0;
+    
+    // Tolerancia para que promedios como 5.9999999 cuenten como 6
+    private static final double EPSILON = 1e-9;
+    
+    private final CourseGradebookCache gradebookCache;
+    private final GroupedAverageCalculator calculator;
+    
+    public GradeSimulator(CourseGradebookCache gradebookCache, GroupedAverageCalculator calculator) {
+        this.gradebookCache = gradebookCache;
+        this.calculator = calculator;
+    }
+    
+    /**
+     * Calcula los promedios del estudiante con las notas hipotéticas y, si el curso tiene nota
+     * de aprobación, la nota mínima necesaria en cada evaluación pedida.
+     * El ownership del curso lo valida quien llama.
+     * 
+     * @param course Curso
+     * @param studentId ID del estudiante (debe pertenecer al curso)
+     * @param request Notas hipotéticas y evaluaciones para las que se calcula la nota mínima
+     */
+    public GradeSimulationResultDTO simulate(Course course, Long studentId, GradeSimulationRequestDTO request) {
+        CourseGradebook gradebook = gradebookCache.get(course.getId());
+        int student = gradebook.getStudentIndex(studentId);
+        if (student < 0) {
+            throw new IllegalArgumentException("El estudiante con ID " + studentId + " no pertenece al curso con ID " + course.getId());
+        }
+        
+        Map<Integer, Double> overrides = new HashMap<>();
+        if (request.getGrades() != null) {
+            for (HypotheticalGradeDTO grade : request.getGrades()) {
+                if (grade.getGrade() == null || grade.getGrade() < MIN_GRADE || grade.getGrade() > MAX_GRADE) {
+                    throw new IllegalArgumentException("La nota debe estar entre 0 y 10");
+                }
+                overrides.put(evaluationIndex(gradebook, course, grade.getEvaluationId()), grade.getGrade());
+            }
+        }
+        
+        CourseGradebook simulated = gradebook.forStudent(student, overrides);
+        StudentAverages averages = calculator.calculate(simulated).get(studentId);
+        
+        GradeSimulationResultDTO result = new GradeSimulationResultDTO();
+        result.setStudentId(studentId);
+        result.setCourseId(course.getId());
+        result.setGroupedAverages(toGroupedAverages(simulated, averages));
+        result.setFinalAverage(averages.getFinalAverage());
+        result.setApprovalGrade(course.getApprovalGrade());
+        result.setRequiredGrades(new ArrayList<>());
+        if (course.getApprovalGrade() == null) {
+            return result;
+        }
+        
+        double approval = course.getApprovalGrade();
+        result.setApproved(averages.getFinalAverage() != null && averages.getFinalAverage() + EPSILON >= approval);
+        for (int evaluation : evaluationsToSolve(simulated, course, request.getSolveFor())) {
+            result.getRequiredGrades().add(requiredGrade(gradebook, student, overrides, evaluation, approval));
+        }
+        return result;
+    }
+    
+    /**
+     * Evaluaciones pedidas o, si no se pidió ninguna, las que tienen tipo y siguen sin nota.
+     * Las evaluaciones sin tipo no cuentan para el promedio final, así que no se pueden pedir.
+     */
+    private Set<Integer> evaluationsToSolve(CourseGradebook simulated, Course course, List<Long> solveFor) {
+        Set<Integer> evaluations = new LinkedHashSet<>();
+        if (solveFor != null) {
+            for (Long evaluationId : solveFor) {
+                int evaluation = evaluationIndex(simulated, course, evaluationId);
+                if (simulated.getEvaluationTypeIndex(evaluation) < 0) {
+                    throw new IllegalArgumentException("La evaluación con ID " + evaluationId
+                            + " no tiene tipo de evaluación y no cuenta para el promedio final");
+                }
+                evaluations.add(evaluation);
+            }
+            return evaluations;
+        }
+        for (int evaluation = 0; evaluation < simulated.getEvaluationCount(); evaluation++) {
+            if (simulated.getEvaluationTypeIndex(evaluation) >= 0 && !simulated.isGraded(0, evaluation)) {
+                evaluations.add(evaluation);
+            }
+        }
+        return evaluations;
+    }
+    
+    /**
+     * Nota mínima en una evaluación para llegar a la nota de aprobación, con el resto
+     * de las notas (reales e hipotéticas) fijas. Se redondea hacia arriba a centésimos.
+     */
+    private RequiredGradeDTO requiredGrade(CourseGradebook gradebook, int student, Map<Integer, Double> overrides,
+                                           int evaluation, double approval) {
+        Long evaluationId = gradebook.getEvaluationId(evaluation);
+        Double atMin = finalAverageWith(gradebook, student, overrides, evaluation, MIN_GRADE);
+        if (atMin != null && atMin + EPSILON >= approval) {
+            return new RequiredGradeDTO(evaluationId, MIN_GRADE, true);
+        }
+        // Sin promedio final la nota de aprobación no se puede alcanzar
+        Double atMax = finalAverageWith(gradebook, student, overrides, evaluation, MAX_GRADE);
+        if (atMin == null || atMax == null || atMax + EPSILON < approval) {
+            return new RequiredGradeDTO(evaluationId, null, false);
+        }
+        
+        double grade = MIN_GRADE + (approval - atMin) / (atMax - atMin) * (MAX_GRADE - MIN_GRADE);
+        grade = Math.ceil(grade * 100 - EPSILON) / 100;
+        return new RequiredGradeDTO(evaluationId, Math.max(MIN_GRADE, Math.min(MAX_GRADE, grade)), true);
+    }
+    
+    private Double finalAverageWith(CourseGradebook gradebook, int student, Map<Integer, Double> overrides,
+                                    int evaluation, double value) {
+        Map<Integer, Double> withValue = new HashMap<>(overrides);
+        withValue.put(evaluation, value);
+        CourseGradebook simulated = gradebook.forStudent(student, withValue);
+        // Null si ningún tipo con nota aporta al promedio final
+        return calculator.calculate(simulated).get(simulated.getStudentId(0)).getFinalAverage();
+    }
+    
+    private static int evaluationIndex(CourseGradebook gradebook, Course course, Long evaluationId) {
+        int evaluation = evaluationId != null ? gradebook.getEvaluationIndex(evaluationId) : -1;
+        if (evaluation < 0) {
+            throw new IllegalArgumentException("La evaluación con ID " + evaluationId + " no pertenece al curso con ID " + course.getId());
+        }
+        return evaluation;
+    }
+    
+    private static List<GroupedAverageDTO> toGroupedAverages(CourseGradebook simulated, StudentAverages averages) {
+        Map<Long, String> typeNames = new HashMap<>();
+        for (int type = 0; type < simulated.getTypeCount(); type++) {
+            typeNames.put(simulated.getTypeId(type), simulated.getTypeName(type));
+        }
+        
+        List<GroupedAverageDTO> groupedAverages = new ArrayList<>();
+        for (Map.Entry<Long, TypeAverage> entry : averages.getTypes().entrySet()) {
+            TypeAverage typeAverage = entry.getValue();
+            groupedAverages.add(new GroupedAverageDTO(entry.getKey(), typeNames.get(entry.getKey()),
+                    typeAverage.getAverage(), typeAverage.getEvaluationIds().size(), typeAverage.getEvaluationIds()));
+        }
+        return groupedAverages;
+    }
+}
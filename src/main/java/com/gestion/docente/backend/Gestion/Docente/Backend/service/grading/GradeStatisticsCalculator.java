@@ -0,0 +1,128 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.HistogramBinDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeDistributionCache.Distribution;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calcula estadísticas de notas (media, mediana, desvío, percentiles e histograma) a partir
+ * de las distribuciones en caché de GradeDistributionCache.
+ * 
+ * El histograma cubre la escala de notas 0-10 (o más, si hay valores mapeados fuera de ese rango)
+ * dividida en la cantidad de intervalos pedida.
+ */
+@Component
+public class GradeStatisticsCalculator {
+    
+    public static final int DEFAULT_BINS = 10;
+    public static final int MAX_BINS = 100;
+    public static final List<Double> DEFAULT_PERCENTILES = List.of(25.0, 50.0, 75.0, 90.0);
+    
+    private static final double SCALE_MIN = 0.0;
+    private static final double SCALE_MAX = 10.0;
+    
+    private final GradeDistributionCache distributionCache;
+    
+    public GradeStatisticsCalculator(GradeDistributionCache distributionCache) {
+        this.distributionCache = distributionCache;
+    }
+    
+    /**
+     * Estadísticas de todas las notas de un curso.
+     * El ownership del curso lo valida quien llama.
+     */
+    public GradeStatisticsDTO forCourse(Long courseId, Integer bins, List<Double> percentiles) {
+        Distribution distribution = distributionCache.get(courseId).getCourse();
+        GradeStatisticsDTO statistics = calculate(distribution, bins, percentiles);
+        statistics.setCourseId(courseId);
+        return statistics;
+    }
+    
+    /**
+     * Estadísticas de las notas de una evaluación del curso.
+     * El ownership del curso lo valida quien llama.
+     */
+    public GradeStatisticsDTO forEvaluation(Long courseId, Long evaluationId, Integer bins, List<Double> percentiles) {
+        Distribution distribution = distributionCache.get(courseId).getEvaluation(evaluationId);
+        GradeStatisticsDTO statistics = calculate(distribution, bins, percentiles);
+        statistics.setCourseId(courseId);
+        statistics.setEvaluationId(evaluationId);
+        return statistics;
+    }
+    
+    private static GradeStatisticsDTO calculate(Distribution distribution, Integer requestedBins, List<Double> requestedPercentiles) {
+        int bins = requestedBins != null ? requestedBins : DEFAULT_BINS;
+        if (bins < 1 || bins > MAX_BINS) {
+            throw new IllegalArgumentException("La cantidad de intervalos del histograma debe estar entre 1 y " + MAX_BINS);
+        }
+        List<Double> percentiles = requestedPercentiles != null && !requestedPercentiles.isEmpty()
+                ? requestedPercentiles : DEFAULT_PERCENTILES;
+        for (Double p : percentiles) {
+            if (p == null || p < 0 || p > 100) {
+                throw new IllegalArgumentException("Los percentiles deben estar entre 0 y 100");
+            }
+        }
+        
+        int n = distribution.size();
+        GradeStatisticsDTO statistics = new GradeStatisticsDTO();
+        statistics.setCount(n);
+        statistics.setNonNumericCount(distribution.getNonNumericCount());
+        
+        double from = n > 0 ? Math.min(SCALE_MIN, distribution.get(0)) : SCALE_MIN;
+        double to = n > 0 ? Math.max(SCALE_MAX, distribution.get(n - 1)) : SCALE_MAX;
+        double width = (to - from) / bins;
+        int[] histogram = new int[bins];
+        
+        // Media y varianza (Welford) e histograma en una sola pasada
+        double mean = 0.0;
+        double squares = 0.0;
+        for (int i = 0; i < n; i++) {
+            double value = distribution.get(i);
+            double delta = value - mean;
+            mean += delta / (i + 1);
+            squares += delta * (value - mean);
+            histogram[Math.min(bins - 1, (int) ((value - from) / width))]++;
+        }
+        
+        List<HistogramBinDTO> histogramBins = new ArrayList<>(bins);
+        for (int b = 0; b < bins; b++) {
+            histogramBins.add(new HistogramBinDTO(from + b * width, b == bins - 1 ? to : from + (b + 1) * width, histogram[b]));
+        }
+        statistics.setHistogram(histogramBins);
+        
+        Map<String, Double> percentileValues = new LinkedHashMap<>();
+        if (n > 0) {
+            statistics.setMean(mean);
+            statistics.setStandardDeviation(Math.sqrt(squares / n));
+            statistics.setMin(distribution.get(0));
+            statistics.setMax(distribution.get(n - 1));
+            statistics.setMedian(percentile(distribution, 50.0));
+            for (Double p : percentiles) {
+                percentileValues.put(percentileKey(p), percentile(distribution, p));
+            }
+        }
+        statistics.setPercentiles(percentileValues);
+        return statistics;
+    }
+    
+    /**
+     * Percentil con interpolación lineal entre los dos valores más cercanos.
+     */
+    private static double percentile(Distribution distribution, double p) {
+        double position = p / 100.0 * (distribution.size() - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        double lowerValue = distribution.get(lower);
+        return lowerValue + (distribution.get(upper) - lowerValue) * (position - lower);
+    }
+    
+    private static String percentileKey(double p) {
+        return p == Math.rint(p) ? "p" + (long) p : "p" + p;
+    }
+}
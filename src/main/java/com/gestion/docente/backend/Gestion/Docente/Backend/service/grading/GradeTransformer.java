@@ -0,0 +1,144 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica una transformación (sumar, escalar, acotar o pasar de escala a número) a todas las
+ * notas de una evaluación con una sola sentencia UPDATE, sin cargar ni guardar cada nota.
+ * 
+ * Los resultados respetan el rango 0-10 de setGrade: si una nota quedaría fuera, la operación
+ * se rechaza antes de modificar nada (o se acota, si se pidió). Quien llama valida el ownership,
+ * toma el lock del curso y actualiza después los datos derivados de las notas.
+ */
+@Component
+public class GradeTransformer {
+    
+    private static final double MIN_GRADE = 0.0;
+    private static final double MAX_GRADE = 10.0;
+    
+    // Tolerancia para que errores de redondeo como 10.0000001 no rechacen la operación
+    private static final double EPSILON = 1e-9;
+    
+    private final GradeRepository gradeRepository;
+    private final GradeScaleIndex gradeScaleIndex;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public GradeTransformer(GradeRepository gradeRepository, GradeScaleIndex gradeScaleIndex) {
+        this.gradeRepository = gradeRepository;
+        this.gradeScaleIndex = gradeScaleIndex;
+    }
+    
+    /**
+     * @return Cantidad de notas modificadas
+     */
+    public int transform(Evaluation evaluation, GradeTransformRequestDTO request) {
+        Long evaluationId = evaluation.getId();
+        boolean clamp = Boolean.TRUE.equals(request.getClamp());
+        
+        switch (request.getOperation()) {
+            case ADD: {
+                if (request.getValue() == null || Math.abs(request.getValue()) > MAX_GRADE) {
+                    throw new IllegalArgumentException("El valor a sumar debe estar entre -10 y 10");
+                }
+                return apply(evaluationId, 1.0, request.getValue(), MIN_GRADE, MAX_GRADE, clamp);
+            }
+            case SCALE: {
+                double target = request.getValue() != null ? request.getValue() : MAX_GRADE;
+                if (target <= MIN_GRADE || target > MAX_GRADE) {
+                    throw new IllegalArgumentException("La nota máxima a escalar debe ser mayor a 0 y menor o igual a 10");
+                }
+                Double currentMax = gradeRepository.findMaxNumericGrade(evaluationId);
+                if (currentMax == null) {
+                    return 0;
+                }
+                if (currentMax <= MIN_GRADE) {
+                    throw new IllegalArgumentException("No se pueden escalar notas cuya nota más alta es 0");
+                }
+                return apply(evaluationId, target / currentMax, 0.0, MIN_GRADE, MAX_GRADE, clamp);
+            }
+            case CLAMP: {
+                double min = request.getMin() != null ? request.getMin() : MIN_GRADE;
+                double max = request.getMax() != null ? request.getMax() : MAX_GRADE;
+                if (min < MIN_GRADE || max > MAX_GRADE || min > max) {
+                    throw new IllegalArgumentException("El rango debe estar entre 0 y 10 y el mínimo no puede superar al máximo");
+                }
+                return gradeRepository.transformNumericGrades(evaluationId, 1.0, 0.0, min, max);
+            }
+            case MAP_SCALE:
+                return mapScale(evaluation);
+            default:
+                throw new IllegalArgumentException("Operación no soportada: " + request.getOperation());
+        }
+    }
+    
+    private int apply(Long evaluationId, double factor, double offset, double min, double max, boolean clamp) {
+        if (!clamp) {
+            long outside = gradeRepository.countTransformedOutside(evaluationId, factor, offset,
+                    min - EPSILON, max + EPSILON);
+            if (outside > 0) {
+                throw new IllegalArgumentException(outside + " nota(s) quedarían fuera del rango 0-10. " +
+                        "Use clamp = true para acotarlas");
+            }
+        }
+        return gradeRepository.transformNumericGrades(evaluationId, factor, offset, min, max);
+    }
+    
+    /**
+     * Reemplaza cada nota categórica por el valor numérico de su etiqueta en la escala de la evaluación,
+     * con un solo UPDATE ... SET grade = CASE etiqueta WHEN ... END. Las etiquetas sin valor numérico
+     * quedan como estaban. La evaluación conserva su escala.
+     */
+    private int mapScale(Evaluation evaluation) {
+        if (evaluation.getGradeScaleId() == null) {
+            throw new IllegalArgumentException("La evaluación no tiene una escala de notas asignada");
+        }
+        List<String> labels = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (Map.Entry<String, Double> option : gradeScaleIndex.getValues(evaluation.getGradeScaleId()).entrySet()) {
+            if (option.getValue() == null) {
+                continue;
+            }
+            if (option.getValue() < MIN_GRADE || option.getValue() > MAX_GRADE) {
+                throw new IllegalArgumentException("El valor de la opción '" + option.getKey() +
+                        "' de la escala está fuera del rango 0-10");
+            }
+            labels.add(option.getKey());
+            values.add(option.getValue());
+        }
+        if (labels.isEmpty()) {
+            return 0;
+        }
+        
+        // Las etiquetas se comparan normalizadas, igual que en GradeScaleIndex
+        StringBuilder hql = new StringBuilder("UPDATE Grade g SET g.grade = CASE lower(trim(g.gradeValue))");
+        for (int i = 0; i < labels.size(); i++) {
+            hql.append(" WHEN :label").append(i).append(" THEN :value").append(i);
+        }
+        hql.append(" END, g.gradeValue = NULL WHERE g.evaluationId = :evaluationId AND g.grade IS NULL")
+                .append(" AND lower(trim(g.gradeValue)) IN (:labels)");
+        
+        entityManager.flush();
+        Query query = entityManager.createQuery(hql.toString());
+        for (int i = 0; i < labels.size(); i++) {
+            query.setParameter("label" + i, labels.get(i));
+            query.setParameter("value" + i, values.get(i));
+        }
+        query.setParameter("evaluationId", evaluation.getId());
+        query.setParameter("labels", labels);
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
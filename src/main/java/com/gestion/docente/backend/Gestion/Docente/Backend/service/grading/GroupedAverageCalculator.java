@@ -0,0 +1,165 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Calcula los promedios (simple, por tipo de evaluación y final ponderado) de todos los
+ * estudiantes de un curso a partir de su CourseGradebook, sin hacer consultas.
+ * 
+ * Cada estudiante se procesa en una pasada sobre su fila de la matriz, acumulando en
+ * arreglos primitivos por tipo. En cursos grandes el trabajo por estudiante se reparte
+ * en el pool fork/join común (ver app.grading.parallel-threshold).
+ */
+@Component
+public class GroupedAverageCalculator {
+    
+    // Cantidad mínima de estudiantes para calcular en paralelo (0 o negativo = nunca)
+    private final int parallelThreshold;
+    
+    public GroupedAverageCalculator(@Value("${app.grading.parallel-threshold:2000}") int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+    
+    /**
+     * Calcula los promedios de todos los estudiantes de la planilla.
+     * 
+     * @param gradebook Planilla del curso
+     * @return Promedios por ID de estudiante, con una entrada por cada estudiante de la planilla
+     */
+    public Map<Long, StudentAverages> calculate(CourseGradebook gradebook) {
+        StudentAverages[] results = new StudentAverages[gradebook.getStudentCount()];
+        IntStream students = IntStream.range(0, results.length);
+        if (parallelThreshold > 0 && results.length >= parallelThreshold) {
+            students = students.parallel();
+        }
+        students.forEach(student -> results[student] = calculateStudent(gradebook, student));
+        
+        Map<Long, StudentAverages> byStudentId = new LinkedHashMap<>();
+        for (int student = 0; student < results.length; student++) {
+            byStudentId.put(gradebook.getStudentId(student), results[student]);
+        }
+        return byStudentId;
+    }
+    
+    private StudentAverages calculateStudent(CourseGradebook gradebook, int student) {
+        int typeCount = gradebook.getTypeCount();
+        double[] typeSum = new double[typeCount];
+        int[] typeGrades = new int[typeCount];
+        int[] typeEvaluations = new int[typeCount];
+        
+        StudentAverages result = new StudentAverages();
+        for (int evaluation = 0; evaluation < gradebook.getEvaluationCount(); evaluation++) {
+            if (!gradebook.isGraded(student, evaluation)) {
+                continue;
+            }
+            double value = gradebook.getValue(student, evaluation);
+            boolean numeric = !Double.isNaN(value);
+            
+            // Promedio simple: todas las notas con valor numérico
+            if (numeric) {
+                result.gradeSum += value;
+                result.gradeCount++;
+            }
+            
+            // Promedio por tipo: notas cargadas de evaluaciones con un tipo del curso
+            int type = gradebook.getEvaluationTypeIndex(evaluation);
+            if (type >= 0) {
+                typeEvaluations[type]++;
+                if (numeric) {
+                    typeSum[type] += value;
+                    typeGrades[type]++;
+                }
+            }
+        }
+        
+        // Un tipo solo cuenta si tiene al menos una nota con valor numérico
+        for (int type = 0; type < typeCount; type++) {
+            if (typeGrades[type] > 0) {
+                TypeAverage typeAverage = new TypeAverage();
+                typeAverage.gradeSum = typeSum[type];
+                typeAverage.gradeCount = typeGrades[type];
+                typeAverage.evaluationIds = new ArrayList<>(typeEvaluations[type]);
+                result.types.put(gradebook.getTypeId(type), typeAverage);
+            }
+        }
+        if (!result.types.isEmpty()) {
+            // IDs de las evaluaciones incluidas (en orden, porque la planilla está ordenada por ID)
+            for (int evaluation = 0; evaluation < gradebook.getEvaluationCount(); evaluation++) {
+                int type = gradebook.getEvaluationTypeIndex(evaluation);
+                if (type >= 0 && typeGrades[type] > 0 && gradebook.isGraded(student, evaluation)) {
+                    result.types.get(gradebook.getTypeId(type)).evaluationIds.add(gradebook.getEvaluationId(evaluation));
+                }
+            }
+        }
+        result.finalAverage = weightedAverage(gradebook, typeSum, typeGrades, result.types.size());
+        return result;
+    }
+    
+    /**
+     * Promedio final: promedio de los promedios de cada tipo, ponderado por el peso del tipo.
+     * Los tipos sin peso reparten el 100% en partes iguales.
+     */
+    private Double weightedAverage(CourseGradebook gradebook, double[] typeSum, int[] typeGrades, int groups) {
+        if (groups == 0) {
+            return null;
+        }
+        
+        double totalWeight = 0.0;
+        double weightedSum = 0.0;
+        double simpleSum = 0.0;
+        for (int type = 0; type < typeSum.length; type++) {
+            if (typeGrades[type] == 0) {
+                continue;
+            }
+            double average = typeSum[type] / typeGrades[type];
+            double weight = !Double.isNaN(gradebook.getTypeWeight(type)) ? gradebook.getTypeWeight(type) : 100.0 / groups;
+            totalWeight += weight;
+            weightedSum += average * weight;
+            simpleSum += average;
+        }
+        
+        if (totalWeight > 0) {
+            return weightedSum / totalWeight;
+        }
+        // Fallback a promedio simple si no hay pesos
+        return simpleSum / groups;
+    }
+    
+    /**
+     * Promedios de un estudiante en un curso.
+     */
+    @Data
+    public static class StudentAverages {
+        private double gradeSum;
+        private int gradeCount;
+        private Map<Long, TypeAverage> types = new TreeMap<>(); // evaluationTypeId -> promedio del tipo
+        private Double finalAverage;
+        
+        public Double getAverage() {
+            return gradeCount > 0 ? gradeSum / gradeCount : null;
+        }
+    }
+    
+    /**
+     * Promedio de un estudiante para un tipo de evaluación.
+     */
+    @Data
+    public static class TypeAverage {
+        private double gradeSum;
+        private int gradeCount;
+        private List<Long> evaluationIds = new ArrayList<>(); // Evaluaciones del tipo con nota cargada
+        
+        public double getAverage() {
+            return gradeSum / gradeCount;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AcademicStatus;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseStatusReportDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.TypeStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.StudentAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.TypeAverage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Clasifica a todos los estudiantes de un curso como aprobados, habilitados o desaprobados,
+ * en general y por tipo de evaluación, a partir de una sola CourseGradebook y de los promedios
+ * de GroupedAverageCalculator.
+ * 
+ * La situación general compara el promedio final con las notas mínimas del curso. La de cada
+ * tipo compara el promedio del tipo con el promedio de las notas mínimas de las evaluaciones
+ * que entran en él (la de la evaluación si la tiene, si no la del curso): así, aprobar el tipo
+ * equivale a que la suma de las notas alcance la suma de los mínimos de esas evaluaciones.
+ */
+@Component
+public class StudentStatusClassifier {
+    
+    // Tolerancia para que promedios como 5.9999999 cuenten como 6
+    private static final double EPSILON = 1e-9;
+    
+    private final CourseGradebookLoader gradebookLoader;
+    private final GroupedAverageCalculator calculator;
+    
+    public StudentStatusClassifier(CourseGradebookLoader gradebookLoader, GroupedAverageCalculator calculator) {
+        this.gradebookLoader = gradebookLoader;
+        this.calculator = calculator;
+    }
+    
+    /**
+     * Arma el reporte de situación de los estudiantes del curso.
+     * El ownership del curso lo valida quien llama.
+     * 
+     * @param course Curso, con su nota de aprobación configurada
+     * @param students Estudiantes del curso, en el orden en que se devuelven
+     * @param statuses Si no es null ni vacío, solo se incluyen estudiantes con esa situación general
+     * @param atRisk Si es true, solo se incluyen estudiantes en riesgo; si es false, solo los que no lo están
+     */
+    public CourseStatusReportDTO classify(Course course, List<Student> students,
+                                          Collection<AcademicStatus> statuses, Boolean atRisk) {
+        if (course.getApprovalGrade() == null) {
+            throw new IllegalArgumentException("El curso no tiene configurada la nota de aprobación");
+        }
+        double courseApproval = course.getApprovalGrade();
+        double courseQualification = course.getQualificationGrade() != null ? course.getQualificationGrade() : Double.NaN;
+        
+        CourseGradebook gradebook = gradebookLoader.load(course.getId(), students.stream()
+                .map(Student::getId)
+                .collect(Collectors.toList()));
+        Map<Long, StudentAverages> averages = calculator.calculate(gradebook);
+        
+        Map<AcademicStatus, Integer> summary = new EnumMap<>(AcademicStatus.class);
+        for (AcademicStatus status : AcademicStatus.values()) {
+            summary.put(status, 0);
+        }
+        int atRiskCount = 0;
+        
+        List<StudentStatusDTO> result = new ArrayList<>();
+        for (Student student : students) {
+            int studentIndex = gradebook.getStudentIndex(student.getId());
+            StudentAverages studentAverages = averages.get(student.getId());
+            StudentStatusDTO dto = classifyStudent(gradebook, studentIndex, studentAverages, courseApproval, courseQualification);
+            dto.setStudentId(student.getId());
+            dto.setFirstName(student.getFirstName());
+            dto.setLastName(student.getLastName());
+            
+            summary.merge(dto.getStatus(), 1, Integer::sum);
+            if (dto.getAtRisk()) {
+                atRiskCount++;
+            }
+            if ((statuses == null || statuses.isEmpty() || statuses.contains(dto.getStatus()))
+                    && (atRisk == null || atRisk.equals(dto.getAtRisk()))) {
+                result.add(dto);
+            }
+        }
+        
+        CourseStatusReportDTO report = new CourseStatusReportDTO();
+        report.setCourseId(course.getId());
+        report.setApprovalGrade(course.getApprovalGrade());
+        report.setQualificationGrade(course.getQualificationGrade());
+        report.setStudentsCount(students.size());
+        report.setSummary(summary);
+        report.setAtRiskCount(atRiskCount);
+        report.setStudents(result);
+        return report;
+    }
+    
+    private StudentStatusDTO classifyStudent(CourseGradebook gradebook, int student, StudentAverages averages,
+                                             double courseApproval, double courseQualification) {
+        StudentStatusDTO dto = new StudentStatusDTO();
+        dto.setTypes(new ArrayList<>());
+        if (student < 0 || averages == null) {
+            dto.setStatus(AcademicStatus.NO_GRADES);
+            dto.setAtRisk(false);
+            return dto;
+        }
+        
+        // Suma de las notas mínimas de las evaluaciones con valor numérico de cada tipo
+        int typeCount = gradebook.getTypeCount();
+        double[] approvalSum = new double[typeCount];
+        double[] qualificationSum = new double[typeCount];
+        int[] gradedCount = new int[typeCount];
+        for (int evaluation = 0; evaluation < gradebook.getEvaluationCount(); evaluation++) {
+            int type = gradebook.getEvaluationTypeIndex(evaluation);
+            if (type < 0 || Double.isNaN(gradebook.getValue(student, evaluation))) {
+                continue;
+            }
+            approvalSum[type] += orDefault(gradebook.getEvaluationApprovalGrade(evaluation), courseApproval);
+            // Sin habilitación en la evaluación ni en el curso, la suma queda en NaN y el tipo no tiene habilitación
+            qualificationSum[type] += orDefault(gradebook.getEvaluationQualificationGrade(evaluation), courseQualification);
+            gradedCount[type]++;
+        }
+        
+        boolean atRisk = false;
+        for (int type = 0; type < typeCount; type++) {
+            TypeAverage typeAverage = averages.getTypes().get(gradebook.getTypeId(type));
+            if (typeAverage == null || gradedCount[type] == 0) {
+                continue;
+            }
+            double approval = approvalSum[type] / gradedCount[type];
+            double qualification = qualificationSum[type] / gradedCount[type];
+            AcademicStatus status = status(typeAverage.getAverage(), approval, qualification);
+            atRisk |= status == AcademicStatus.QUALIFIED || status == AcademicStatus.FAILING;
+            
+            TypeStatusDTO typeStatus = new TypeStatusDTO();
+            typeStatus.setEvaluationTypeId(gradebook.getTypeId(type));
+            typeStatus.setEvaluationTypeName(gradebook.getTypeName(type));
+            typeStatus.setAverage(typeAverage.getAverage());
+            typeStatus.setApprovalGrade(approval);
+            typeStatus.setQualificationGrade(Double.isNaN(qualification) ? null : qualification);
+            typeStatus.setStatus(status);
+            dto.getTypes().add(typeStatus);
+        }
+        
+        // Sin notas con tipo no hay promedio ponderado: se usa el promedio simple
+        Double average = averages.getFinalAverage() != null ? averages.getFinalAverage() : averages.getAverage();
+        AcademicStatus status = average != null
+                ? status(average, courseApproval, courseQualification)
+                : AcademicStatus.NO_GRADES;
+        atRisk |= status == AcademicStatus.QUALIFIED || status == AcademicStatus.FAILING;
+        
+        dto.setFinalAverage(average);
+        dto.setStatus(status);
+        dto.setAtRisk(atRisk);
+        return dto;
+    }
+    
+    private static AcademicStatus status(double average, double approval, double qualification) {
+        if (average + EPSILON >= approval) {
+            return AcademicStatus.APPROVED;
+        }
+        if (!Double.isNaN(qualification) && average + EPSILON >= qualification) {
+            return AcademicStatus.QUALIFIED;
+        }
+        return AcademicStatus.FAILING;
+    }
+    
+    private static double orDefault(double value, double defaultValue) {
+        return Double.isNaN(value) ? defaultValue : value;
+    }
+}
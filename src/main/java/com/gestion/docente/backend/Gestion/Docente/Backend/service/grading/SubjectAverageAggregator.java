@@ -0,0 +1,95 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository.SubjectGradeTotals;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository.SubjectLabelCount;
+import lombok.Data;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Promedios simples por materia calculados con consultas agregadas: la BD filtra por materia
+ * y devuelve una fila por materia y estudiante, en lugar de traer todas las notas del curso.
+ * 
+ * Las notas categóricas se agrupan por etiqueta en una segunda consulta y se resuelven con
+ * GradeScaleIndex, igual que en CourseGradebookLoader, para que los promedios coincidan.
+ */
+@Component
+public class SubjectAverageAggregator {
+    
+    private final GradeRepository gradeRepository;
+    private final GradeScaleIndex gradeScaleIndex;
+    
+    public SubjectAverageAggregator(GradeRepository gradeRepository, GradeScaleIndex gradeScaleIndex) {
+        this.gradeRepository = gradeRepository;
+        this.gradeScaleIndex = gradeScaleIndex;
+    }
+    
+    /**
+     * Promedio simple de un estudiante en una materia del curso.
+     * 
+     * @return Promedio o null si no tiene notas con valor numérico en esa materia
+     */
+    public Double average(Long courseId, Long subjectId, Long studentId) {
+        SubjectTotals totals = totals(courseId, subjectId, studentId)
+                .getOrDefault(subjectId, Map.of())
+                .get(studentId);
+        return totals != null ? totals.getAverage() : null;
+    }
+    
+    /**
+     * Totales de todas las materias y estudiantes del curso.
+     * Las evaluaciones sin materia no se incluyen.
+     * 
+     * @return subjectId -> (studentId -> totales); solo aparecen los estudiantes con notas numéricas
+     */
+    public Map<Long, Map<Long, SubjectTotals>> totalsByCourse(Long courseId) {
+        return totals(courseId, null, null);
+    }
+    
+    private Map<Long, Map<Long, SubjectTotals>> totals(Long courseId, Long subjectId, Long studentId) {
+        Map<Long, Map<Long, SubjectTotals>> result = new HashMap<>();
+        for (SubjectGradeTotals row : gradeRepository.sumNumericGradesBySubject(courseId, subjectId, studentId)) {
+            SubjectTotals totals = totalsOf(result, row.getSubjectId(), row.getStudentId());
+            totals.gradeSum += row.getGradeSum();
+            totals.gradeCount += row.getGradeCount().intValue();
+        }
+        
+        List<SubjectLabelCount> labels = gradeRepository.countCategoricalGradesBySubject(courseId, subjectId, studentId);
+        gradeScaleIndex.preload(labels.stream()
+                .map(SubjectLabelCount::getGradeScaleId)
+                .collect(Collectors.toSet()));
+        for (SubjectLabelCount row : labels) {
+            Double value = gradeScaleIndex.resolve(row.getGradeScaleId(), row.getGradeValue());
+            if (value == null) {
+                continue;
+            }
+            SubjectTotals totals = totalsOf(result, row.getSubjectId(), row.getStudentId());
+            totals.gradeSum += value * row.getGradeCount();
+            totals.gradeCount += row.getGradeCount().intValue();
+        }
+        return result;
+    }
+    
+    private static SubjectTotals totalsOf(Map<Long, Map<Long, SubjectTotals>> result, Long subjectId, Long studentId) {
+        return result.computeIfAbsent(subjectId, id -> new HashMap<>())
+                .computeIfAbsent(studentId, id -> new SubjectTotals());
+    }
+    
+    /**
+     * Suma y cantidad de notas con valor numérico de un estudiante en una materia.
+     */
+    @Data
+    public static class SubjectTotals {
+        private double gradeSum;
+        private int gradeCount;
+        
+        public Double getAverage() {
+            return gradeCount > 0 ? gradeSum / gradeCount : null;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AttendanceDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Attendance;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.AttendanceRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.AttendanceService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.streaming.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,37 +28,50 @@ public class AttendanceServiceImpl implements AttendanceService {
     private AttendanceRepository attendanceRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseOwnershipValidator courseOwnershipValidator;
+    
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
     
     @Autowired
     private com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository studentRepository;
     
     @Override
+    @RequiresCourseOwnership
     public List<AttendanceDTO> getAttendancesByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         List<Attendance> attendances = attendanceRepository.findByCourseId(courseId);
         return attendances.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @RequiresCourseOwnership
+    public StreamingResponseBody streamAttendancesByCourse(Long courseId) {
+        return out -> jsonArrayStreamer.write(out,
+                () -> attendanceRepository.streamByCourseIdOrderByIdAsc(courseId),
+                this::convertToDTO);
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public CursorPageDTO<AttendanceDTO> getAttendancesByCourse(Long courseId, String cursor, Integer limit, boolean count) {
+        Keyset keyset = Keyset.DATE_ID;
+        Window<Attendance> window = attendanceRepository.findByCourseId(courseId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> attendanceRepository.countByCourseId(courseId) : null);
+    }
+    
     @Override
     public List<AttendanceDTO> getAttendancesByStudent(Long studentId) {
         // Obtener el profesor autenticado
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
         
-        // Obtener todas las asistencias del estudiante
-        List<Attendance> attendances = attendanceRepository.findByStudentId(studentId);
+        // Obtener solo las asistencias del estudiante en cursos del profesor autenticado (filtrado en la consulta)
+        List<Attendance> attendances = attendanceRepository.findByStudentIdAndProfessorId(studentId, currentProfessorId);
         
-        // Filtrar solo las asistencias de cursos que pertenecen al profesor autenticado
         return attendances.stream()
-                .filter(attendance -> {
-                    Course course = courseRepository.findById(attendance.getCourseId())
-                            .orElse(null);
-                    return course != null && course.getProfessorId().equals(currentProfessorId);
-                })
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -74,35 +93,32 @@ public class AttendanceServiceImpl implements AttendanceService {
     
     @Override
     public AttendanceDTO updateAttendance(Long id, AttendanceDTO attendanceDTO) {
-        // 1. Buscar la asistencia existente
-        Attendance existingAttendance = attendanceRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("La asistencia con ID " + id + " no existe"));
-        
-        // 2. Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(existingAttendance.getCourseId());
+        // 1. Buscar la asistencia existente (solo si su curso pertenece al profesor autenticado)
+        Attendance existingAttendance = attendanceRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(attendanceRepository.existsById(id)
+                        ? "No tiene acceso a este curso"
+                        : "La asistencia con ID " + id + " no existe"));
         
-        // 3. Validar que el courseId del DTO coincida con el existente (no se puede cambiar)
+        // 2. Validar que el courseId del DTO coincida con el existente (no se puede cambiar)
         if (!existingAttendance.getCourseId().equals(attendanceDTO.getCourseId())) {
             throw new IllegalArgumentException("No se puede cambiar el curso de una asistencia");
         }
         
-        // 4. Actualizar los campos
+        // 3. Actualizar los campos
         existingAttendance.setDate(attendanceDTO.getDate());
         existingAttendance.setPresent(attendanceDTO.getPresent());
         existingAttendance.setStudentId(attendanceDTO.getStudentId());
         
-        // 5. Guardar los cambios
+        // 4. Guardar los cambios
         Attendance updatedAttendance = attendanceRepository.save(existingAttendance);
         
-        // 6. Convertir a DTO y retornar
+        // 5. Convertir a DTO y retornar
         return convertToDTO(updatedAttendance);
     }
     
     @Override
+    @RequiresCourseOwnership
     public Double calculateAttendancePercentage(Long studentId, Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         // Obtener todas las asistencias del estudiante en el curso
         List<Attendance> attendances = attendanceRepository.findByStudentIdAndCourseId(studentId, courseId);
         
@@ -120,9 +136,8 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
     
     @Override
+    @RequiresCourseOwnership
     public List<com.gestion.docente.backend.Gestion.Docente.Backend.dto.AttendanceAverageDTO> getAttendanceAverages(Long courseId, Long subjectId) {
-        validateCourseOwnership(courseId);
-        
         List<com.gestion.docente.backend.Gestion.Docente.Backend.model.Student> students = 
             studentRepository.findByCourseId(courseId);
         
@@ -211,13 +226,7 @@ public class AttendanceServiceImpl implements AttendanceService {
      * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
      */
     private void validateCourseOwnership(Long courseId) {
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        courseOwnershipValidator.validate(courseId);
     }
     
     /**
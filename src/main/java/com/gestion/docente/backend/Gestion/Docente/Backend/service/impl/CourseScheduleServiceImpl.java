@@ -5,7 +5,8 @@ import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.CourseSchedule;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseScheduleRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,10 +27,12 @@ public class CourseScheduleServiceImpl implements CourseScheduleService {
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private CourseOwnershipValidator courseOwnershipValidator;
+    
     @Override
+    @RequiresCourseOwnership
     public List<CourseScheduleDTO> getSchedulesByCourse(Long courseId) {
-        validateCourseOwnership(courseId);
-        
         List<CourseSchedule> schedules = courseScheduleRepository.findByCourseId(courseId);
         return schedules.stream()
                 .map(this::convertToDTO)
@@ -37,9 +40,8 @@ public class CourseScheduleServiceImpl implements CourseScheduleService {
     }
     
     @Override
+    @RequiresCourseOwnership
     public List<CourseScheduleDTO> createSchedules(Long courseId, List<CourseScheduleDTO> scheduleDTOs) {
-        validateCourseOwnership(courseId);
-        
         // Validar que no haya solapamientos
         for (CourseScheduleDTO dto : scheduleDTOs) {
             validateNoOverlap(courseId, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime(), null);
@@ -71,8 +73,8 @@ public class CourseScheduleServiceImpl implements CourseScheduleService {
     }
     
     @Override
+    @RequiresCourseOwnership
     public void deleteAllSchedulesByCourse(Long courseId) {
-        validateCourseOwnership(courseId);
         courseScheduleRepository.deleteByCourseId(courseId);
     }
     
@@ -156,13 +158,7 @@ public class CourseScheduleServiceImpl implements CourseScheduleService {
     }
     
     private void validateCourseOwnership(Long courseId) {
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        courseOwnershipValidator.validate(courseId);
     }
 }
 
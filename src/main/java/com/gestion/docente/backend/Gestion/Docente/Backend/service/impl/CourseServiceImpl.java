@@ -1,13 +1,20 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.ProfessorRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.OwnedCourseCache;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseGradebookCache;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeDistributionCache;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +35,9 @@ public class CourseServiceImpl implements CourseService {
     private final com.gestion.docente.backend.Gestion.Docente.Backend.repository.SubjectRepository subjectRepository;
     private final com.gestion.docente.backend.Gestion.Docente.Backend.service.EmailService emailService;
     private final com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseDuplicationService courseDuplicationService;
+    private final OwnedCourseCache ownedCourseCache;
+    private final CourseGradebookCache gradebookCache;
+    private final GradeDistributionCache distributionCache;
     
     // Inyección por constructor (Dependency Inversion Principle)
     public CourseServiceImpl(
@@ -36,13 +46,19 @@ public class CourseServiceImpl implements CourseService {
             com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository studentRepository,
             com.gestion.docente.backend.Gestion.Docente.Backend.repository.SubjectRepository subjectRepository,
             com.gestion.docente.backend.Gestion.Docente.Backend.service.EmailService emailService,
-            com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseDuplicationService courseDuplicationService) {
+            com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseDuplicationService courseDuplicationService,
+            OwnedCourseCache ownedCourseCache,
+            CourseGradebookCache gradebookCache,
+            GradeDistributionCache distributionCache) {
         this.courseRepository = courseRepository;
         this.professorRepository = professorRepository;
         this.studentRepository = studentRepository;
         this.subjectRepository = subjectRepository;
         this.emailService = emailService;
         this.courseDuplicationService = courseDuplicationService;
+        this.ownedCourseCache = ownedCourseCache;
+        this.gradebookCache = gradebookCache;
+        this.distributionCache = distributionCache;
     }
     
     @Override
@@ -72,6 +88,7 @@ public class CourseServiceImpl implements CourseService {
         
         // 7. Guardar en la base de datos
         Course savedCourse = courseRepository.save(course);
+        ownedCourseCache.invalidate(currentProfessorId);
         
         // 8. Crear automáticamente una materia default sin nombre para el curso
         com.gestion.docente.backend.Gestion.Docente.Backend.model.Subject defaultSubject = 
@@ -113,23 +130,28 @@ public class CourseServiceImpl implements CourseService {
     }
     
     @Override
-    public CourseDTO getCourseById(Long id) {
-        // 1. Validar que el usuario NO sea administrador
+    public CursorPageDTO<CourseDTO> getAllCourses(String cursor, Integer limit, boolean count) {
+        // Validar que el usuario NO sea administrador
         SecurityUtils.validateNotAdmin();
         
-        // 2. Obtener el profesor autenticado
+        // Obtener el profesor autenticado y paginar sus cursos NO archivados
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        Keyset keyset = Keyset.ID;
+        Window<Course> window = courseRepository.findByProfessorIdAndArchived(currentProfessorId, false,
+                keyset.position(cursor), keyset.sort(), CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> courseRepository.countByProfessorIdAndArchived(currentProfessorId, false) : null);
+    }
+    
+    @Override
+    public CourseDTO getCourseById(Long id) {
+        // 1. Validar que el usuario NO sea administrador
+        SecurityUtils.validateNotAdmin();
         
-        // 3. Buscar curso por ID
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
-        
-        // 4. Validar ownership: el curso debe pertenecer al profesor autenticado
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        // 2. Buscar curso por ID (solo entre los cursos del profesor autenticado)
+        Course course = findOwnedCourse(id, "No tiene acceso a este curso");
         
-        // 5. Convertir a DTO y retornar
+        // 3. Convertir a DTO y retornar
         return convertToDTO(course);
     }
     
@@ -141,21 +163,15 @@ public class CourseServiceImpl implements CourseService {
         // 2. Obtener el profesor autenticado desde el JWT
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
         
-        // 3. Buscar el curso existente
-        Course existingCourse = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
+        // 3. Buscar el curso existente (solo entre los cursos del profesor autenticado)
+        Course existingCourse = findOwnedCourse(id, "No puede actualizar cursos de otros profesores");
         
-        // 4. Validar ownership: el curso debe pertenecer al profesor autenticado
-        if (!existingCourse.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede actualizar cursos de otros profesores");
-        }
-        
-        // 5. Validar que el professorId del DTO coincida con el del JWT (si se envía)
+        // 4. Validar que el professorId del DTO coincida con el del JWT (si se envía)
         if (courseDTO.getProfessorId() != null && !currentProfessorId.equals(courseDTO.getProfessorId())) {
             throw new IllegalArgumentException("No puede cambiar el profesor del curso");
         }
         
-        // 6. Actualizar los campos del curso
+        // 5. Actualizar los campos del curso
         existingCourse.setName(courseDTO.getName());
         existingCourse.setSchool(courseDTO.getSchool());
         existingCourse.setDescription(courseDTO.getDescription());
@@ -167,10 +183,10 @@ public class CourseServiceImpl implements CourseService {
         }
         // El professorId no se cambia, se mantiene el original
         
-        // 7. Guardar los cambios
+        // 6. Guardar los cambios
         Course updatedCourse = courseRepository.save(existingCourse);
         
-        // 8. Convertir a DTO y retornar
+        // 7. Convertir a DTO y retornar
         return convertToDTO(updatedCourse);
     }
     
@@ -182,25 +198,20 @@ public class CourseServiceImpl implements CourseService {
         // 2. Obtener el profesor autenticado
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
         
-        // 3. Buscar curso por ID
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
-        
-        // 4. Validar ownership: el curso debe pertenecer al profesor autenticado
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede eliminar cursos de otros profesores");
-        }
+        // 3. Buscar curso por ID (solo entre los cursos del profesor autenticado)
+        Course course = findOwnedCourse(id, "No puede eliminar cursos de otros profesores");
         
-        // 5. Eliminar curso (las relaciones se eliminan en cascada)
+        // 4. Eliminar curso (las relaciones se eliminan en cascada)
         courseRepository.deleteById(id);
+        ownedCourseCache.invalidate(currentProfessorId);
+        gradebookCache.invalidate(id);
+        distributionCache.invalidate(id);
     }
     
     @Override
     public CourseDTO archiveCourse(Long id) {
-        validateCourseOwnership(id);
-        
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
+        SecurityUtils.validateNotAdmin();
+        Course course = findOwnedCourse(id, "No tiene acceso a este curso");
         
         course.setArchived(true);
         course.setArchivedDate(java.time.LocalDateTime.now());
@@ -211,10 +222,8 @@ public class CourseServiceImpl implements CourseService {
     
     @Override
     public CourseDTO unarchiveCourse(Long id) {
-        validateCourseOwnership(id);
-        
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
+        SecurityUtils.validateNotAdmin();
+        Course course = findOwnedCourse(id, "No tiene acceso a este curso");
         
         course.setArchived(false);
         course.setArchivedDate(null);
@@ -237,13 +246,12 @@ public class CourseServiceImpl implements CourseService {
     
     @Override
     public CourseDTO duplicateCourse(Long id, com.gestion.docente.backend.Gestion.Docente.Backend.dto.DuplicateCourseDTO options) {
-        validateCourseOwnership(id);
-        
-        Course original = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + id + " no existe"));
+        SecurityUtils.validateNotAdmin();
+        Course original = findOwnedCourse(id, "No tiene acceso a este curso");
         
         // Delegar la duplicación al servicio especializado
         Course duplicatedCourse = courseDuplicationService.duplicateCourse(original, options);
+        ownedCourseCache.invalidate(duplicatedCourse.getProfessorId());
         
         return convertToDTO(duplicatedCourse);
     }
@@ -308,35 +316,26 @@ public class CourseServiceImpl implements CourseService {
     }
     
     /**
-     * Valida que un curso pertenezca al profesor autenticado.
+     * Busca un curso del profesor autenticado con una sola consulta acotada a sus cursos.
+     * Solo si no lo encuentra se consulta si existe, para elegir el mensaje de error.
      * 
-     * @param courseId ID del curso a validar
-     * @throws IllegalStateException si el usuario es administrador
+     * @param accessDeniedMessage Mensaje si el curso existe pero es de otro profesor
      * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
      */
-    private void validateCourseOwnership(Long courseId) {
-        // Validar que el usuario NO sea administrador
-        SecurityUtils.validateNotAdmin();
-        
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+    private Course findOwnedCourse(Long id, String accessDeniedMessage) {
+        return courseRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(courseRepository.existsById(id)
+                        ? accessDeniedMessage
+                        : "El curso con ID " + id + " no existe"));
     }
     
     @Override
     public void sendPersonalizedMessageToAllStudents(Long courseId, com.gestion.docente.backend.Gestion.Docente.Backend.dto.SendPersonalizedMessageDTO messageDTO) {
-        // 1. Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
-        // 2. Obtener el curso
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
+        // 1. Obtener el curso, validando que pertenezca al profesor autenticado
+        SecurityUtils.validateNotAdmin();
+        Course course = findOwnedCourse(courseId, "No tiene acceso a este curso");
         
-        // 3. Obtener información del profesor
+        // 2. Obtener información del profesor
         com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor professor = 
             professorRepository.findById(course.getProfessorId())
                 .orElseThrow(() -> new IllegalArgumentException("El profesor no existe"));
@@ -344,11 +343,11 @@ public class CourseServiceImpl implements CourseService {
             (professor.getLastname() != null ? " " + professor.getLastname() : "");
         String professorEmail = professor.getEmail();
         
-        // 4. Obtener todos los estudiantes del curso
+        // 3. Obtener todos los estudiantes del curso
         List<com.gestion.docente.backend.Gestion.Docente.Backend.model.Student> students = 
             studentRepository.findByCourseId(courseId);
         
-        // 5. Enviar email a cada estudiante
+        // 4. Enviar email a cada estudiante
         int emailsSent = 0;
         int emailsFailed = 0;
         
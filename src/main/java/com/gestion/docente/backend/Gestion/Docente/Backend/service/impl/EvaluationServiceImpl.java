@@ -6,21 +6,33 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EmailService;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationService;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.EvaluationAggregateMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeStatisticsCalculator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.GradeChangeLog;
 
 @Service
 @Transactional
@@ -32,6 +44,9 @@ public class EvaluationServiceImpl implements EvaluationService {
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private CourseOwnershipValidator courseOwnershipValidator;
+    
     @Autowired
     private GradeService gradeService;
     
@@ -47,11 +62,26 @@ public class EvaluationServiceImpl implements EvaluationService {
     @Autowired
     private com.gestion.docente.backend.Gestion.Docente.Backend.service.EmailTemplateService emailTemplateService;
     
+    @Autowired
+    private CourseAverageMaintainer courseAverageMaintainer;
+    
+    @Autowired
+    private GradeStatisticsCalculator gradeStatisticsCalculator;
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Autowired
+    private GradeChangeLog gradeChangeLog;
+    
+    @Autowired
+    private EvaluationAggregateMaintainer evaluationAggregateMaintainer;
+    
     @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
     public List<EvaluationDTO> getEvaluationsByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
+        // Los agregados de notas vienen en la misma fila de cada evaluación
         List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId);
         return evaluations.stream()
                 .map(this::convertToDTO)
@@ -59,14 +89,24 @@ public class EvaluationServiceImpl implements EvaluationService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
     public Page<EvaluationDTO> getEvaluationsByCourse(Long courseId, Pageable pageable) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         Page<Evaluation> evaluationsPage = evaluationRepository.findByCourseId(courseId, pageable);
         return evaluationsPage.map(this::convertToDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
+    public CursorPageDTO<EvaluationDTO> getEvaluationsByCourse(Long courseId, String cursor, Integer limit, boolean count) {
+        Keyset keyset = Keyset.DATE_ID;
+        Window<Evaluation> window = evaluationRepository.findByCourseId(courseId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> evaluationRepository.countByCourseId(courseId) : null);
+    }
+    
     @Override
     public EvaluationDTO addEvaluation(EvaluationDTO evaluationDTO) {
         // Validar ownership: el curso debe pertenecer al profesor autenticado
@@ -100,30 +140,32 @@ public class EvaluationServiceImpl implements EvaluationService {
     @Override
     public void deleteEvaluation(Long id) {
         // Buscar la evaluación para obtener su curso
-        Evaluation evaluation = evaluationRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + id + " no existe"));
-        
-        // Validar ownership: el curso de la evaluación debe pertenecer al profesor autenticado
-        validateCourseOwnership(evaluation.getCourseId());
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(id)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + id + " no existe"));
         
-        // Eliminar la evaluación
+        // Eliminar la evaluación (sus notas se eliminan en cascada)
+        gradeChangeLog.recordDeletes(evaluation.getCourseId(), gradeRepository.findByEvaluationId(id));
         evaluationRepository.deleteById(id);
+        
+        // Recalcular los promedios del curso sin las notas de esta evaluación
+        courseAverageMaintainer.rebuildCourse(evaluation.getCourseId());
     }
     
     @Override
     public void sendGradesByEmail(Long evaluationId) {
-        // 1. Buscar la evaluación
-        Evaluation evaluation = evaluationRepository.findById(evaluationId)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
+        // 1. Buscar la evaluación (solo si su curso pertenece al profesor autenticado)
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
         
-        // 2. Validar ownership: el curso de la evaluación debe pertenecer al profesor autenticado
-        validateCourseOwnership(evaluation.getCourseId());
-        
-        // 3. Obtener el curso para el nombre
+        // 2. Obtener el curso para el nombre
         Course course = courseRepository.findById(evaluation.getCourseId())
                 .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + evaluation.getCourseId() + " no existe"));
         
-        // 4. Obtener datos del profesor
+        // 3. Obtener datos del profesor
         com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor professor = 
             professorRepository.findById(course.getProfessorId())
                 .orElseThrow(() -> new IllegalArgumentException("El profesor no existe"));
@@ -131,17 +173,17 @@ public class EvaluationServiceImpl implements EvaluationService {
         String professorName = professor.getName() + 
             (professor.getLastname() != null ? " " + professor.getLastname() : "");
         
-        // 5. Obtener todas las notas de esta evaluación
+        // 4. Obtener todas las notas de esta evaluación
         List<GradeDTO> grades = gradeService.getGradesByEvaluation(evaluationId);
         
-        // 6. Obtener todos los estudiantes del curso
+        // 5. Obtener todos los estudiantes del curso
         List<Student> students = studentRepository.findByCourseId(evaluation.getCourseId());
         
-        // 7. Crear un mapa de studentId -> Student para acceso rápido
+        // 6. Crear un mapa de studentId -> Student para acceso rápido
         java.util.Map<Long, Student> studentMap = students.stream()
                 .collect(Collectors.toMap(Student::getId, student -> student));
         
-        // 8. Enviar email a cada estudiante con su nota
+        // 7. Enviar email a cada estudiante con su nota
         int emailsSent = 0;
         int emailsFailed = 0;
         
@@ -177,7 +219,7 @@ public class EvaluationServiceImpl implements EvaluationService {
             }
         }
         
-        // 8. Marcar que se enviaron las notas por email
+        // 7. Marcar que se enviaron las notas por email
         evaluation.setGradesSentByEmail(true);
         evaluationRepository.save(evaluation);
         
@@ -186,10 +228,10 @@ public class EvaluationServiceImpl implements EvaluationService {
     
     @Override
     public EvaluationDTO updateEvaluation(Long id, EvaluationDTO evaluationDTO) {
-        Evaluation existing = evaluationRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + id + " no existe"));
-        
-        validateCourseOwnership(existing.getCourseId());
+        Evaluation existing = evaluationRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(id)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + id + " no existe"));
         
         // Validar que no se intente editar nombre o fecha si ya se enviaron las notas
         if (Boolean.TRUE.equals(existing.getGradesSentByEmail())) {
@@ -202,6 +244,8 @@ public class EvaluationServiceImpl implements EvaluationService {
         }
         
         // Actualizar campos permitidos
+        boolean averagesChanged = !java.util.Objects.equals(existing.getEvaluationTypeId(), evaluationDTO.getEvaluationTypeId())
+                || !java.util.Objects.equals(existing.getGradeScaleId(), evaluationDTO.getGradeScaleId());
         existing.setNombre(evaluationDTO.getNombre());
         existing.setDate(evaluationDTO.getDate());
         existing.setTipo(evaluationDTO.getTipo());
@@ -210,15 +254,22 @@ public class EvaluationServiceImpl implements EvaluationService {
         existing.setCustomMessage(evaluationDTO.getCustomMessage());
         
         Evaluation saved = evaluationRepository.save(existing);
+        
+        // El tipo y la escala participan de los promedios: recalcular el curso solo si cambiaron
+        // (las notas de aprobación y habilitación no se editan acá)
+        if (averagesChanged) {
+            courseAverageMaintainer.rebuildCourse(saved.getCourseId());
+        }
+        
         return convertToDTO(saved);
     }
     
     @Override
     public void sendGradesByEmailCustom(Long evaluationId, com.gestion.docente.backend.Gestion.Docente.Backend.dto.SendGradesCustomDTO sendDTO) {
-        Evaluation evaluation = evaluationRepository.findById(evaluationId)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
-        
-        validateCourseOwnership(evaluation.getCourseId());
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
         
         Course course = courseRepository.findById(evaluation.getCourseId())
                 .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + evaluation.getCourseId() + " no existe"));
@@ -287,16 +338,30 @@ public class EvaluationServiceImpl implements EvaluationService {
     
     @Override
     public EvaluationDTO updateEvaluationGradeScale(Long id, Long gradeScaleId) {
-        Evaluation evaluation = evaluationRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + id + " no existe"));
-        
-        validateCourseOwnership(evaluation.getCourseId());
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(id)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + id + " no existe"));
         
         evaluation.setGradeScaleId(gradeScaleId);
         Evaluation saved = evaluationRepository.save(evaluation);
+        
+        // Las notas categóricas pueden tener otro valor con la nueva escala
+        courseAverageMaintainer.rebuildCourse(saved.getCourseId());
+        
         return convertToDTO(saved);
     }
     
+    @Override
+    public GradeStatisticsDTO getEvaluationStatistics(Long evaluationId, Integer bins, List<Double> percentiles) {
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
+        
+        return gradeStatisticsCalculator.forEvaluation(evaluation.getCourseId(), evaluationId, bins, percentiles);
+    }
+    
     // Métodos auxiliares para conversión
     private EvaluationDTO convertToDTO(Evaluation evaluation) {
         EvaluationDTO dto = new EvaluationDTO();
@@ -312,6 +377,13 @@ public class EvaluationServiceImpl implements EvaluationService {
         dto.setApprovalGrade(evaluation.getApprovalGrade());
         dto.setQualificationGrade(evaluation.getQualificationGrade());
         dto.setCourseId(evaluation.getCourseId());
+        dto.setGradedCount(evaluation.getGradedCount());
+        dto.setGradeSum(evaluation.getGradeSum());
+        dto.setAverageGrade(evaluation.getNumericCount() != null && evaluation.getNumericCount() > 0
+                ? evaluation.getGradeSum() / evaluation.getNumericCount() : null);
+        dto.setMinGrade(evaluation.getMinGrade());
+        dto.setMaxGrade(evaluation.getMaxGrade());
+        dto.setLabelCounts(evaluationAggregateMaintainer.labelCounts(evaluation));
         return dto;
     }
     
@@ -339,13 +411,7 @@ public class EvaluationServiceImpl implements EvaluationService {
      * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
      */
     private void validateCourseOwnership(Long courseId) {
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        courseOwnershipValidator.validate(courseId);
     }
 }
 
@@ -1,15 +1,19 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationTypeDTO;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.EvaluationType;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationTypeRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationTypeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,22 +28,33 @@ public class EvaluationTypeServiceImpl implements EvaluationTypeService {
     private EvaluationTypeRepository evaluationTypeRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseOwnershipValidator courseOwnershipValidator;
     
     @Autowired
     private EvaluationRepository evaluationRepository;
     
+    @Autowired
+    private CourseAverageMaintainer courseAverageMaintainer;
+    
     @Override
+    @RequiresCourseOwnership
     public List<EvaluationTypeDTO> getEvaluationTypesByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         List<EvaluationType> types = evaluationTypeRepository.findByCourseId(courseId);
         return types.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @RequiresCourseOwnership
+    public CursorPageDTO<EvaluationTypeDTO> getEvaluationTypesByCourse(Long courseId, String cursor, Integer limit, boolean count) {
+        Keyset keyset = Keyset.ID;
+        Window<EvaluationType> window = evaluationTypeRepository.findByCourseId(courseId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> evaluationTypeRepository.countByCourseId(courseId) : null);
+    }
+    
     @Override
     public EvaluationTypeDTO createEvaluationType(EvaluationTypeDTO evaluationTypeDTO) {
         // Validar ownership: el curso debe pertenecer al profesor autenticado
@@ -89,12 +104,18 @@ public class EvaluationTypeServiceImpl implements EvaluationTypeService {
         }
         
         // Actualizar campos
+        boolean weightChanged = !java.util.Objects.equals(existingType.getWeight(), evaluationTypeDTO.getWeight());
         existingType.setNombre(evaluationTypeDTO.getNombre());
         existingType.setWeight(evaluationTypeDTO.getWeight());
         
         // Guardar cambios
         EvaluationType updatedType = evaluationTypeRepository.save(existingType);
         
+        // El peso participa del promedio final: recalcular los promedios del curso
+        if (weightChanged) {
+            courseAverageMaintainer.rebuildCourse(updatedType.getCourseId());
+        }
+        
         // Convertir y retornar DTO
         return convertToDTO(updatedType);
     }
@@ -149,13 +170,7 @@ public class EvaluationTypeServiceImpl implements EvaluationTypeService {
      * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
      */
     private void validateCourseOwnership(Long courseId) {
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        courseOwnershipValidator.validate(courseId);
     }
 }
 
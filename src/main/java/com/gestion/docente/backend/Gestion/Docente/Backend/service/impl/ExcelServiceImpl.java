@@ -5,13 +5,8 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -30,19 +25,16 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GroupedAverageDTO;
-import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentGroupedAveragesDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.ExcelService;
-import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseGradebook;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseGradebookLoader;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.StudentAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GroupedAverageCalculator.TypeAverage;
 
 /**
  * Implementación del servicio para generar archivos Excel.
@@ -56,59 +48,37 @@ public class ExcelServiceImpl implements ExcelService {
     private CourseRepository courseRepository;
     
     @Autowired
-    private StudentRepository studentRepository;
+    private CourseOwnershipValidator courseOwnershipValidator;
     
     @Autowired
-    private EvaluationRepository evaluationRepository;
+    private CourseGradebookLoader gradebookLoader;
     
     @Autowired
-    private GradeRepository gradeRepository;
-    
-    @Autowired
-    private GradeService gradeService;
+    private GroupedAverageCalculator groupedAverageCalculator;
     
     @Override
     public ByteArrayResource generateGradesExcel(Long courseId) {
         // 1. Validar ownership: el curso debe pertenecer al profesor autenticado
         SecurityUtils.validateNotAdmin();
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        courseOwnershipValidator.validate(courseId);
         
+        // Nombre, escuela y descripción para el encabezado de la planilla
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
         
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
-        
-        // 2. Obtener datos necesarios
-        List<Student> students = studentRepository.findByCourseId(courseId);
-        List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId);
-        List<StudentGroupedAveragesDTO> groupedAverages = gradeService.getGroupedAveragesByCourse(courseId);
-        
-        // 3. Crear mapa de estudiantes para acceso rápido
-        Map<Long, Student> studentMap = students.stream()
-                .collect(Collectors.toMap(Student::getId, s -> s));
+        // 2. Obtener datos necesarios: la planilla del curso (con los nombres de estudiantes y
+        // evaluaciones) se carga una sola vez y los promedios se calculan sobre ella
+        CourseGradebook gradebook = gradebookLoader.load(courseId);
+        Map<Long, StudentAverages> averages = groupedAverageCalculator.calculate(gradebook);
         
-        // 4. Crear mapa de notas por estudiante y evaluación
-        Map<Long, Map<Long, Grade>> gradesMap = new HashMap<>();
-        List<Grade> allGrades = gradeRepository.findByCourseId(courseId);
-        for (Grade grade : allGrades) {
-            gradesMap.computeIfAbsent(grade.getStudentId(), k -> new HashMap<>())
-                    .put(grade.getEvaluationId(), grade);
-        }
-        
-        // 5. Obtener tipos de evaluación únicos
-        Set<String> evaluationTypeNames = new LinkedHashSet<>();
-        for (StudentGroupedAveragesDTO grouped : groupedAverages) {
-            if (grouped.getGroupedAverages() != null) {
-                for (GroupedAverageDTO avg : grouped.getGroupedAverages()) {
-                    if (avg.getEvaluationTypeName() != null) {
-                        evaluationTypeNames.add(avg.getEvaluationTypeName());
-                    }
-                }
+        // 3. Obtener los tipos de evaluación con al menos un promedio (índices en la planilla)
+        List<Integer> typeIndexes = new ArrayList<>();
+        for (int type = 0; type < gradebook.getTypeCount(); type++) {
+            long typeId = gradebook.getTypeId(type);
+            if (averages.values().stream().anyMatch(avg -> avg.getTypes().containsKey(typeId))) {
+                typeIndexes.add(type);
             }
         }
-        List<String> typeNamesList = new ArrayList<>(evaluationTypeNames);
         
         // 6. Generar Excel
         try (XSSFWorkbook workbook = new XSSFWorkbook()) {
@@ -162,16 +132,18 @@ public class ExcelServiceImpl implements ExcelService {
             studentHeader.setCellStyle(headerStyle);
             
             // Columnas de evaluaciones
-            for (Evaluation eval : evaluations) {
+            for (int evaluation = 0; evaluation < gradebook.getEvaluationCount(); evaluation++) {
                 Cell evalHeader = headerRow.createCell(colIndex++);
-                evalHeader.setCellValue(eval.getNombre() != null ? eval.getNombre() : "Evaluación " + eval.getId());
+                String evaluationName = gradebook.getEvaluationName(evaluation);
+                evalHeader.setCellValue(evaluationName != null ? evaluationName
+                        : "Evaluación " + gradebook.getEvaluationId(evaluation));
                 evalHeader.setCellStyle(headerStyle);
             }
             
             // Columnas de promedios por tipo
-            for (String typeName : typeNamesList) {
+            for (int type : typeIndexes) {
                 Cell typeHeader = headerRow.createCell(colIndex++);
-                typeHeader.setCellValue("Prom. " + typeName);
+                typeHeader.setCellValue("Prom. " + gradebook.getTypeName(type));
                 typeHeader.setCellStyle(headerStyle);
             }
             
@@ -182,57 +154,41 @@ public class ExcelServiceImpl implements ExcelService {
             
             // Datos por estudiante
             int rowIndex = headerRowNum + 1;
-            for (Student student : students) {
+            for (int studentIndex = 0; studentIndex < gradebook.getStudentCount(); studentIndex++) {
+                long studentId = gradebook.getStudentId(studentIndex);
                 Row row = sheet.createRow(rowIndex++);
                 colIndex = 0;
                 
                 // Nombre del estudiante
-                String fullName = (student.getFirstName() != null ? student.getFirstName() : "") +
-                        (student.getLastName() != null ? " " + student.getLastName() : "");
-                row.createCell(colIndex++).setCellValue(fullName.trim().isEmpty() ? 
-                        "Estudiante " + student.getId() : fullName.trim());
+                String fullName = gradebook.getStudentName(studentIndex);
+                row.createCell(colIndex++).setCellValue(fullName == null || fullName.isEmpty() ?
+                        "Estudiante " + studentId : fullName);
                 
                 // Notas por evaluación
-                for (Evaluation eval : evaluations) {
+                for (int evaluationIndex = 0; evaluationIndex < gradebook.getEvaluationCount(); evaluationIndex++) {
                     Cell gradeCell = row.createCell(colIndex++);
-                    Map<Long, Grade> studentGrades = gradesMap.get(student.getId());
-                    if (studentGrades != null) {
-                        Grade grade = studentGrades.get(eval.getId());
-                        if (grade != null) {
-                            if (grade.getGrade() != null) {
-                                gradeCell.setCellValue(grade.getGrade());
-                                gradeCell.setCellStyle(numberStyle);
-                            } else if (grade.getGradeValue() != null) {
-                                gradeCell.setCellValue(grade.getGradeValue());
-                            } else {
-                                gradeCell.setCellValue("");
-                            }
-                        } else {
-                            gradeCell.setCellValue("");
-                        }
+                    String label = gradebook.getLabel(studentIndex, evaluationIndex);
+                    double value = gradebook.getValue(studentIndex, evaluationIndex);
+                    if (label != null) {
+                        gradeCell.setCellValue(label);
+                    } else if (!Double.isNaN(value)) {
+                        gradeCell.setCellValue(value);
+                        gradeCell.setCellStyle(numberStyle);
                     } else {
                         gradeCell.setCellValue("");
                     }
                 }
                 
                 // Promedios agrupados por tipo
-                StudentGroupedAveragesDTO studentGrouped = groupedAverages.stream()
-                        .filter(g -> g.getStudentId().equals(student.getId()))
-                        .findFirst()
-                        .orElse(null);
+                StudentAverages studentAverages = averages.get(studentId);
                 
-                for (String typeName : typeNamesList) {
+                for (int type : typeIndexes) {
                     Cell typeAvgCell = row.createCell(colIndex++);
-                    if (studentGrouped != null && studentGrouped.getGroupedAverages() != null) {
-                        Optional<GroupedAverageDTO> typeAvg = studentGrouped.getGroupedAverages().stream()
-                                .filter(ga -> typeName.equals(ga.getEvaluationTypeName()))
-                                .findFirst();
-                        if (typeAvg.isPresent() && typeAvg.get().getAverage() != null) {
-                            typeAvgCell.setCellValue(typeAvg.get().getAverage());
-                            typeAvgCell.setCellStyle(numberStyle);
-                        } else {
-                            typeAvgCell.setCellValue("");
-                        }
+                    TypeAverage typeAvg = studentAverages != null
+                            ? studentAverages.getTypes().get(gradebook.getTypeId(type)) : null;
+                    if (typeAvg != null) {
+                        typeAvgCell.setCellValue(typeAvg.getAverage());
+                        typeAvgCell.setCellStyle(numberStyle);
                     } else {
                         typeAvgCell.setCellValue("");
                     }
@@ -240,8 +196,8 @@ public class ExcelServiceImpl implements ExcelService {
                 
                 // Promedio final
                 Cell finalAvgCell = row.createCell(colIndex);
-                if (studentGrouped != null && studentGrouped.getFinalAverage() != null) {
-                    finalAvgCell.setCellValue(studentGrouped.getFinalAverage());
+                if (studentAverages != null && studentAverages.getFinalAverage() != null) {
+                    finalAvgCell.setCellValue(studentAverages.getFinalAverage());
                     CellStyle finalAvgStyle = workbook.createCellStyle();
                     finalAvgStyle.setDataFormat(format.getFormat("0.00"));
                     Font finalFont = workbook.createFont();
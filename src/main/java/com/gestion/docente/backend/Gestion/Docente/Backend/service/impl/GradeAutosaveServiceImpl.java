@@ -0,0 +1,135 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRowResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveAckDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeAutosaveService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.autosave.GradeWriteBuffer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.autosave.GradeWriteBuffer.Batch;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementación del autoguardado de notas.
+ * 
+ * Un hilo propio guarda cada app.grades.autosave.window-ms (por defecto 1000) las notas pendientes
+ * de cada curso con GradeService.applyGradesBulk, en nombre del profesor que las envió: una
+ * transacción por curso, con las mismas validaciones por fila que el guardado masivo. Si la
+ * transacción falla, el lote vuelve al buffer y se reintenta en la siguiente vuelta, hasta
+ * app.grades.autosave.max-attempts (por defecto 5) fallos seguidos; después sus notas se informan
+ * como rechazadas en el estado del curso. Al detener la aplicación se guarda lo pendiente.
+ */
+@Service
+public class GradeAutosaveServiceImpl implements GradeAutosaveService {
+    
+    private final GradeService gradeService;
+    private final CourseOwnershipValidator courseOwnershipValidator;
+    private final GradeWriteBuffer buffer;
+    private final ScheduledExecutorService scheduler;
+    
+    // Los guardados de un mismo curso (del hilo propio o de flush) se ejecutan de a uno
+    private final Map<Long, Object> courseLocks = new ConcurrentHashMap<>();
+    
+    public GradeAutosaveServiceImpl(
+            GradeService gradeService,
+            CourseOwnershipValidator courseOwnershipValidator,
+            @Value("${app.grades.autosave.window-ms:1000}") long windowMs,
+            @Value("${app.grades.autosave.max-pending-per-course:5000}") int maxPendingPerCourse,
+            @Value("${app.grades.autosave.max-attempts:5}") int maxAttempts) {
+        this.gradeService = gradeService;
+        this.courseOwnershipValidator = courseOwnershipValidator;
+        this.buffer = new GradeWriteBuffer(maxPendingPerCourse, 100, maxAttempts);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grade-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushAll, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public GradeAutosaveAckDTO autosaveGrade(GradeDTO gradeDTO) {
+        if (gradeDTO.getCourseId() == null || gradeDTO.getStudentId() == null || gradeDTO.getEvaluationId() == null) {
+            throw new IllegalArgumentException("El curso, el estudiante y la evaluación son obligatorios");
+        }
+        if (gradeDTO.getGrade() != null && (gradeDTO.getGrade() < 0.0 || gradeDTO.getGrade() > 10.0)) {
+            throw new IllegalArgumentException("La nota debe estar entre 0 y 10 (inclusive)");
+        }
+        courseOwnershipValidator.validate(gradeDTO.getCourseId());
+        
+        long sequence = buffer.accept(gradeDTO.getCourseId(), SecurityUtils.getCurrentProfessorId(), gradeDTO);
+        return new GradeAutosaveAckDTO(gradeDTO.getCourseId(), sequence, buffer.getEpoch());
+    }
+    
+    @Override
+    public GradeAutosaveStatusDTO getStatus(Long courseId) {
+        courseOwnershipValidator.validate(courseId);
+        return buffer.status(courseId);
+    }
+    
+    @Override
+    public GradeAutosaveStatusDTO flush(Long courseId) {
+        courseOwnershipValidator.validate(courseId);
+        flushCourse(courseId);
+        return buffer.status(courseId);
+    }
+    
+    private void flushAll() {
+        for (Long courseId : buffer.pendingCourses()) {
+            flushCourse(courseId);
+        }
+    }
+    
+    private void flushCourse(Long courseId) {
+        synchronized (courseLocks.computeIfAbsent(courseId, id -> new Object())) {
+            Batch batch = buffer.drain(courseId);
+            if (batch == null) {
+                return;
+            }
+            try {
+                BulkGradeRequestDTO request = new BulkGradeRequestDTO(courseId, batch.getGrades());
+                BulkGradeResultDTO result = gradeService.applyGradesBulk(request, batch.getProfessorId());
+                
+                List<String> errors = new ArrayList<>(result.getResults().size());
+                for (BulkGradeRowResultDTO row : result.getResults()) {
+                    errors.add("ERROR".equals(row.getStatus()) ? row.getError() : null);
+                }
+                buffer.complete(batch, errors);
+            } catch (Exception e) {
+                // El hilo programado no debe terminar por una excepción: el lote se reintenta
+                System.err.println("Error al guardar las notas autoguardadas del curso " + courseId + ": " + e.getMessage());
+                if (!buffer.fail(batch, e.getMessage())) {
+                    System.err.println("Se descartaron las notas autoguardadas del curso " + courseId +
+                            " por superar el máximo de reintentos");
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Guardar lo que quedó pendiente antes de cerrar las conexiones
+        flushAll();
+    }
+}
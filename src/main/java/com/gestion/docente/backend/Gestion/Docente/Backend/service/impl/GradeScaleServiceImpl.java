@@ -1,5 +1,6 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeScaleDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeScaleOptionDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
@@ -10,11 +11,19 @@ import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeScale
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeScaleRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeScaleService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeScaleIndex;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseChangeTracker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +39,15 @@ public class GradeScaleServiceImpl implements GradeScaleService {
     @Autowired
     private EvaluationRepository evaluationRepository;
     
+    @Autowired
+    private GradeScaleIndex gradeScaleIndex;
+    
+    @Autowired
+    private CourseAverageMaintainer courseAverageMaintainer;
+    
+    @Autowired
+    private CourseChangeTracker courseChangeTracker;
+    
     @Override
     public List<GradeScaleDTO> getGradeScales(Boolean includeGlobal) {
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
@@ -45,6 +63,29 @@ public class GradeScaleServiceImpl implements GradeScaleService {
         }
     }
     
+    @Override
+    public CursorPageDTO<GradeScaleDTO> getGradeScales(Boolean includeGlobal, String cursor, Integer limit, boolean count) {
+        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        
+        Keyset keyset = Keyset.ID;
+        Window<GradeScale> window;
+        Supplier<Long> total = null;
+        if (Boolean.TRUE.equals(includeGlobal)) {
+            window = gradeScaleRepository.findByProfessorIdOrIsGlobalTrue(currentProfessorId,
+                    keyset.position(cursor), keyset.sort(), CursorPagination.limit(limit));
+            if (count) {
+                total = () -> gradeScaleRepository.countByProfessorIdOrIsGlobalTrue(currentProfessorId);
+            }
+        } else {
+            window = gradeScaleRepository.findByProfessorId(currentProfessorId,
+                    keyset.position(cursor), keyset.sort(), CursorPagination.limit(limit));
+            if (count) {
+                total = () -> gradeScaleRepository.countByProfessorId(currentProfessorId);
+            }
+        }
+        return CursorPagination.toPage(window, keyset, this::convertToDTO, total);
+    }
+    
     @Override
     public GradeScaleDTO createGradeScale(GradeScaleDTO gradeScaleDTO) {
         Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
@@ -119,6 +160,17 @@ public class GradeScaleServiceImpl implements GradeScaleService {
             gradeScaleOptionRepository.saveAll(options);
         }
         
+        // Las opciones cambiaron: invalidar el mapeo etiqueta -> valor de esta escala
+        gradeScaleIndex.invalidate(id);
+        
+        // Recalcular los promedios de los cursos con evaluaciones que usan la escala
+        // (y cambiar su versión: las notas categóricas valen distinto aunque no se haya tocado el curso).
+        // En orden, porque cada reconstrucción bloquea su curso hasta el fin de la transacción
+        for (Long courseId : new TreeSet<>(evaluationRepository.findCourseIdsByGradeScaleId(id))) {
+            courseAverageMaintainer.rebuildCourse(courseId);
+            courseChangeTracker.markChanged(courseId);
+        }
+        
         return convertToDTO(saved);
     }
     
@@ -145,6 +197,7 @@ public class GradeScaleServiceImpl implements GradeScaleService {
         }
         
         gradeScaleRepository.deleteById(id);
+        gradeScaleIndex.invalidate(id);
     }
     
     @Override
@@ -1,30 +1,70 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AcademicStatus;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRowResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseRankingDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseStatusReportDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeStatisticsDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformResultDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GroupedAverageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentAverageDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentGroupedAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectAveragesDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.EvaluationType;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentCourseAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentTypeAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Subject;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationTypeRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.SubjectRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer.CourseAverages;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseRankingCalculator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.EvaluationAggregateMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeSimulator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeStatisticsCalculator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeTransformer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.StudentStatusClassifier;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.SubjectAverageAggregator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.SubjectAverageAggregator.SubjectTotals;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.streaming.JsonArrayStreamer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseChangeTracker;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.GradeChangeLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -47,17 +87,54 @@ public class GradeServiceImpl implements GradeService {
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private CourseOwnershipValidator courseOwnershipValidator;
+    
     @Autowired
     private EvaluationTypeRepository evaluationTypeRepository;
     
     @Autowired
-    private com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeScaleOptionRepository gradeScaleOptionRepository;
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+    
+    @Autowired
+    private GradeStatisticsCalculator gradeStatisticsCalculator;
+    
+    @Autowired
+    private StudentStatusClassifier studentStatusClassifier;
+    
+    @Autowired
+    private GradeSimulator gradeSimulator;
+    
+    @Autowired
+    private SubjectAverageAggregator subjectAverageAggregator;
+    
+    @Autowired
+    private CourseRankingCalculator courseRankingCalculator;
+    
+    @Autowired
+    private GradeTransformer gradeTransformer;
+    
+    @Autowired
+    private GradeChangeLog gradeChangeLog;
+    
+    @Autowired
+    private CourseChangeTracker courseChangeTracker;
+    
+    @Autowired
+    private CourseVersionCounter courseVersionCounter;
+    
+    @Autowired
+    private EvaluationAggregateMaintainer evaluationAggregateMaintainer;
+    
+    @Autowired
+    private CourseAverageMaintainer courseAverageMaintainer;
     
     @Override
+    @RequiresCourseOwnership
     public List<GradeDTO> getGradesByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         List<Grade> grades = gradeRepository.findByCourseId(courseId);
         return grades.stream()
                 .map(this::convertToDTO)
@@ -65,14 +142,30 @@ public class GradeServiceImpl implements GradeService {
     }
     
     @Override
+    @RequiresCourseOwnership
     public Page<GradeDTO> getGradesByCourse(Long courseId, Pageable pageable) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         Page<Grade> gradesPage = gradeRepository.findByCourseId(courseId, pageable);
         return gradesPage.map(this::convertToDTO);
     }
     
+    @Override
+    @RequiresCourseOwnership
+    public StreamingResponseBody streamGradesByCourse(Long courseId) {
+        return out -> jsonArrayStreamer.write(out,
+                () -> gradeRepository.streamByCourseIdOrderByIdAsc(courseId),
+                this::convertToDTO);
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public CursorPageDTO<GradeDTO> getGradesByCourse(Long courseId, String cursor, Integer limit, boolean count) {
+        Keyset keyset = Keyset.ID;
+        Window<Grade> window = gradeRepository.findByCourseId(courseId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> gradeRepository.countByCourseId(courseId) : null);
+    }
+    
     @Override
     public GradeDTO setGrade(GradeDTO gradeDTO) {
         // Validar ownership: el curso debe pertenecer al profesor autenticado
@@ -87,17 +180,7 @@ public class GradeServiceImpl implements GradeService {
             }
         }
         
-        // Validar que el estudiante exista
-        if (!studentRepository.existsById(gradeDTO.getStudentId())) {
-            throw new IllegalArgumentException("El estudiante con ID " + gradeDTO.getStudentId() + " no existe");
-        }
-        
-        // Validar que la evaluación exista
-        if (!evaluationRepository.existsById(gradeDTO.getEvaluationId())) {
-            throw new IllegalArgumentException("La evaluación con ID " + gradeDTO.getEvaluationId() + " no existe");
-        }
-        
-        // Validar consistencia: verificar que el estudiante pertenezca al curso
+        // Validar que el estudiante exista y pertenezca al curso
         Student student = studentRepository.findById(gradeDTO.getStudentId())
                 .orElseThrow(() -> new IllegalArgumentException("El estudiante con ID " + gradeDTO.getStudentId() + " no existe"));
         if (!student.getCourseId().equals(gradeDTO.getCourseId())) {
@@ -105,7 +188,7 @@ public class GradeServiceImpl implements GradeService {
                     " no pertenece al curso con ID " + gradeDTO.getCourseId());
         }
         
-        // Validar consistencia: verificar que la evaluación pertenezca al curso
+        // Validar que la evaluación exista y pertenezca al curso
         Evaluation evaluation = evaluationRepository.findById(gradeDTO.getEvaluationId())
                 .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + gradeDTO.getEvaluationId() + " no existe"));
         if (!evaluation.getCourseId().equals(gradeDTO.getCourseId())) {
@@ -113,84 +196,264 @@ public class GradeServiceImpl implements GradeService {
                     " no pertenece al curso con ID " + gradeDTO.getCourseId());
         }
         
-        // Verificar si ya existe una nota para este estudiante y evaluación
-        Optional<Grade> existingGrade = gradeRepository.findByStudentIdAndEvaluationId(
-            gradeDTO.getStudentId(), 
-            gradeDTO.getEvaluationId()
-        );
+        // Las escrituras de notas de un mismo curso se ejecutan de a una
+        courseVersionCounter.lock(gradeDTO.getCourseId());
         
-        Grade grade;
-        if (existingGrade.isPresent()) {
-            // Si existe, actualizar la nota existente
-            grade = existingGrade.get();
-            grade.setGrade(gradeDTO.getGrade());
-            grade.setCourseId(gradeDTO.getCourseId());
-        } else {
-            // Si no existe, crear una nueva nota
-            grade = convertToEntity(gradeDTO);
-        }
+        // Crear la nota o reemplazar la existente en una sola sentencia; la restricción única
+        // (studentId, evaluationId) evita duplicados si llegan dos guardados de la misma celda a la vez
+        Grade savedGrade = gradeRepository.upsert(convertToEntity(gradeDTO));
+        gradeChangeLog.recordUpserts(savedGrade.getCourseId(), List.of(savedGrade));
+        // El upsert no pasa por los listeners JPA: marcar el curso a mano
+        courseChangeTracker.markChanged(savedGrade.getCourseId());
+        evaluationAggregateMaintainer.refresh(List.of(savedGrade.getEvaluationId()));
         
-        // Guardar en la base de datos
-        Grade savedGrade = gradeRepository.save(grade);
+        // Actualizar los promedios materializados del estudiante
+        courseAverageMaintainer.refreshStudent(savedGrade.getCourseId(), savedGrade.getStudentId());
         
         // Convertir y retornar DTO
         return convertToDTO(savedGrade);
     }
     
     @Override
-    public Double calculateAverage(Long studentId, Long courseId, Long subjectId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
+    public BulkGradeResultDTO saveGradesBulk(BulkGradeRequestDTO request) {
+        if (request.getGrades() == null || request.getGrades().isEmpty()) {
+            throw new IllegalArgumentException("La lista de notas no puede estar vacía");
+        }
+        Long courseId = request.getCourseId();
+        
+        // Validar ownership una sola vez para todas las filas
         validateCourseOwnership(courseId);
         
-        // Validar que el estudiante exista
-        if (!studentRepository.existsById(studentId)) {
-            throw new IllegalArgumentException("El estudiante con ID " + studentId + " no existe");
+        return writeGradesBulk(request);
+    }
+    
+    @Override
+    public BulkGradeResultDTO applyGradesBulk(BulkGradeRequestDTO request, Long professorId) {
+        if (request.getGrades() == null || request.getGrades().isEmpty()) {
+            throw new IllegalArgumentException("La lista de notas no puede estar vacía");
+        }
+        if (professorId == null || !professorId.equals(courseOwnershipValidator.ownerOf(request.getCourseId()))) {
+            throw new IllegalArgumentException("No tiene acceso a este curso");
+        }
+        
+        return writeGradesBulk(request);
+    }
+    
+    /**
+     * Guarda las notas del guardado masivo. El ownership del curso ya lo validó quien llama.
+     */
+    private BulkGradeResultDTO writeGradesBulk(BulkGradeRequestDTO request) {
+        Long courseId = request.getCourseId();
+        
+        // Las escrituras de notas de un mismo curso se ejecutan de a una
+        courseVersionCounter.lock(courseId);
+        
+        // Cargar con una consulta cada uno los estudiantes y evaluaciones del curso
+        java.util.Set<Long> courseStudentIds = studentRepository.findByCourseId(courseId).stream()
+                .map(Student::getId)
+                .collect(Collectors.toSet());
+        java.util.Set<Long> courseEvaluationIds = evaluationRepository.findByCourseId(courseId).stream()
+                .map(Evaluation::getId)
+                .collect(Collectors.toSet());
+        
+        // Cargar las notas existentes de las evaluaciones enviadas, indexadas por estudiante y evaluación
+        java.util.Set<Long> requestedEvaluationIds = request.getGrades().stream()
+                .filter(java.util.Objects::nonNull)
+                .map(GradeDTO::getEvaluationId)
+                .filter(courseEvaluationIds::contains)
+                .collect(Collectors.toSet());
+        java.util.Map<String, Grade> existingGrades = new java.util.HashMap<>();
+        if (!requestedEvaluationIds.isEmpty()) {
+            for (Grade grade : gradeRepository.findByEvaluationIdIn(requestedEvaluationIds)) {
+                existingGrades.putIfAbsent(grade.getStudentId() + ":" + grade.getEvaluationId(), grade);
+            }
+        }
+        
+        List<BulkGradeRowResultDTO> results = new ArrayList<>();
+        java.util.Map<BulkGradeRowResultDTO, Grade> savedRows = new java.util.IdentityHashMap<>();
+        java.util.Set<Grade> toSave = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        for (int i = 0; i < request.getGrades().size(); i++) {
+            GradeDTO gradeDTO = request.getGrades().get(i);
+            BulkGradeRowResultDTO row = new BulkGradeRowResultDTO();
+            row.setIndex(i);
+            results.add(row);
+            
+            String error = validateBulkRow(gradeDTO, courseId, courseStudentIds, courseEvaluationIds);
+            if (error != null) {
+                if (gradeDTO != null) {
+                    row.setStudentId(gradeDTO.getStudentId());
+                    row.setEvaluationId(gradeDTO.getEvaluationId());
+                }
+                row.setStatus("ERROR");
+                row.setError(error);
+                continue;
+            }
+            row.setStudentId(gradeDTO.getStudentId());
+            row.setEvaluationId(gradeDTO.getEvaluationId());
+            
+            // Si ya existe una nota para este estudiante y evaluación, actualizarla
+            String key = gradeDTO.getStudentId() + ":" + gradeDTO.getEvaluationId();
+            Grade grade = existingGrades.get(key);
+            if (grade != null) {
+                grade.setGrade(gradeDTO.getGrade());
+                grade.setGradeValue(gradeDTO.getGradeValue());
+                grade.setCourseId(courseId);
+                row.setStatus("UPDATED");
+            } else {
+                gradeDTO.setCourseId(courseId);
+                grade = convertToEntity(gradeDTO);
+                grade.setId(null);
+                existingGrades.put(key, grade);
+                row.setStatus("CREATED");
+            }
+            toSave.add(grade);
+            savedRows.put(row, grade);
         }
         
-        // Obtener todas las notas del estudiante en el curso
-        List<Grade> grades = gradeRepository.findByStudentIdAndCourseId(studentId, courseId);
+        // Guardar todas las notas juntas (los UPDATE se envían en lotes, ver hibernate.jdbc.batch_size)
+        gradeRepository.saveAll(toSave);
+        savedRows.forEach((row, grade) -> row.setGradeId(grade.getId()));
+        gradeChangeLog.recordUpserts(courseId, toSave);
+        evaluationAggregateMaintainer.refresh(toSave.stream()
+                .map(Grade::getEvaluationId)
+                .collect(Collectors.toSet()));
+        
+        // Actualizar una sola vez los promedios materializados de los estudiantes afectados
+        courseAverageMaintainer.refreshStudents(courseId, toSave.stream()
+                .map(Grade::getStudentId)
+                .collect(Collectors.toSet()));
+        
+        BulkGradeResultDTO result = new BulkGradeResultDTO();
+        result.setCourseId(courseId);
+        result.setCreated((int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count());
+        result.setUpdated((int) results.stream().filter(r -> "UPDATED".equals(r.getStatus())).count());
+        result.setFailed((int) results.stream().filter(r -> "ERROR".equals(r.getStatus())).count());
+        result.setResults(results);
+        return result;
+    }
+    
+    @Override
+    public GradeTransformResultDTO transformGrades(Long evaluationId, GradeTransformRequestDTO request) {
+        Evaluation evaluation = evaluationRepository.findById(evaluationId)
+                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
+        Long courseId = evaluation.getCourseId();
+        
+        // Validar ownership: el curso debe pertenecer al profesor autenticado
+        validateCourseOwnership(courseId);
         
-        // Obtener todas las evaluaciones para acceder a sus escalas
-        List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId);
+        // Las escrituras de notas de un mismo curso se ejecutan de a una
+        courseVersionCounter.lock(courseId);
         
-        // Filtrar evaluaciones por materia si se proporciona
-        if (subjectId != null) {
-            evaluations = evaluations.stream()
-                    .filter(eval -> subjectId.equals(eval.getSubjectId()))
-                    .collect(Collectors.toList());
+        // Valor numérico de cada nota antes de transformar, para registrar solo las que cambian
+        Map<Long, Double> before = new HashMap<>();
+        for (Grade grade : gradeRepository.findByEvaluationId(evaluationId)) {
+            before.put(grade.getId(), grade.getGrade());
         }
         
-        java.util.Map<Long, Evaluation> evalMap = evaluations.stream()
-                .collect(Collectors.toMap(Evaluation::getId, eval -> eval));
+        int updated = gradeTransformer.transform(evaluation, request);
+        List<Grade> grades = gradeRepository.findByEvaluationId(evaluationId);
+        List<Grade> changedGrades = updated == 0 ? List.of() : grades.stream()
+                .filter(grade -> !Objects.equals(before.get(grade.getId()), grade.getGrade()))
+                .collect(Collectors.toList());
+        if (!changedGrades.isEmpty()) {
+            gradeChangeLog.recordUpserts(courseId, changedGrades);
+            // El UPDATE masivo no pasa por los listeners JPA: marcar el curso a mano
+            courseChangeTracker.markChanged(courseId);
+            evaluationAggregateMaintainer.refresh(List.of(evaluationId));
+            courseAverageMaintainer.refreshStudents(courseId, changedGrades.stream()
+                    .map(Grade::getStudentId)
+                    .collect(Collectors.toSet()));
+        }
         
-        // Filtrar notas solo de las evaluaciones de la materia (si se proporciona)
-        List<Grade> filteredGrades = grades;
-        if (subjectId != null) {
-            java.util.Set<Long> evaluationIds = evaluations.stream()
-                    .map(Evaluation::getId)
-                    .collect(Collectors.toSet());
-            filteredGrades = grades.stream()
-                    .filter(grade -> grade.getEvaluationId() != null && evaluationIds.contains(grade.getEvaluationId()))
-                    .collect(Collectors.toList());
+        return new GradeTransformResultDTO(evaluationId, request.getOperation(), changedGrades.size(),
+                grades.size() - changedGrades.size());
+    }
+    
+    /**
+     * Valida una fila de un guardado masivo contra los datos del curso ya cargados.
+     * 
+     * @return Mensaje de error, o null si la fila es válida
+     */
+    private String validateBulkRow(GradeDTO gradeDTO, Long courseId,
+                                   java.util.Set<Long> courseStudentIds, java.util.Set<Long> courseEvaluationIds) {
+        if (gradeDTO == null || gradeDTO.getStudentId() == null || gradeDTO.getEvaluationId() == null) {
+            return "El ID del estudiante y el ID de la evaluación son obligatorios";
+        }
+        if (gradeDTO.getCourseId() != null && !gradeDTO.getCourseId().equals(courseId)) {
+            return "La nota no corresponde al curso con ID " + courseId;
+        }
+        if (gradeDTO.getGrade() != null && (gradeDTO.getGrade() < 0.0 || gradeDTO.getGrade() > 10.0)) {
+            return "La nota debe estar entre 0 y 10 (inclusive)";
+        }
+        if (!courseStudentIds.contains(gradeDTO.getStudentId())) {
+            return "El estudiante con ID " + gradeDTO.getStudentId() + " no pertenece al curso con ID " + courseId;
+        }
+        if (!courseEvaluationIds.contains(gradeDTO.getEvaluationId())) {
+            return "La evaluación con ID " + gradeDTO.getEvaluationId() + " no pertenece al curso con ID " + courseId;
+        }
+        return null;
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public Double calculateAverage(Long studentId, Long courseId, Long subjectId) {
+        // Validar que el estudiante exista
+        if (!studentRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("El estudiante con ID " + studentId + " no existe");
         }
         
-        // Convertir notas a valores numéricos (incluyendo mapeo de escalas categóricas)
-        List<Double> validGrades = new ArrayList<>();
-        for (Grade grade : filteredGrades) {
-            Double numericValue = getNumericGradeValue(grade, evalMap);
-            if (numericValue != null) {
-                validGrades.add(numericValue);
-            }
+        // Sin filtro de materia, el promedio está materializado: una sola lectura
+        if (subjectId == null) {
+            return courseAverageMaintainer.read(courseId, studentId).getCourseRows().stream()
+                    .findFirst()
+                    .filter(average -> average.getGradeCount() > 0)
+                    .map(average -> average.getGradeSum() / average.getGradeCount())
+                    .orElse(null);
         }
         
-        // Si no hay notas válidas, retornar null
-        if (validGrades.isEmpty()) {
-            return null;
+        // Con filtro de materia: la BD filtra por materia y devuelve la suma y cantidad de notas
+        return subjectAverageAggregator.average(courseId, subjectId, studentId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
+    public List<SubjectAveragesDTO> getSubjectAveragesByCourse(Long courseId) {
+        List<Student> students = studentRepository.findByCourseId(courseId);
+        java.util.Map<Long, java.util.Map<Long, SubjectTotals>> totals = subjectAverageAggregator.totalsByCourse(courseId);
+        
+        return subjectRepository.findByCourseId(courseId).stream()
+                .sorted(java.util.Comparator.comparing(Subject::getId))
+                .map(subject -> {
+                    java.util.Map<Long, SubjectTotals> bySubject = totals.getOrDefault(subject.getId(), java.util.Map.of());
+                    List<StudentAverageDTO> averages = students.stream()
+                            .map(student -> {
+                                SubjectTotals studentTotals = bySubject.get(student.getId());
+                                int count = studentTotals != null ? studentTotals.getGradeCount() : 0;
+                                return new StudentAverageDTO(student.getId(), student.getFirstName(), student.getLastName(),
+                                        studentTotals != null ? studentTotals.getAverage() : null, count > 0, count);
+                            })
+                            .collect(Collectors.toList());
+                    return new SubjectAveragesDTO(subject.getId(), subject.getName(), averages);
+                })
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
+    public CourseRankingDTO getCourseRanking(Long courseId, Integer k, Long evaluationTypeId, Long subjectId,
+                                             Integer quartile) {
+        if (subjectId != null) {
+            Subject subject = subjectRepository.findById(subjectId)
+                    .orElseThrow(() -> new IllegalArgumentException("La materia con ID " + subjectId + " no existe"));
+            if (!subject.getCourseId().equals(courseId)) {
+                throw new IllegalArgumentException("La materia con ID " + subjectId +
+                        " no pertenece al curso con ID " + courseId);
+            }
         }
         
-        // Calcular el promedio
-        double sum = validGrades.stream().mapToDouble(Double::doubleValue).sum();
-        return sum / validGrades.size();
+        return courseRankingCalculator.rank(courseId, k, evaluationTypeId, subjectId, quartile);
     }
     
     /**
@@ -198,11 +461,10 @@ public class GradeServiceImpl implements GradeService {
      */
     public GradeDTO updateGrade(Long id, GradeDTO gradeDTO) {
         // Buscar la nota existente
-        Grade grade = gradeRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("La nota con ID " + id + " no existe"));
-        
-        // Validar ownership: el curso de la nota debe pertenecer al profesor autenticado
-        validateCourseOwnership(grade.getCourseId());
+        Grade grade = gradeRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(gradeRepository.existsById(id)
+                        ? "No tiene acceso a este curso"
+                        : "La nota con ID " + id + " no existe"));
         
         // Validar rango de nota (0-10 inclusive)
         // Nota: El DTO ya tiene validaciones @DecimalMin(0.0) y @DecimalMax(10.0)
@@ -270,6 +532,15 @@ public class GradeServiceImpl implements GradeService {
             }
         }
         
+        // Recordar a qué estudiante y curso pertenecía la nota, para recalcular ambos promedios
+        Long previousCourseId = grade.getCourseId();
+        Long previousStudentId = grade.getStudentId();
+        Long previousEvaluationId = grade.getEvaluationId();
+        
+        // Las escrituras de notas de un mismo curso se ejecutan de a una (en orden si son dos cursos)
+        courseVersionCounter.lock(Math.min(previousCourseId, finalCourseId));
+        courseVersionCounter.lock(Math.max(previousCourseId, finalCourseId));
+        
         // Actualizar los campos
         if (gradeDTO.getGrade() != null) {
             grade.setGrade(gradeDTO.getGrade());
@@ -287,6 +558,25 @@ public class GradeServiceImpl implements GradeService {
         // Guardar cambios
         Grade savedGrade = gradeRepository.save(grade);
         
+        // Registrar el cambio; si la nota pasó a otro curso, en el anterior figura como eliminada
+        if (!previousCourseId.equals(savedGrade.getCourseId())) {
+            Grade removed = new Grade();
+            removed.setId(savedGrade.getId());
+            removed.setStudentId(previousStudentId);
+            removed.setEvaluationId(previousEvaluationId);
+            gradeChangeLog.recordDeletes(previousCourseId, List.of(removed));
+        }
+        gradeChangeLog.recordUpserts(savedGrade.getCourseId(), List.of(savedGrade));
+        evaluationAggregateMaintainer.refresh(List.of(previousEvaluationId, savedGrade.getEvaluationId()));
+        
+        // Actualizar los promedios materializados afectados
+        if (previousCourseId.equals(savedGrade.getCourseId())) {
+            courseAverageMaintainer.refreshStudents(previousCourseId, List.of(previousStudentId, savedGrade.getStudentId()));
+        } else {
+            courseAverageMaintainer.refreshStudent(previousCourseId, previousStudentId);
+            courseAverageMaintainer.refreshStudent(savedGrade.getCourseId(), savedGrade.getStudentId());
+        }
+        
         // Convertir y retornar DTO
         return convertToDTO(savedGrade);
     }
@@ -297,11 +587,10 @@ public class GradeServiceImpl implements GradeService {
     @Override
     public List<GradeDTO> getGradesByEvaluation(Long evaluationId) {
         // Buscar la evaluación para obtener su curso
-        Evaluation evaluation = evaluationRepository.findById(evaluationId)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
-        
-        // Validar ownership: el curso de la evaluación debe pertenecer al profesor autenticado
-        validateCourseOwnership(evaluation.getCourseId());
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
         
         List<Grade> grades = gradeRepository.findByEvaluationId(evaluationId);
         return grades.stream()
@@ -312,21 +601,33 @@ public class GradeServiceImpl implements GradeService {
     @Override
     public Page<GradeDTO> getGradesByEvaluation(Long evaluationId, Pageable pageable) {
         // Buscar la evaluación para obtener su curso
-        Evaluation evaluation = evaluationRepository.findById(evaluationId)
-                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
-        
-        // Validar ownership: el curso de la evaluación debe pertenecer al profesor autenticado
-        validateCourseOwnership(evaluation.getCourseId());
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
         
         Page<Grade> gradesPage = gradeRepository.findByEvaluationId(evaluationId, pageable);
         return gradesPage.map(this::convertToDTO);
     }
     
     @Override
+    public CursorPageDTO<GradeDTO> getGradesByEvaluation(Long evaluationId, String cursor, Integer limit, boolean count) {
+        // Buscar la evaluación para obtener su curso
+        Evaluation evaluation = evaluationRepository.findByIdAndProfessorId(evaluationId, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(evaluationRepository.existsById(evaluationId)
+                        ? "No tiene acceso a este curso"
+                        : "La evaluación con ID " + evaluationId + " no existe"));
+        
+        Keyset keyset = Keyset.ID;
+        Window<Grade> window = gradeRepository.findByEvaluationId(evaluationId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> gradeRepository.countByEvaluationId(evaluationId) : null);
+    }
+    
+    @Override
+    @RequiresCourseOwnership
     public List<StudentAverageDTO> getAveragesByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         // Obtener todos los estudiantes del curso
         List<Student> students = studentRepository.findByCourseId(courseId);
         
@@ -335,50 +636,35 @@ public class GradeServiceImpl implements GradeService {
             return new ArrayList<>();
         }
         
-        // Para cada estudiante, calcular su promedio y crear el DTO
-        // Optimización: evitamos validaciones redundantes ya que sabemos que los estudiantes
-        // pertenecen al curso y existen (los obtuvimos del repositorio)
+        // Los promedios están materializados: una sola lectura para todo el curso
+        java.util.Map<Long, StudentCourseAverage> averagesByStudent = courseAverageMaintainer.read(courseId).getCourseRows().stream()
+                .collect(Collectors.toMap(StudentCourseAverage::getStudentId, average -> average));
+        
         return students.stream()
                 .map(student -> {
-                    // Obtener todas las notas del estudiante en el curso (una sola consulta)
-                    List<Grade> studentGrades = gradeRepository.findByStudentIdAndCourseId(
-                            student.getId(), courseId);
-                    
-                    // Obtener evaluaciones para mapeo de escalas
-                    List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId);
-                    java.util.Map<Long, Evaluation> evalMap = evaluations.stream()
-                            .collect(Collectors.toMap(Evaluation::getId, eval -> eval));
-                    
-                    // Convertir notas a valores numéricos (incluyendo mapeo de escalas)
-                    List<Double> validGrades = new ArrayList<>();
-                    for (Grade grade : studentGrades) {
-                        Double numericValue = getNumericGradeValue(grade, evalMap);
-                        if (numericValue != null) {
-                            validGrades.add(numericValue);
-                        }
-                    }
-                    
-                    // Calcular el promedio
-                    Double average = null;
-                    if (!validGrades.isEmpty()) {
-                        double sum = validGrades.stream().mapToDouble(Double::doubleValue).sum();
-                        average = sum / validGrades.size();
-                    }
+                    StudentCourseAverage average = averagesByStudent.get(student.getId());
+                    int count = average != null ? average.getGradeCount() : 0;
                     
                     // Crear el DTO
                     StudentAverageDTO dto = new StudentAverageDTO();
                     dto.setStudentId(student.getId());
                     dto.setFirstName(student.getFirstName());
                     dto.setLastName(student.getLastName()); // Puede ser null, está permitido
-                    dto.setAverage(average);
-                    dto.setHasGrades(!validGrades.isEmpty());
-                    dto.setGradesCount(validGrades.size());
+                    dto.setAverage(count > 0 ? average.getGradeSum() / count : null);
+                    dto.setHasGrades(count > 0);
+                    dto.setGradesCount(count);
                     
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @RequiresCourseOwnership
+    public int rebuildAverages(Long courseId) {
+        return courseAverageMaintainer.rebuildCourse(courseId);
+    }
+    
     /**
      * Convierte una entidad Grade a GradeDTO
      */
@@ -408,156 +694,113 @@ public class GradeServiceImpl implements GradeService {
     }
     
     @Override
+    @RequiresCourseOwnership
     public StudentGroupedAveragesDTO getGroupedAverages(Long studentId, Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
         // Validar que el estudiante exista
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("El estudiante con ID " + studentId + " no existe"));
         
-        // Obtener todas las evaluaciones del curso
-        List<Evaluation> evaluations = evaluationRepository.findByCourseId(courseId);
+        // Los promedios están materializados: se leen las filas del estudiante
+        CourseAverages averages = courseAverageMaintainer.read(courseId, studentId);
+        java.util.Map<Long, EvaluationType> typeMap = getTypeMap(courseId);
         
-        // Obtener todos los tipos de evaluación del curso
-        List<EvaluationType> evaluationTypes = evaluationTypeRepository.findByCourseId(courseId);
-        
-        // Crear un mapa de evaluationTypeId -> EvaluationType para acceso rápido
-        java.util.Map<Long, EvaluationType> typeMap = evaluationTypes.stream()
-                .collect(Collectors.toMap(EvaluationType::getId, type -> type));
-        
-        // Obtener todas las notas del estudiante en el curso
-        List<Grade> studentGrades = gradeRepository.findByStudentIdAndCourseId(studentId, courseId);
+        return toGroupedAveragesDTO(student,
+                averages.getTypeRows(),
+                averages.getCourseRows().stream().findFirst().orElse(null),
+                typeMap);
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public List<StudentGroupedAveragesDTO> getGroupedAveragesByCourse(Long courseId) {
+        // Obtener todos los estudiantes del curso
+        List<Student> students = studentRepository.findByCourseId(courseId);
         
-        // Crear un mapa de evaluationId -> Grade para acceso rápido (incluir todas las notas)
-        java.util.Map<Long, Grade> gradeMap = studentGrades.stream()
-                .filter(g -> g.getGrade() != null || g.getGradeValue() != null)
-                .collect(Collectors.toMap(Grade::getEvaluationId, grade -> grade));
+        // Leer los promedios materializados de todo el curso de una vez
+        CourseAverages averages = courseAverageMaintainer.read(courseId);
+        java.util.Map<Long, EvaluationType> typeMap = getTypeMap(courseId);
+        java.util.Map<Long, StudentCourseAverage> averagesByStudent = averages.getCourseRows().stream()
+                .collect(Collectors.toMap(StudentCourseAverage::getStudentId, average -> average));
+        java.util.Map<Long, List<StudentTypeAverage>> typeAveragesByStudent = averages.getTypeRows().stream()
+                .collect(Collectors.groupingBy(StudentTypeAverage::getStudentId));
         
-        // Crear mapa de evaluaciones para acceder a escalas
-        java.util.Map<Long, Evaluation> evalMap = evaluations.stream()
-                .collect(Collectors.toMap(Evaluation::getId, eval -> eval));
+        return students.stream()
+                .map(student -> toGroupedAveragesDTO(student,
+                        typeAveragesByStudent.getOrDefault(student.getId(), List.of()),
+                        averagesByStudent.get(student.getId()),
+                        typeMap))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public GradeStatisticsDTO getCourseStatistics(Long courseId, Integer bins, List<Double> percentiles) {
+        return gradeStatisticsCalculator.forCourse(courseId, bins, percentiles);
+    }
+    
+    @Override
+    @RequiresCourseOwnership
+    public CourseStatusReportDTO getStatusReport(Long courseId, List<AcademicStatus> statuses, Boolean atRisk) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
         
-        // Agrupar evaluaciones por tipo
-        java.util.Map<Long, List<Evaluation>> evaluationsByType = evaluations.stream()
-                .filter(e -> e.getEvaluationTypeId() != null)
-                .filter(e -> gradeMap.containsKey(e.getId())) // Solo evaluaciones con notas
-                .collect(Collectors.groupingBy(Evaluation::getEvaluationTypeId));
+        return studentStatusClassifier.classify(course, studentRepository.findByCourseId(courseId), statuses, atRisk);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
+    public GradeChangesDTO getGradeChanges(Long courseId, String since, Integer limit) {
+        return gradeChangeLog.changesSince(courseId, since, limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    @RequiresCourseOwnership
+    public GradeSimulationResultDTO simulateGrades(Long studentId, Long courseId, GradeSimulationRequestDTO request) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
         
-        // Calcular promedio por cada tipo
+        // Se calcula sobre la planilla en caché, sin guardar las notas hipotéticas
+        return gradeSimulator.simulate(course, studentId, request);
+    }
+    
+    private java.util.Map<Long, EvaluationType> getTypeMap(Long courseId) {
+        return evaluationTypeRepository.findByCourseId(courseId).stream()
+                .collect(Collectors.toMap(EvaluationType::getId, type -> type));
+    }
+    
+    /**
+     * Arma el DTO de promedios agrupados a partir de las filas materializadas del estudiante
+     */
+    private StudentGroupedAveragesDTO toGroupedAveragesDTO(Student student, List<StudentTypeAverage> typeAverages,
+                                                           StudentCourseAverage courseAverage,
+                                                           java.util.Map<Long, EvaluationType> typeMap) {
         List<GroupedAverageDTO> groupedAverages = new ArrayList<>();
-        for (java.util.Map.Entry<Long, List<Evaluation>> entry : evaluationsByType.entrySet()) {
-            Long typeId = entry.getKey();
-            List<Evaluation> typeEvaluations = entry.getValue();
-            
-            EvaluationType type = typeMap.get(typeId);
+        for (StudentTypeAverage typeAverage : typeAverages) {
+            EvaluationType type = typeMap.get(typeAverage.getEvaluationTypeId());
             if (type == null) continue;
             
-            // Calcular promedio de las notas de este tipo (incluyendo mapeo de escalas)
-            List<Double> typeGrades = new ArrayList<>();
-            for (Evaluation eval : typeEvaluations) {
-                Grade grade = gradeMap.get(eval.getId());
-                if (grade != null) {
-                    Double numericValue = getNumericGradeValue(grade, evalMap);
-                    if (numericValue != null) {
-                        typeGrades.add(numericValue);
-                    }
-                }
-            }
-            
-            if (typeGrades.isEmpty()) continue;
-            
-            double typeAverage = typeGrades.stream().mapToDouble(Double::doubleValue).sum() / typeGrades.size();
-            
             GroupedAverageDTO groupedAvg = new GroupedAverageDTO();
-            groupedAvg.setEvaluationTypeId(typeId);
+            groupedAvg.setEvaluationTypeId(type.getId());
             groupedAvg.setEvaluationTypeName(type.getNombre());
-            groupedAvg.setAverage(typeAverage);
-            groupedAvg.setEvaluationsCount(typeEvaluations.size());
-            groupedAvg.setEvaluationIds(typeEvaluations.stream().map(Evaluation::getId).collect(Collectors.toList()));
+            groupedAvg.setAverage(typeAverage.getGradeSum() / typeAverage.getGradeCount());
+            groupedAvg.setEvaluationsCount(typeAverage.getEvaluationsCount());
+            groupedAvg.setEvaluationIds(CourseAverageMaintainer.parseIds(typeAverage.getEvaluationIds()));
             
             groupedAverages.add(groupedAvg);
         }
         
-        // Calcular promedio final usando pesos
-        Double finalAverage = null;
-        if (!groupedAverages.isEmpty()) {
-            // Calcular suma total de pesos
-            double totalWeight = 0.0;
-            double weightedSum = 0.0;
-            
-            for (GroupedAverageDTO groupedAvg : groupedAverages) {
-                EvaluationType type = typeMap.get(groupedAvg.getEvaluationTypeId());
-                double weight = (type != null && type.getWeight() != null) ? type.getWeight() : 100.0 / groupedAverages.size();
-                totalWeight += weight;
-                weightedSum += groupedAvg.getAverage() * weight;
-            }
-            
-            if (totalWeight > 0) {
-                finalAverage = weightedSum / totalWeight;
-            } else {
-                // Fallback a promedio simple si no hay pesos
-                double sum = groupedAverages.stream()
-                        .mapToDouble(GroupedAverageDTO::getAverage)
-                        .sum();
-                finalAverage = sum / groupedAverages.size();
-            }
-        }
-        
-        // Crear y retornar DTO
         StudentGroupedAveragesDTO result = new StudentGroupedAveragesDTO();
         result.setStudentId(student.getId());
         result.setFirstName(student.getFirstName());
         result.setLastName(student.getLastName());
         result.setGroupedAverages(groupedAverages);
-        result.setFinalAverage(finalAverage);
+        result.setFinalAverage(courseAverage != null ? courseAverage.getFinalAverage() : null);
         
         return result;
     }
     
-    @Override
-    public List<StudentGroupedAveragesDTO> getGroupedAveragesByCourse(Long courseId) {
-        // Validar ownership: el curso debe pertenecer al profesor autenticado
-        validateCourseOwnership(courseId);
-        
-        // Obtener todos los estudiantes del curso
-        List<Student> students = studentRepository.findByCourseId(courseId);
-        
-        // Calcular promedios agrupados para cada estudiante
-        return students.stream()
-                .map(student -> getGroupedAverages(student.getId(), courseId))
-                .collect(Collectors.toList());
-    }
-    
-    /**
-     * Obtiene el valor numérico de una nota, considerando mapeo de escalas categóricas
-     */
-    private Double getNumericGradeValue(Grade grade, java.util.Map<Long, Evaluation> evalMap) {
-        // Si tiene valor numérico directo, usarlo
-        if (grade.getGrade() != null) {
-            return grade.getGrade();
-        }
-        
-        // Si tiene valor categórico, buscar mapeo numérico
-        if (grade.getGradeValue() != null && grade.getEvaluationId() != null) {
-            Evaluation evaluation = evalMap.get(grade.getEvaluationId());
-            if (evaluation != null && evaluation.getGradeScaleId() != null) {
-                // Buscar la opción de escala que corresponde al gradeValue
-                List<com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeScaleOption> options = 
-                    gradeScaleOptionRepository.findByGradeScaleIdOrderByOrderValueAsc(evaluation.getGradeScaleId());
-                
-                for (com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeScaleOption option : options) {
-                    if (option.getLabel().equalsIgnoreCase(grade.getGradeValue()) && 
-                        option.getNumericValue() != null) {
-                        return option.getNumericValue();
-                    }
-                }
-            }
-        }
-        
-        return null;
-    }
-    
     /**
      * Valida que un curso pertenezca al profesor autenticado.
      * 
@@ -565,13 +808,7 @@ public class GradeServiceImpl implements GradeService {
      * @throws IllegalArgumentException si el curso no existe o no pertenece al profesor autenticado
      */
     private void validateCourseOwnership(Long courseId) {
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
+        courseOwnershipValidator.validate(courseId);
     }
 }
 
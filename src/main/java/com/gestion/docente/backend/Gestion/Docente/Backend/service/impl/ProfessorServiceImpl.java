@@ -14,12 +14,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CreateProfessorByAdminRequest;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.LoginResponse;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.OwnedCourseCacheStatsDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.ProfessorDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.RegisterRequest;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Role;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.ProfessorRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.OwnedCourseCache;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.PrincipalCache;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.ProfessorPrincipal;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.EmailService;
@@ -40,6 +43,12 @@ public class ProfessorServiceImpl implements ProfessorService {
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private OwnedCourseCache ownedCourseCache;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -241,7 +250,10 @@ public class ProfessorServiceImpl implements ProfessorService {
         Object principal = authentication.getPrincipal();
         
         if (principal instanceof ProfessorPrincipal) {
-            Professor professor = ((ProfessorPrincipal) principal).getProfessor();
+            // El principal solo tiene los datos de autenticación: el perfil completo se lee de la BD
+            Long professorId = ((ProfessorPrincipal) principal).getId();
+            Professor professor = professorRepository.findById(professorId)
+                    .orElseThrow(() -> new IllegalStateException("No hay un profesor autenticado"));
             return convertToDTO(professor);
         }
         
@@ -295,6 +307,7 @@ public class ProfessorServiceImpl implements ProfessorService {
         
         // 5. Guardar los cambios
         Professor updatedProfessor = professorRepository.save(existingProfessor);
+        principalCache.invalidate(id); // El rol puede haber cambiado
         
         // 6. Convertir a DTO y retornar
         return convertToDTO(updatedProfessor);
@@ -384,6 +397,16 @@ public class ProfessorServiceImpl implements ProfessorService {
         }
         
         professorRepository.deleteById(id);
+        ownedCourseCache.invalidate(id);
+        principalCache.invalidate(id);
+    }
+    
+    @Override
+    public OwnedCourseCacheStatsDTO getOwnedCourseCacheStats() {
+        // Solo administradores pueden ver las métricas de la caché
+        validateAdminAccess();
+        
+        return ownedCourseCache.getStats();
     }
     
     /**
@@ -403,20 +426,19 @@ public class ProfessorServiceImpl implements ProfessorService {
         // Verificar directamente desde el ProfessorPrincipal (más confiable)
         if (principal instanceof ProfessorPrincipal) {
             ProfessorPrincipal professorPrincipal = (ProfessorPrincipal) principal;
-            Professor professor = professorPrincipal.getProfessor();
             
             System.out.println("=== validateAdminAccess DEBUG ===");
-            System.out.println("Professor ID: " + professor.getId());
-            System.out.println("Professor Email: " + professor.getEmail());
-            System.out.println("Professor Role object: " + professor.getRole());
-            System.out.println("Professor Role name: " + (professor.getRole() != null ? professor.getRole().name() : "null"));
-            System.out.println("Role equals ADMIN: " + (professor.getRole() != null && professor.getRole().name().equals("ADMIN")));
-            System.out.println("Role == Role.ADMIN: " + (professor.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN));
+            System.out.println("Professor ID: " + professorPrincipal.getId());
+            System.out.println("Professor Email: " + professorPrincipal.getEmail());
+            System.out.println("Professor Role object: " + professorPrincipal.getRole());
+            System.out.println("Professor Role name: " + (professorPrincipal.getRole() != null ? professorPrincipal.getRole().name() : "null"));
+            System.out.println("Role equals ADMIN: " + (professorPrincipal.getRole() != null && professorPrincipal.getRole().name().equals("ADMIN")));
+            System.out.println("Role == Role.ADMIN: " + (professorPrincipal.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN));
             
             // Verificar si el profesor tiene rol ADMIN (múltiples formas)
-            if (professor.getRole() != null) {
-                if (professor.getRole().name().equals("ADMIN") || 
-                    professor.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN) {
+            if (professorPrincipal.getRole() != null) {
+                if (professorPrincipal.getRole().name().equals("ADMIN") || 
+                    professorPrincipal.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN) {
                     isAdmin = true;
                     System.out.println("✓ Admin access granted via ProfessorPrincipal");
                 }
@@ -442,12 +464,11 @@ public class ProfessorServiceImpl implements ProfessorService {
             System.err.println("Authorities: " + authentication.getAuthorities());
             if (principal instanceof ProfessorPrincipal) {
                 ProfessorPrincipal pp = (ProfessorPrincipal) principal;
-                Professor prof = pp.getProfessor();
-                System.err.println("Professor ID: " + prof.getId());
-                System.err.println("Professor Email: " + prof.getEmail());
-                System.err.println("Professor Role object: " + prof.getRole());
-                System.err.println("Professor Role name: " + (prof.getRole() != null ? prof.getRole().name() : "null"));
-                System.err.println("Is Role.ADMIN? " + (prof.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN));
+                System.err.println("Professor ID: " + pp.getId());
+                System.err.println("Professor Email: " + pp.getEmail());
+                System.err.println("Professor Role object: " + pp.getRole());
+                System.err.println("Professor Role name: " + (pp.getRole() != null ? pp.getRole().name() : "null"));
+                System.err.println("Is Role.ADMIN? " + (pp.getRole() == com.gestion.docente.backend.Gestion.Docente.Backend.model.Role.ADMIN));
             }
             System.err.println("=================================");
             throw new IllegalStateException("Solo los administradores pueden realizar esta acción");
@@ -480,6 +501,7 @@ public class ProfessorServiceImpl implements ProfessorService {
         
         // 5. Guardar cambios
         professorRepository.save(professor);
+        principalCache.invalidate(professor.getId());
         
         return true;
     }
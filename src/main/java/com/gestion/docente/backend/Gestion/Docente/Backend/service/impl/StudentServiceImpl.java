@@ -4,16 +4,30 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentCourseHistoryDTO;
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository.StudentCourseSummary;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.StudentService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.CourseAverageMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.EvaluationAggregateMaintainer;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeDistributionCache;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination.CursorPagination.Keyset;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseChangeTracker;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.GradeChangeLog;
 
 /**
  * Implementación del servicio de estudiantes.
@@ -27,49 +41,63 @@ public class StudentServiceImpl implements StudentService {
     private StudentRepository studentRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseOwnershipValidator courseOwnershipValidator;
+    
+    @Autowired
+    private GradeDistributionCache gradeDistributionCache;
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Autowired
+    private GradeChangeLog gradeChangeLog;
+    
+    @Autowired
+    private CourseVersionCounter courseVersionCounter;
+    
+    @Autowired
+    private EvaluationAggregateMaintainer evaluationAggregateMaintainer;
+    
+    @Autowired
+    private CourseAverageMaintainer courseAverageMaintainer;
+    
+    @Autowired
+    private CourseChangeTracker courseChangeTracker;
     
     @Override
+    @RequiresCourseOwnership
     public List<StudentDTO> getStudentsByCourse(Long courseId) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
-        
-        // 3. Obtener estudiantes del curso
+        // 1. Obtener estudiantes del curso
         List<Student> students = studentRepository.findByCourseId(courseId);
         
-        // 4. Convertir a DTOs y retornar
+        // 2. Convertir a DTOs y retornar
         return students.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @RequiresCourseOwnership
+    public CursorPageDTO<StudentDTO> getStudentsByCourse(Long courseId, String cursor, Integer limit, boolean count) {
+        // Obtener la página de estudiantes desde la posición del cursor
+        Keyset keyset = Keyset.ID;
+        Window<Student> window = studentRepository.findByCourseId(courseId, keyset.position(cursor), keyset.sort(),
+                CursorPagination.limit(limit));
+        return CursorPagination.toPage(window, keyset, this::convertToDTO,
+                count ? () -> studentRepository.countByCourseId(courseId) : null);
+    }
+    
     @Override
     public StudentDTO addStudentToCourse(StudentDTO studentDTO) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        // 1. Validar que el curso exista y pertenezca al profesor autenticado
+        courseOwnershipValidator.validate(studentDTO.getCourseId(), "No puede agregar estudiantes a cursos de otros profesores");
         
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(studentDTO.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + studentDTO.getCourseId() + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede agregar estudiantes a cursos de otros profesores");
-        }
-        
-        // 3. Validar campos obligatorios
+        // 2. Validar campos obligatorios
         if (studentDTO.getFirstName() == null || studentDTO.getFirstName().trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre del estudiante es obligatorio");
         }
         
-        // 4. Capitalizar nombres y apellidos
+        // 3. Capitalizar nombres y apellidos
         if (studentDTO.getFirstName() != null) {
             studentDTO.setFirstName(capitalizeName(studentDTO.getFirstName()));
         }
@@ -77,10 +105,10 @@ public class StudentServiceImpl implements StudentService {
             studentDTO.setLastName(capitalizeName(studentDTO.getLastName()));
         }
         
-        // 5. Convertir DTO a entidad
+        // 4. Convertir DTO a entidad
         Student student = convertToEntity(studentDTO);
         
-        // 6. Guardar en la base de datos
+        // 5. Guardar en la base de datos
         Student savedStudent = studentRepository.save(student);
         studentRepository.flush(); // Forzar flush para asegurar persistencia
         
@@ -90,32 +118,23 @@ public class StudentServiceImpl implements StudentService {
     
     @Override
     public StudentDTO updateStudent(Long id, StudentDTO studentDTO) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Buscar el estudiante existente
-        Student existingStudent = studentRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El estudiante con ID " + id + " no existe"));
-        
-        // 3. Validar que el curso del estudiante pertenezca al profesor autenticado
-        Course course = courseRepository.findById(existingStudent.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso del estudiante no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede actualizar estudiantes de cursos de otros profesores");
-        }
+        // 1. Buscar el estudiante existente (solo si su curso pertenece al profesor autenticado)
+        Student existingStudent = studentRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(studentRepository.existsById(id)
+                        ? "No puede actualizar estudiantes de cursos de otros profesores"
+                        : "El estudiante con ID " + id + " no existe"));
         
-        // 4. Si se está cambiando el courseId, validar que el nuevo curso también pertenezca al profesor
-        if (studentDTO.getCourseId() != null && !studentDTO.getCourseId().equals(existingStudent.getCourseId())) {
-            Course newCourse = courseRepository.findById(studentDTO.getCourseId())
-                    .orElseThrow(() -> new IllegalArgumentException("El nuevo curso no existe"));
-            
-            if (!newCourse.getProfessorId().equals(currentProfessorId)) {
-                throw new IllegalArgumentException("No puede mover estudiantes a cursos de otros profesores");
-            }
+        // 2. Si se está cambiando el courseId, validar que el nuevo curso también pertenezca al profesor
+        Long previousCourseId = existingStudent.getCourseId();
+        boolean moved = studentDTO.getCourseId() != null && !studentDTO.getCourseId().equals(previousCourseId);
+        if (moved) {
+            courseOwnershipValidator.validate(studentDTO.getCourseId(), "No puede mover estudiantes a cursos de otros profesores");
+            // Bloquear los dos cursos en orden, para no cruzarse con otra escritura que los tome al revés
+            courseVersionCounter.lock(Math.min(previousCourseId, studentDTO.getCourseId()));
+            courseVersionCounter.lock(Math.max(previousCourseId, studentDTO.getCourseId()));
         }
         
-        // 5. Actualizar los campos del estudiante (capitalizando nombres)
+        // 3. Actualizar los campos del estudiante (capitalizando nombres)
         if (studentDTO.getFirstName() != null) {
             existingStudent.setFirstName(capitalizeName(studentDTO.getFirstName()));
         }
@@ -135,32 +154,41 @@ public class StudentServiceImpl implements StudentService {
             existingStudent.setCourseId(studentDTO.getCourseId());
         }
         
-        // 6. Guardar los cambios
+        // 4. Guardar los cambios
         Student updatedStudent = studentRepository.save(existingStudent);
         
-        // 7. Convertir a DTO y retornar
+        // Al moverlo, los promedios, las distribuciones y la versión cambian en los dos cursos
+        if (moved) {
+            for (Long courseId : List.of(previousCourseId, updatedStudent.getCourseId())) {
+                courseAverageMaintainer.rebuildCourse(courseId);
+                courseChangeTracker.markChanged(courseId);
+            }
+        }
+        
+        // 5. Convertir a DTO y retornar
         return convertToDTO(updatedStudent);
     }
     
     @Override
     public void removeStudent(Long id) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Buscar el estudiante existente
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("El estudiante con ID " + id + " no existe"));
-        
-        // 3. Validar que el curso del estudiante pertenezca al profesor autenticado
-        Course course = courseRepository.findById(student.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso del estudiante no existe"));
+        // 1. Buscar el estudiante existente (solo si su curso pertenece al profesor autenticado)
+        Student student = studentRepository.findByIdAndProfessorId(id, SecurityUtils.getCurrentProfessorId())
+                .orElseThrow(() -> new IllegalArgumentException(studentRepository.existsById(id)
+                        ? "No puede eliminar estudiantes de cursos de otros profesores"
+                        : "El estudiante con ID " + id + " no existe"));
+        Long courseId = student.getCourseId();
         
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede eliminar estudiantes de cursos de otros profesores");
-        }
-        
-        // 4. Eliminar estudiante (las relaciones se eliminan en cascada)
+        // 2. Eliminar estudiante (las relaciones se eliminan en cascada)
+        courseVersionCounter.lock(courseId);
+        List<Grade> grades = gradeRepository.findByStudentIdAndCourseId(id, courseId);
+        gradeChangeLog.recordDeletes(courseId, grades);
         studentRepository.deleteById(id);
+        gradeDistributionCache.invalidate(courseId);
+        
+        // Las evaluaciones en las que tenía nota pierden esa nota en sus agregados
+        evaluationAggregateMaintainer.refresh(grades.stream()
+                .map(Grade::getEvaluationId)
+                .collect(Collectors.toSet()));
     }
     
     /**
@@ -180,18 +208,10 @@ public class StudentServiceImpl implements StudentService {
     
     @Override
     public List<StudentDTO> importStudents(Long courseId, List<StudentDTO> students) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        // 1. Validar que el curso exista y pertenezca al profesor autenticado
+        courseOwnershipValidator.validate(courseId, "No puede agregar estudiantes a cursos de otros profesores");
         
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede agregar estudiantes a cursos de otros profesores");
-        }
-        
-        // 3. Validar y convertir estudiantes
+        // 2. Validar y convertir estudiantes
         List<Student> studentsToSave = students.stream()
                 .map(dto -> {
                     // Validar que tenga nombre (obligatorio)
@@ -210,16 +230,75 @@ public class StudentServiceImpl implements StudentService {
                 })
                 .collect(Collectors.toList());
         
-        // 4. Guardar todos los estudiantes
+        // 3. Guardar todos los estudiantes
         List<Student> savedStudents = studentRepository.saveAll(studentsToSave);
         studentRepository.flush(); // Forzar flush para asegurar persistencia
         
-        // 5. Convertir a DTOs y retornar
+        // 4. Convertir a DTOs y retornar
         return savedStudents.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentCourseHistoryDTO> getStudentHistory(String document, String email) {
+        String documentFilter = document != null && !document.isBlank() ? document.trim() : null;
+        String emailFilter = email != null && !email.isBlank() ? email.trim() : null;
+        if (documentFilter == null && emailFilter == null) {
+            throw new IllegalArgumentException("Debe indicar el documento o el email del estudiante");
+        }
+        
+        // Solo se buscan estudiantes de cursos del profesor autenticado
+        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
+        List<StudentCourseSummary> rows = studentRepository.findHistory(currentProfessorId, documentFilter, emailFilter);
+        
+        return rows.stream()
+                .map(row -> {
+                    StudentCourseHistoryDTO dto = toHistoryDTO(row);
+                    // Curso todavía sin promedios materializados: se calcula en memoria, sin guardarlo
+                    if (row.getAverageId() == null && row.getGradesCount() > 0) {
+                        dto.setFinalAverage(courseAverageMaintainer.read(row.getCourseId(), row.getStudentId())
+                                .getCourseRows().stream()
+                                .findFirst()
+                                .map(average -> average.getFinalAverage() != null || average.getGradeCount() == 0
+                                        ? average.getFinalAverage()
+                                        : average.getGradeSum() / average.getGradeCount())
+                                .orElse(null));
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private StudentCourseHistoryDTO toHistoryDTO(StudentCourseSummary row) {
+        StudentCourseHistoryDTO dto = new StudentCourseHistoryDTO();
+        dto.setStudentId(row.getStudentId());
+        dto.setFirstName(row.getFirstName());
+        dto.setLastName(row.getLastName());
+        dto.setDocument(row.getDocument());
+        dto.setEmail(row.getEmail());
+        dto.setCourseId(row.getCourseId());
+        dto.setCourseName(row.getCourseName());
+        dto.setSchool(row.getSchool());
+        dto.setArchived(row.getArchived());
+        
+        // Sin notas agrupables por tipo se usa el promedio simple, igual que en los promedios del curso
+        Double average = row.getFinalAverage();
+        if (average == null && row.getNumericCount() != null && row.getNumericCount() > 0) {
+            average = row.getGradeSum() / row.getNumericCount();
+        }
+        dto.setFinalAverage(average);
+        dto.setGradesCount(row.getGradesCount().intValue());
+        
+        int totalDays = row.getTotalDays().intValue();
+        int presentDays = row.getPresentDays().intValue();
+        dto.setTotalDays(totalDays);
+        dto.setPresentDays(presentDays);
+        dto.setAttendancePercentage(totalDays > 0 ? (double) presentDays / totalDays * 100.0 : null);
+        return dto;
+    }
+    
     /**
      * Capitaliza un nombre o apellido (Title Case)
      * Ejemplo: "juan perez" -> "Juan Perez"
@@ -1,11 +1,10 @@
 package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
 
 import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectDTO;
-import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
 import com.gestion.docente.backend.Gestion.Docente.Backend.model.Subject;
-import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
 import com.gestion.docente.backend.Gestion.Docente.Backend.repository.SubjectRepository;
-import com.gestion.docente.backend.Gestion.Docente.Backend.security.SecurityUtils;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.RequiresCourseOwnership;
 import com.gestion.docente.backend.Gestion.Docente.Backend.service.SubjectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,112 +25,76 @@ public class SubjectServiceImpl implements SubjectService {
     private SubjectRepository subjectRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseOwnershipValidator courseOwnershipValidator;
     
     @Override
+    @RequiresCourseOwnership
     public List<SubjectDTO> getSubjectsByCourse(Long courseId) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
-        
-        // 3. Obtener materias del curso
+        // 1. Obtener materias del curso
         List<Subject> subjects = subjectRepository.findByCourseId(courseId);
         
-        // 4. Convertir a DTOs y retornar
+        // 2. Convertir a DTOs y retornar
         return subjects.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @RequiresCourseOwnership
     public SubjectDTO getDefaultSubject(Long courseId) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + courseId + " no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No tiene acceso a este curso");
-        }
-        
-        // 3. Buscar materia sin nombre (default) o la primera materia del curso
+        // 1. Buscar materia sin nombre (default) o la primera materia del curso
         Subject defaultSubject = subjectRepository.findFirstByCourseIdOrderByIdAsc(courseId);
         
         if (defaultSubject == null) {
             throw new IllegalArgumentException("No se encontró materia default para el curso");
         }
         
-        // 4. Convertir a DTO y retornar
+        // 2. Convertir a DTO y retornar
         return convertToDTO(defaultSubject);
     }
     
     @Override
     public SubjectDTO createSubject(SubjectDTO subjectDTO) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Validar que el curso exista y pertenezca al profesor autenticado
-        Course course = courseRepository.findById(subjectDTO.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso con ID " + subjectDTO.getCourseId() + " no existe"));
+        // 1. Validar que el curso exista y pertenezca al profesor autenticado
+        courseOwnershipValidator.validate(subjectDTO.getCourseId(), "No puede agregar materias a cursos de otros profesores");
         
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede agregar materias a cursos de otros profesores");
-        }
-        
-        // 3. Validar que si se proporciona nombre, no esté vacío (permite null para materia default)
+        // 2. Validar que si se proporciona nombre, no esté vacío (permite null para materia default)
         String subjectName = subjectDTO.getName() != null ? subjectDTO.getName().trim() : null;
         if (subjectName != null && subjectName.isEmpty()) {
             throw new IllegalArgumentException("El nombre de la materia no puede estar vacío. Use null para materia sin nombre.");
         }
         
-        // 4. Si se proporciona nombre, validar que no exista otra materia con el mismo nombre en el curso
+        // 3. Si se proporciona nombre, validar que no exista otra materia con el mismo nombre en el curso
         if (subjectName != null && subjectRepository.existsByCourseIdAndName(subjectDTO.getCourseId(), subjectName)) {
             throw new IllegalArgumentException("Ya existe una materia con el nombre '" + subjectName + "' en este curso");
         }
         
-        // 5. Convertir DTO a entidad
+        // 4. Convertir DTO a entidad
         Subject subject = convertToEntity(subjectDTO);
         
-        // 6. Guardar en la base de datos
+        // 5. Guardar en la base de datos
         Subject savedSubject = subjectRepository.save(subject);
         
-        // 7. Convertir a DTO y retornar
+        // 6. Convertir a DTO y retornar
         return convertToDTO(savedSubject);
     }
     
     @Override
     public SubjectDTO updateSubject(Long id, SubjectDTO subjectDTO) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Buscar la materia existente
+        // 1. Buscar la materia existente
         Subject existingSubject = subjectRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("La materia con ID " + id + " no existe"));
         
-        // 3. Validar que el curso de la materia pertenezca al profesor autenticado
-        Course course = courseRepository.findById(existingSubject.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso de la materia no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede actualizar materias de cursos de otros profesores");
-        }
+        // 2. Validar que el curso de la materia pertenezca al profesor autenticado
+        courseOwnershipValidator.validate(existingSubject.getCourseId(), "No puede actualizar materias de cursos de otros profesores");
         
-        // 4. Procesar el nombre (puede ser null, vacío, o con valor)
+        // 3. Procesar el nombre (puede ser null, vacío, o con valor)
         String newName = subjectDTO.getName() != null ? subjectDTO.getName().trim() : null;
         if (newName != null && newName.isEmpty()) {
             newName = null; // Convertir cadena vacía a null
         }
         
-        // 5. Si se está cambiando el nombre, validar que no exista otra materia con ese nombre en el curso
+        // 4. Si se está cambiando el nombre, validar que no exista otra materia con ese nombre en el curso
         String currentName = existingSubject.getName() != null ? existingSubject.getName() : null;
         if (newName != null && !newName.equals(currentName)) {
             if (subjectRepository.existsByCourseIdAndName(existingSubject.getCourseId(), newName)) {
@@ -139,34 +102,26 @@ public class SubjectServiceImpl implements SubjectService {
             }
         }
         
-        // 6. Actualizar el nombre de la materia (puede ser null para materia sin nombre)
+        // 5. Actualizar el nombre de la materia (puede ser null para materia sin nombre)
         existingSubject.setName(newName);
         
-        // 6. Guardar los cambios
+        // 5. Guardar los cambios
         Subject updatedSubject = subjectRepository.save(existingSubject);
         
-        // 7. Convertir a DTO y retornar
+        // 6. Convertir a DTO y retornar
         return convertToDTO(updatedSubject);
     }
     
     @Override
     public void deleteSubject(Long id) {
-        // 1. Obtener el profesor autenticado desde el JWT
-        Long currentProfessorId = SecurityUtils.getCurrentProfessorId();
-        
-        // 2. Buscar la materia existente
+        // 1. Buscar la materia existente
         Subject subject = subjectRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("La materia con ID " + id + " no existe"));
         
-        // 3. Validar que el curso de la materia pertenezca al profesor autenticado
-        Course course = courseRepository.findById(subject.getCourseId())
-                .orElseThrow(() -> new IllegalArgumentException("El curso de la materia no existe"));
-        
-        if (!course.getProfessorId().equals(currentProfessorId)) {
-            throw new IllegalArgumentException("No puede eliminar materias de cursos de otros profesores");
-        }
+        // 2. Validar que el curso de la materia pertenezca al profesor autenticado
+        courseOwnershipValidator.validate(subject.getCourseId(), "No puede eliminar materias de cursos de otros profesores");
         
-        // 4. Eliminar materia (las relaciones se eliminan en cascada según la configuración de la entidad)
+        // 3. Eliminar materia (las relaciones se eliminan en cascada según la configuración de la entidad)
         subjectRepository.deleteById(id);
     }
     
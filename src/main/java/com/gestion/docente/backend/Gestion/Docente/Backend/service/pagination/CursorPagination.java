@@ -0,0 +1,128 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.pagination;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) de los listados.
+ * 
+ * A diferencia de la paginación con page/size, cada página se busca con una condición sobre
+ * la clave de orden (id, o fecha e id) del último elemento devuelto, así que el costo no crece
+ * con la profundidad y no se ejecuta un COUNT salvo que se pida con count=true.
+ * El cursor es opaco para el cliente: son los valores de la clave codificados en Base64.
+ */
+public final class CursorPagination {
+    
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    
+    private CursorPagination() {
+    }
+    
+    /**
+     * Clave de orden de un listado paginado por cursor.
+     */
+    public enum Keyset {
+        ID("id"),
+        DATE_ID("date", "id");
+        
+        private final List<String> properties;
+        
+        Keyset(String... properties) {
+            this.properties = List.of(properties);
+        }
+        
+        /**
+         * Orden ascendente por las propiedades de la clave.
+         */
+        public Sort sort() {
+            return Sort.by(Sort.Direction.ASC, properties.toArray(String[]::new));
+        }
+        
+        /**
+         * Convierte el cursor recibido en la posición desde donde seguir leyendo.
+         * Sin cursor (null o vacío) se empieza desde el principio.
+         */
+        public ScrollPosition position(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return ScrollPosition.keyset();
+            }
+            
+            String[] values;
+            try {
+                values = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split("\\|");
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("El cursor no es válido");
+            }
+            if (values.length != properties.size()) {
+                throw new IllegalArgumentException("El cursor no es válido");
+            }
+            
+            Map<String, Object> keys = new LinkedHashMap<>();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    String property = properties.get(i);
+                    keys.put(property, "date".equals(property) ? LocalDate.parse(values[i]) : Long.valueOf(values[i]));
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("El cursor no es válido");
+            }
+            return ScrollPosition.forward(keys);
+        }
+        
+        /**
+         * Codifica la posición de un elemento como cursor opaco.
+         */
+        public String cursor(ScrollPosition position) {
+            Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+            String value = properties.stream()
+                    .map(property -> String.valueOf(keys.get(property)))
+                    .collect(Collectors.joining("|"));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    /**
+     * Cantidad de elementos por página, acotada entre 1 y MAX_LIMIT.
+     */
+    public static Limit limit(Integer requested) {
+        if (requested == null) {
+            return Limit.of(DEFAULT_LIMIT);
+        }
+        return Limit.of(Math.max(1, Math.min(requested, MAX_LIMIT)));
+    }
+    
+    /**
+     * Arma la página de respuesta a partir del resultado de la consulta.
+     * 
+     * @param window Elementos leídos desde la posición pedida
+     * @param keyset Clave con la que se ordenó la consulta
+     * @param mapper Conversión de entidad a DTO
+     * @param count Consulta del total, o null si no se pidió
+     */
+    public static <E, D> CursorPageDTO<D> toPage(Window<E> window, Keyset keyset, Function<E, D> mapper,
+                                                 Supplier<Long> count) {
+        List<D> items = window.getContent().stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? keyset.cursor(window.positionAt(window.size() - 1))
+                : null;
+        Long total = count != null ? count.get() : null;
+        return new CursorPageDTO<>(items, nextCursor, nextCursor != null, total);
+    }
+}
@@ -0,0 +1,79 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escribe listados grandes como un arreglo JSON a medida que se leen las filas, en lugar de
+ * cargar todas las entidades y armar la lista completa antes de serializar.
+ * 
+ * La consulta se recorre con un cursor de solo avance dentro de una transacción de solo lectura
+ * (los Stream de Spring Data necesitan la conexión abierta) y cada entidad se separa del
+ * contexto de persistencia después de escribirla, así la memoria no crece con la cantidad de filas.
+ */
+@Component
+public class JsonArrayStreamer {
+    
+    // Cada cuántos elementos se vacía el buffer hacia el cliente
+    private static final int FLUSH_EVERY = 500;
+    
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public JsonArrayStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Escribe en out el arreglo JSON con los elementos de la consulta convertidos a DTO.
+     * 
+     * @param out Stream de salida de la respuesta
+     * @param query Consulta que devuelve las entidades (se ejecuta dentro de la transacción)
+     * @param mapper Conversión de entidad a DTO
+     */
+    public <E, D> void write(OutputStream out, Supplier<Stream<E>> query, Function<E, D> mapper) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<E> rows = query.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    // La respuesta cierra el stream de salida, el generador no
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    int written = 0;
+                    Iterator<E> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        E entity = iterator.next();
+                        generator.writeObject(mapper.apply(entity));
+                        entityManager.detach(entity);
+                        if (++written % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                    generator.writeEndArray();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Junta los cursos modificados durante una transacción e incrementa su versión una sola vez
+ * por curso, justo antes del commit y dentro de la misma transacción: los datos y la versión
+ * nueva se confirman juntos, o no se confirma ninguno. Si la versión no se puede incrementar
+ * falla la transacción, así el ETag y las cachés por versión nunca quedan atrás de los datos.
+ * 
+ * Las entidades de un curso lo avisan solas con CourseDataListener; los cambios que no pasan
+ * por esas entidades (por ejemplo, editar una escala de notas usada por el curso) se marcan
+ * llamando a markChanged desde el servicio.
+ */
+@Component
+public class CourseChangeTracker {
+    
+    private final CourseVersionCounter versionCounter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public CourseChangeTracker(CourseVersionCounter versionCounter) {
+        this.versionCounter = versionCounter;
+    }
+    
+    /**
+     * Marca el curso como modificado en la transacción actual.
+     * Sin transacción activa, la versión se incrementa en el momento.
+     */
+    public void markChanged(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            versionCounter.touch(List.of(courseId));
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> courseIds = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, courseIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Primero se escriben los cambios pendientes: sus listeners pueden marcar más cursos
+                    entityManager.flush();
+                    // En orden, para que dos transacciones que tocan los mismos cursos no se bloqueen mutuamente
+                    for (Long id : new TreeSet<>(courseIds)) {
+                        versionCounter.increment(id);
+                    }
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CourseChangeTracker.this);
+                }
+            });
+            pending = courseIds;
+        }
+        pending.add(courseId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Attendance;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.CourseSchedule;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.EvaluationType;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Student;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Subject;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA de las entidades que pertenecen a un curso: cualquier alta, modificación o baja
+ * marca el curso como modificado en CourseChangeTracker.
+ * 
+ * Hibernate lo crea a través de Spring; el tracker se resuelve recién en el primer uso porque
+ * el listener se instancia mientras se arma el EntityManagerFactory. Las actualizaciones masivas
+ * con consultas JPQL no pasan por acá y tienen que marcar el curso a mano.
+ */
+public class CourseDataListener {
+    
+    private final ObjectProvider<CourseChangeTracker> changeTracker;
+    
+    public CourseDataListener(ObjectProvider<CourseChangeTracker> changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        changeTracker.getObject().markChanged(courseIdOf(entity));
+    }
+    
+    private static Long courseIdOf(Object entity) {
+        if (entity instanceof Course course) {
+            return course.getId();
+        }
+        if (entity instanceof Grade grade) {
+            return grade.getCourseId();
+        }
+        if (entity instanceof Attendance attendance) {
+            return attendance.getCourseId();
+        }
+        if (entity instanceof Evaluation evaluation) {
+            return evaluation.getCourseId();
+        }
+        if (entity instanceof EvaluationType evaluationType) {
+            return evaluationType.getCourseId();
+        }
+        if (entity instanceof Student student) {
+            return student.getCourseId();
+        }
+        if (entity instanceof CourseSchedule schedule) {
+            return schedule.getCourseId();
+        }
+        if (entity instanceof Subject subject) {
+            return subject.getCourseId();
+        }
+        return null;
+    }
+}
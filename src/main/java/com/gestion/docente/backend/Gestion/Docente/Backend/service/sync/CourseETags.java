@@ -0,0 +1,73 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.CourseOwnershipValidator;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Respuestas condicionales (ETag / If-None-Match) de las lecturas de un curso.
+ * 
+ * El ETag es la versión actual del curso en course_versions, que cambia con cualquier escritura
+ * sobre sus notas, asistencias, evaluaciones, tipos, estudiantes u horarios. Si el cliente envía
+ * el mismo valor se responde 304 sin consultar notas ni asistencias ni recalcular promedios.
+ * Solo se lee el dueño del curso (ver CourseOwnershipValidator) y su versión.
+ * 
+ * La versión se lee antes que los datos: si entre medio se confirma una escritura, la respuesta
+ * trae datos nuevos con el ETag anterior y el cliente los vuelve a pedir en la próxima consulta.
+ */
+@Component
+public class CourseETags {
+    
+    /**
+     * Cache-Control de las respuestas con ETag: el navegador puede guardarlas pero tiene que
+     * revalidarlas siempre (sin esto, Spring Security responde con no-store).
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    private final CourseOwnershipValidator courseOwnershipValidator;
+    private final EvaluationRepository evaluationRepository;
+    private final CourseVersionCounter versionCounter;
+    
+    public CourseETags(
+            CourseOwnershipValidator courseOwnershipValidator,
+            EvaluationRepository evaluationRepository,
+            CourseVersionCounter versionCounter) {
+        this.courseOwnershipValidator = courseOwnershipValidator;
+        this.evaluationRepository = evaluationRepository;
+        this.versionCounter = versionCounter;
+    }
+    
+    /**
+     * Valida el ownership del curso y compara su ETag con If-None-Match.
+     * En ambos casos agrega el header ETag a la respuesta.
+     * 
+     * @return true si el cliente ya tiene la versión actual (la respuesta queda en 304)
+     */
+    public boolean checkNotModified(WebRequest request, Long courseId) {
+        validateCourseOwnership(courseId);
+        return request.checkNotModified(eTag(courseId));
+    }
+    
+    /**
+     * Igual que checkNotModified, para las lecturas de una evaluación (usa la versión de su curso).
+     */
+    public boolean checkNotModifiedForEvaluation(WebRequest request, Long evaluationId) {
+        Evaluation evaluation = evaluationRepository.findById(evaluationId)
+                .orElseThrow(() -> new IllegalArgumentException("La evaluación con ID " + evaluationId + " no existe"));
+        return checkNotModified(request, evaluation.getCourseId());
+    }
+    
+    /**
+     * ETag fuerte del curso en su versión actual, por ejemplo "c12-v345".
+     */
+    public String eTag(Long courseId) {
+        return "\"c" + courseId + "-v" + versionCounter.current(courseId) + "\"";
+    }
+    
+    private void validateCourseOwnership(Long courseId) {
+        courseOwnershipValidator.validate(courseId);
+    }
+}
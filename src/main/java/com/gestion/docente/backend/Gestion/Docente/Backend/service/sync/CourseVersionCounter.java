@@ -0,0 +1,91 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.CourseVersion;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Versión de los datos de cada curso (tabla course_versions).
+ * 
+ * El número sube con cada cambio en el curso: las entradas del registro de cambios de notas
+ * toman sus números de secuencia de acá (reserve) y CourseChangeTracker lo incrementa al final
+ * de cada transacción que modifica datos del curso (increment). Las respuestas condicionales usan
+ * el valor actual como ETag (ver CourseETags).
+ * 
+ * La fila queda bloqueada hasta el fin de la transacción que la incrementa, así una segunda
+ * escritura en el mismo curso espera a que la primera confirme: los números se hacen visibles
+ * en orden y un cliente que leyó hasta N nunca se pierde un cambio menor que N.
+ */
+@Component
+public class CourseVersionCounter {
+    
+    private final CourseVersionRepository courseVersionRepository;
+    
+    public CourseVersionCounter(CourseVersionRepository courseVersionRepository) {
+        this.courseVersionRepository = courseVersionRepository;
+    }
+    
+    /**
+     * Reserva count números de secuencia consecutivos para el curso.
+     * Debe llamarse dentro de la transacción que escribe los cambios.
+     * La fila del curso se crea antes de bloquearla (insertIfAbsent), así dos peticiones que
+     * escriben a la vez en un curso nuevo se ordenan en lugar de fallar.
+     * 
+     * @return Primer número reservado (los siguientes son consecutivos)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(Long courseId, int count) {
+        courseVersionRepository.insertIfAbsent(courseId);
+        CourseVersion version = courseVersionRepository.findForUpdate(courseId)
+                .orElseThrow(() -> new IllegalStateException("No se pudo crear la versión del curso " + courseId));
+        long first = version.getVersion() + 1;
+        version.setVersion(version.getVersion() + count);
+        return first;
+    }
+    
+    /**
+     * Bloquea la fila del curso hasta el fin de la transacción, sin cambiar la versión.
+     * Las escrituras de notas lo llaman antes de escribir: así las del mismo curso se ejecutan
+     * de a una y los recálculos que leen las notas no esperan filas sin confirmar de otra escritura.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long courseId) {
+        reserve(courseId, 0);
+    }
+    
+    /**
+     * Incrementa la versión del curso dentro de la transacción que escribe los cambios,
+     * así la versión nueva se hace visible recién junto con los datos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increment(Long courseId) {
+        reserve(courseId, 1);
+    }
+    
+    /**
+     * Incrementa en una transacción propia la versión de los cursos indicados.
+     * Es para cambios hechos fuera de una transacción, que ya quedaron confirmados.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void touch(Collection<Long> courseIds) {
+        // En orden, para que dos transacciones que tocan los mismos cursos no se bloqueen mutuamente
+        for (Long courseId : new TreeSet<>(courseIds)) {
+            reserve(courseId, 1);
+        }
+    }
+    
+    /**
+     * @return Último número de secuencia asignado en el curso (0 si nunca tuvo cambios registrados)
+     */
+    @Transactional(readOnly = true)
+    public long current(Long courseId) {
+        return courseVersionRepository.findById(courseId)
+                .map(CourseVersion::getVersion)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,179 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.GradeChange;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeChangeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Registro de cambios de notas por curso (tabla grade_changes), para que los clientes
+ * mantengan una copia local de las notas y pidan solo lo que cambió.
+ * 
+ * Los servicios que crean, modifican o eliminan notas registran el cambio en la misma
+ * transacción. Cada entrada lleva el siguiente número de secuencia del curso (ver
+ * CourseVersionCounter), que es también el cursor que se devuelve a los clientes.
+ */
+@Component
+@Transactional
+public class GradeChangeLog {
+    
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 5000;
+    
+    private final GradeChangeRepository gradeChangeRepository;
+    private final GradeRepository gradeRepository;
+    private final CourseVersionCounter versionCounter;
+    
+    public GradeChangeLog(
+            GradeChangeRepository gradeChangeRepository,
+            GradeRepository gradeRepository,
+            CourseVersionCounter versionCounter) {
+        this.gradeChangeRepository = gradeChangeRepository;
+        this.gradeRepository = gradeRepository;
+        this.versionCounter = versionCounter;
+    }
+    
+    /**
+     * Registra el alta o modificación de notas del curso, con sus valores actuales.
+     * Las notas ya deben estar guardadas (con ID).
+     */
+    public void recordUpserts(Long courseId, Collection<Grade> grades) {
+        record(courseId, grades, GradeChange.UPSERT);
+    }
+    
+    /**
+     * Registra la eliminación de notas del curso.
+     */
+    public void recordDeletes(Long courseId, Collection<Grade> grades) {
+        record(courseId, grades, GradeChange.DELETE);
+    }
+    
+    private void record(Long courseId, Collection<Grade> grades, String operation) {
+        if (grades.isEmpty()) {
+            return;
+        }
+        long sequence = versionCounter.reserve(courseId, grades.size());
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<GradeChange> changes = new ArrayList<>(grades.size());
+        for (Grade grade : grades) {
+            GradeChange change = new GradeChange();
+            change.setCourseId(courseId);
+            change.setSequence(sequence++);
+            change.setOperation(operation);
+            change.setGradeId(grade.getId());
+            change.setStudentId(grade.getStudentId());
+            change.setEvaluationId(grade.getEvaluationId());
+            if (GradeChange.UPSERT.equals(operation)) {
+                change.setGrade(grade.getGrade());
+                change.setGradeValue(grade.getGradeValue());
+            }
+            change.setChangedAt(now);
+            changes.add(change);
+        }
+        gradeChangeRepository.saveAll(changes);
+    }
+    
+    /**
+     * Devuelve los cambios del curso posteriores a since, o todas las notas actuales si since es null.
+     * El ownership del curso lo valida quien llama.
+     * 
+     * @param since Cursor devuelto por una llamada anterior (null = foto completa)
+     * @param limit Cantidad máxima de entradas del registro a leer (null = 1000, máximo 5000)
+     */
+    @Transactional(readOnly = true)
+    public GradeChangesDTO changesSince(Long courseId, String since, Integer limit) {
+        GradeChangesDTO result = new GradeChangesDTO();
+        result.setCourseId(courseId);
+        
+        if (since == null || since.isBlank()) {
+            // El cursor se lee antes que las notas: si entre medio se confirma otra escritura,
+            // la nota ya viene actualizada y el mismo cambio se vuelve a recibir después (es idempotente)
+            long current = versionCounter.current(courseId);
+            result.setSnapshot(true);
+            result.setChanges(gradeRepository.findByCourseId(courseId).stream()
+                    .map(GradeChangeLog::snapshotOf)
+                    .collect(Collectors.toList()));
+            result.setCursor(String.valueOf(current));
+            result.setHasMore(false);
+            return result;
+        }
+        
+        long position = parseCursor(since);
+        if (position > versionCounter.current(courseId)) {
+            throw new IllegalArgumentException("El cursor no es válido");
+        }
+        int max = limit(limit);
+        List<GradeChange> entries = gradeChangeRepository
+                .findByCourseIdAndSequenceGreaterThanOrderBySequenceAsc(courseId, position, Limit.of(max + 1));
+        boolean hasMore = entries.size() > max;
+        if (hasMore) {
+            entries = entries.subList(0, max);
+        }
+        
+        // Si una nota cambió varias veces, alcanza con su último estado (en el orden de ese último cambio)
+        Map<Long, GradeChange> latest = new LinkedHashMap<>();
+        for (GradeChange entry : entries) {
+            latest.remove(entry.getGradeId());
+            latest.put(entry.getGradeId(), entry);
+        }
+        
+        result.setSnapshot(false);
+        result.setChanges(latest.values().stream()
+                .map(GradeChangeLog::toDTO)
+                .collect(Collectors.toList()));
+        result.setCursor(entries.isEmpty() ? String.valueOf(position)
+                : String.valueOf(entries.get(entries.size() - 1).getSequence()));
+        result.setHasMore(hasMore);
+        return result;
+    }
+    
+    private static long parseCursor(String cursor) {
+        try {
+            long position = Long.parseLong(cursor.trim());
+            if (position < 0) {
+                throw new IllegalArgumentException("El cursor no es válido");
+            }
+            return position;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El cursor no es válido");
+        }
+    }
+    
+    private static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+    
+    private static GradeChangeDTO snapshotOf(Grade grade) {
+        GradeChangeDTO dto = new GradeChangeDTO();
+        dto.setOperation(GradeChange.UPSERT);
+        dto.setGradeId(grade.getId());
+        dto.setStudentId(grade.getStudentId());
+        dto.setEvaluationId(grade.getEvaluationId());
+        dto.setGrade(grade.getGrade());
+        dto.setGradeValue(grade.getGradeValue());
+        return dto;
+    }
+    
+    private static GradeChangeDTO toDTO(GradeChange change) {
+        return new GradeChangeDTO(change.getSequence(), change.getOperation(), change.getGradeId(),
+                change.getStudentId(), change.getEvaluationId(), change.getGrade(), change.getGradeValue(),
+                change.getChangedAt());
+    }
+}
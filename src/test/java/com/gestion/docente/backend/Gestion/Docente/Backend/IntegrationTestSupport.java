@@ -0,0 +1,122 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationTypeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.ProfessorRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.ProfessorPrincipal;
+import com.gestion.docente.backend.Gestion.Docente.Backend.security.ProfessorSnapshot;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.EvaluationTypeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.GradeService;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Base de los tests de integración de servicios: contexto completo sobre H2 en memoria
+ * (perfil test) y un profesor autenticado en el SecurityContext, como lo deja JwtAuthenticationFilter.
+ * 
+ * Los tests no son transaccionales, así corren los recálculos y las versiones que se hacen al
+ * confirmar. Cada test crea su propio profesor y sus cursos, por lo que no comparten datos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+    
+    @Autowired
+    protected ProfessorRepository professorRepository;
+    
+    @Autowired
+    protected CourseService courseService;
+    
+    @Autowired
+    protected StudentService studentService;
+    
+    @Autowired
+    protected EvaluationTypeService evaluationTypeService;
+    
+    @Autowired
+    protected EvaluationService evaluationService;
+    
+    @Autowired
+    protected GradeService gradeService;
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    /**
+     * Crea un profesor y lo deja autenticado.
+     */
+    protected Professor loginAsNewProfessor() {
+        Professor professor = new Professor();
+        professor.setName("Profe");
+        professor.setLastname("Test");
+        professor.setEmail(UUID.randomUUID() + "@test.com");
+        professor.setPassword("x");
+        professor.setEmailVerified(true);
+        loginAs(professorRepository.save(professor));
+        return professor;
+    }
+    
+    protected void loginAs(Professor professor) {
+        ProfessorPrincipal principal = new ProfessorPrincipal(ProfessorSnapshot.of(professor));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    protected Long createCourse() {
+        CourseDTO course = new CourseDTO();
+        course.setName("Curso");
+        course.setSchool("Escuela");
+        return courseService.createCourse(course).getId();
+    }
+    
+    protected Long createStudent(Long courseId, String firstName) {
+        StudentDTO student = new StudentDTO();
+        student.setFirstName(firstName);
+        student.setLastName("Test");
+        student.setCourseId(courseId);
+        return studentService.addStudentToCourse(student).getId();
+    }
+    
+    protected Long createEvaluationType(Long courseId, String nombre, Double weight) {
+        EvaluationTypeDTO type = new EvaluationTypeDTO();
+        type.setNombre(nombre);
+        type.setCourseId(courseId);
+        type.setWeight(weight);
+        return evaluationTypeService.createEvaluationType(type).getId();
+    }
+    
+    protected Long createEvaluation(Long courseId, String nombre, Long evaluationTypeId) {
+        EvaluationDTO evaluation = new EvaluationDTO();
+        evaluation.setNombre(nombre);
+        evaluation.setDate(LocalDate.of(2026, 5, 1));
+        evaluation.setTipo("examen");
+        evaluation.setEvaluationTypeId(evaluationTypeId);
+        evaluation.setCourseId(courseId);
+        return evaluationService.addEvaluation(evaluation).getId();
+    }
+    
+    protected GradeDTO setGrade(Long courseId, Long studentId, Long evaluationId, Double value) {
+        GradeDTO grade = new GradeDTO();
+        grade.setCourseId(courseId);
+        grade.setStudentId(studentId);
+        grade.setEvaluationId(evaluationId);
+        grade.setGrade(value);
+        return gradeService.setGrade(grade);
+    }
+}
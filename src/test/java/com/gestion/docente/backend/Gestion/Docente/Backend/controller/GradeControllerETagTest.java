@@ -0,0 +1,78 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.controller;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class GradeControllerETagTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    @Test
+    void answersAMatchingIfNoneMatchWith304UntilTheCourseChanges() throws Exception {
+        Professor professor = loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        setGrade(courseId, ana, p1, 8.0);
+        String url = "/api/grades/course/" + courseId + "/averages";
+        String token = bearer(professor);
+        
+        MvcResult first = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        // Una escritura en el curso cambia la versión: el ETag anterior ya no coincide
+        // (MockMvc limpia el SecurityContext al terminar cada petición)
+        loginAs(professor);
+        setGrade(courseId, ana, p1, 9.0);
+        MvcResult changed = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(eTag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+    
+    @Test
+    void doesNotAnswer304ForAnotherProfessorsCourse() throws Exception {
+        Professor owner = loginAsNewProfessor();
+        Long courseId = createCourse();
+        String url = "/api/grades/course/" + courseId + "/averages";
+        String eTag = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        Professor other = loginAsNewProfessor();
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer(other))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn();
+        assertEquals(404, result.getResponse().getStatus());
+    }
+    
+    private String bearer(Professor professor) {
+        return "Bearer " + jwtService.generateToken(professor.getId(), professor.getEmail(), professor.getRole().name());
+    }
+}
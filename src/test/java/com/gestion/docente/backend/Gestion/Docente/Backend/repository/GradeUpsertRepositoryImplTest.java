@@ -0,0 +1,184 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GradeUpsertRepositoryImplTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Test
+    void concurrentWritesOfTheSameCellKeepASingleRow() throws Exception {
+        Professor professor = loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> ids = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                double value = i + 1;
+                ids.add(executor.submit(() -> {
+                    loginAs(professor);
+                    start.await();
+                    return setGrade(courseId, ana, p1, value).getId();
+                }));
+            }
+            start.countDown();
+            Long first = ids.get(0).get();
+            for (Future<Long> id : ids) {
+                assertEquals(first, id.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // La base usa el upsert nativo, no el respaldo de JPA
+        assertEquals("H2", String.valueOf(ReflectionTestUtils.getField(
+                applicationContext.getBean(GradeUpsertRepositoryImpl.class), "mode")));
+        assertEquals(1, gradeRepository.findByEvaluationId(p1).size());
+    }
+    
+    @Test
+    void jpaFallbackCreatesThenUpdatesTheSameRow() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        
+        // Como una base sin el índice único: búsqueda y guardado de JPA
+        GradeUpsertRepositoryImpl fallback = new GradeUpsertRepositoryImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(fallback, "entityManager", entityManager);
+        ReflectionTestUtils.setField(fallback, "mode", jpaMode());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        
+        Long created = transaction.execute(status -> fallback.upsert(grade(courseId, ana, p1, 5.0)).getId());
+        assertNotNull(created);
+        Long updated = transaction.execute(status -> fallback.upsert(grade(courseId, ana, p1, 7.5)).getId());
+        assertEquals(created, updated);
+        
+        List<Grade> rows = gradeRepository.findByEvaluationId(p1);
+        assertEquals(1, rows.size());
+        assertEquals(7.5, rows.get(0).getGrade());
+    }
+    
+    @Test
+    void nativeUpsertReturnsTheExistingRowId() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        
+        Long created = transaction.execute(status -> gradeRepository.upsert(grade(courseId, ana, p1, 4.0)).getId());
+        Grade replacement = grade(courseId, ana, p1, null);
+        replacement.setGradeValue("MB");
+        Long updated = transaction.execute(status -> gradeRepository.upsert(replacement).getId());
+        
+        assertEquals(created, updated);
+        Grade row = gradeRepository.findByStudentIdAndEvaluationId(ana, p1).orElseThrow();
+        assertEquals("MB", row.getGradeValue());
+        assertNull(row.getGrade());
+    }
+    
+    @Test
+    void aNumericOnlyWriteKeepsTheCategoricalValue() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        Long p2 = createEvaluation(courseId, "P2", createEvaluationType(courseId, "TP", null));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        
+        GradeUpsertRepositoryImpl fallback = new GradeUpsertRepositoryImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(fallback, "entityManager", entityManager);
+        ReflectionTestUtils.setField(fallback, "mode", jpaMode());
+        
+        for (Long evaluationId : List.of(p1, p2)) {
+            // P1 con el upsert nativo y P2 con el respaldo de JPA
+            GradeUpsertRepository repository = evaluationId.equals(p1) ? gradeRepository : fallback;
+            Grade categorical = grade(courseId, ana, evaluationId, null);
+            categorical.setGradeValue("MB");
+            transaction.execute(status -> repository.upsert(categorical));
+            
+            Grade numeric = transaction.execute(status -> repository.upsert(grade(courseId, ana, evaluationId, 8.0)));
+            assertEquals("MB", numeric.getGradeValue());
+            Grade row = gradeRepository.findByStudentIdAndEvaluationId(ana, evaluationId).orElseThrow();
+            assertEquals("MB", row.getGradeValue());
+            assertEquals(8.0, row.getGrade());
+        }
+    }
+    
+    @Test
+    void theFallbackIsRecheckedOnceTheRecheckIsDue() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        
+        // Como si al arrancar faltara el índice y ya se hubiera creado
+        GradeUpsertRepositoryImpl repository = new GradeUpsertRepositoryImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        ReflectionTestUtils.setField(repository, "mode", jpaMode());
+        ReflectionTestUtils.setField(repository, "recheckAt", System.nanoTime() - 1);
+        
+        new TransactionTemplate(transactionManager).execute(status -> repository.upsert(grade(courseId, ana, p1, 6.0)));
+        assertEquals("H2", String.valueOf(ReflectionTestUtils.getField(repository, "mode")));
+        assertNull(ReflectionTestUtils.getField(repository, "recheckAt"));
+    }
+    
+    private static Grade grade(Long courseId, Long studentId, Long evaluationId, Double value) {
+        Grade grade = new Grade();
+        grade.setCourseId(courseId);
+        grade.setStudentId(studentId);
+        grade.setEvaluationId(evaluationId);
+        grade.setGrade(value);
+        return grade;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object jpaMode() {
+        for (Class<?> nested : GradeUpsertRepositoryImpl.class.getDeclaredClasses()) {
+            if (nested.isEnum() && nested.getSimpleName().equals("Mode")) {
+                return Enum.valueOf((Class) nested, "JPA");
+            }
+        }
+        throw new IllegalStateException("GradeUpsertRepositoryImpl.Mode no existe");
+    }
+}
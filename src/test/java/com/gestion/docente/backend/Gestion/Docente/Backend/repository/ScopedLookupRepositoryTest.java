@@ -0,0 +1,80 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.repository;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScopedLookupRepositoryTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Test
+    void lookupsOnlyFindRowsOfTheProfessorsCourses() {
+        Professor owner = loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "Parcial", createEvaluationType(courseId, "Parciales", 1.0));
+        Long gradeId = setGrade(courseId, studentId, evaluationId, 7.0).getId();
+        Professor other = loginAsNewProfessor();
+        
+        assertEquals(evaluationId, evaluationRepository.findByIdAndProfessorId(evaluationId, owner.getId()).orElseThrow().getId());
+        assertEquals(studentId, studentRepository.findByIdAndProfessorId(studentId, owner.getId()).orElseThrow().getId());
+        assertEquals(gradeId, gradeRepository.findByIdAndProfessorId(gradeId, owner.getId()).orElseThrow().getId());
+        
+        assertTrue(evaluationRepository.findByIdAndProfessorId(evaluationId, other.getId()).isEmpty());
+        assertTrue(studentRepository.findByIdAndProfessorId(studentId, other.getId()).isEmpty());
+        assertTrue(gradeRepository.findByIdAndProfessorId(gradeId, other.getId()).isEmpty());
+    }
+    
+    @Test
+    void servicesTellDeniedRowsFromMissingOnesAndLeaveThemUntouched() {
+        Professor owner = loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "Parcial", createEvaluationType(courseId, "Parciales", 1.0));
+        Long gradeId = setGrade(courseId, studentId, evaluationId, 7.0).getId();
+        
+        loginAsNewProfessor();
+        assertMessage("No tiene acceso a este curso", () -> gradeService.getGradesByEvaluation(evaluationId));
+        assertMessage("No tiene acceso a este curso", () -> evaluationService.deleteEvaluation(evaluationId));
+        assertMessage("No tiene acceso a este curso", () -> gradeService.updateGrade(gradeId, grade(2.0)));
+        assertMessage("No puede eliminar estudiantes de cursos de otros profesores",
+                () -> studentService.removeStudent(studentId));
+        
+        assertMessage("La evaluación con ID " + Long.MAX_VALUE + " no existe",
+                () -> gradeService.getGradesByEvaluation(Long.MAX_VALUE));
+        assertMessage("La nota con ID " + Long.MAX_VALUE + " no existe",
+                () -> gradeService.updateGrade(Long.MAX_VALUE, grade(2.0)));
+        assertMessage("El estudiante con ID " + Long.MAX_VALUE + " no existe",
+                () -> studentService.removeStudent(Long.MAX_VALUE));
+        
+        loginAs(owner);
+        assertTrue(studentRepository.existsById(studentId));
+        assertEquals(7.0, gradeService.getGradesByEvaluation(evaluationId).get(0).getGrade());
+    }
+    
+    private static GradeDTO grade(Double value) {
+        GradeDTO grade = new GradeDTO();
+        grade.setGrade(value);
+        return grade;
+    }
+    
+    private static void assertMessage(String expected, Executable call) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, call);
+        assertEquals(expected, error.getMessage());
+    }
+}
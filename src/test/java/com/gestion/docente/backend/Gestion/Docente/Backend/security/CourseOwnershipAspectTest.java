@@ -0,0 +1,71 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CourseOwnershipAspectTest {
+    
+    private final CourseOwnershipValidator validator = mock(CourseOwnershipValidator.class);
+    private final Target instance = new Target();
+    private final Target target = proxy(instance);
+    
+    @Test
+    void validatesTheCourseParameterBeforeTheMethod() {
+        assertEquals("ok", target.read(5L, 7L));
+        verify(validator).validate(5L);
+        
+        assertEquals("ok", target.readNamed(3L, 9L));
+        verify(validator).validate(9L);
+    }
+    
+    @Test
+    void deniedCoursesNeverReachTheMethod() {
+        doThrow(new IllegalArgumentException("No tiene acceso a este curso")).when(validator).validate(5L);
+        
+        IllegalArgumentException denied = assertThrows(IllegalArgumentException.class, () -> target.read(5L, 7L));
+        assertEquals("No tiene acceso a este curso", denied.getMessage());
+        assertEquals(0, instance.calls);
+    }
+    
+    @Test
+    void failsWhenTheAnnotatedParameterDoesNotExist() {
+        assertThrows(IllegalStateException.class, () -> target.misconfigured(5L));
+        verify(validator, never()).validate(any());
+    }
+    
+    private Target proxy(Target instance) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(instance);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CourseOwnershipAspect(validator));
+        return factory.getProxy();
+    }
+    
+    static class Target {
+        
+        private int calls;
+        
+        @RequiresCourseOwnership
+        public String read(Long courseId, Long other) {
+            calls++;
+            return "ok";
+        }
+        
+        @RequiresCourseOwnership("otherCourseId")
+        public String readNamed(Long courseId, Long otherCourseId) {
+            return "ok";
+        }
+        
+        @RequiresCourseOwnership
+        public String misconfigured(Long id) {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.CourseScheduleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseOwnershipValidatorTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private CourseOwnershipValidator validator;
+    
+    @Autowired
+    private CourseScheduleService courseScheduleService;
+    
+    @Test
+    void annotatedServiceMethodsRejectOtherProfessorsAndMissingCourses() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        assertTrue(courseScheduleService.getSchedulesByCourse(courseId).isEmpty());
+        
+        loginAsNewProfessor();
+        IllegalArgumentException denied = assertThrows(IllegalArgumentException.class,
+                () -> courseScheduleService.getSchedulesByCourse(courseId));
+        assertEquals("No tiene acceso a este curso", denied.getMessage());
+        
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> courseScheduleService.getSchedulesByCourse(Long.MAX_VALUE));
+        assertEquals("El curso con ID " + Long.MAX_VALUE + " no existe", missing.getMessage());
+    }
+    
+    @Test
+    void validateUsesTheGivenDenialMessageAndRequiresACourse() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        validator.validate(courseId);
+        
+        loginAsNewProfessor();
+        IllegalArgumentException denied = assertThrows(IllegalArgumentException.class,
+                () -> validator.validate(courseId, "No puede ver cursos de otros profesores"));
+        assertEquals("No puede ver cursos de otros profesores", denied.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(null));
+    }
+}
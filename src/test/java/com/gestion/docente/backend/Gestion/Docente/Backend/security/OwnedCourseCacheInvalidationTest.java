@@ -0,0 +1,88 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.SubjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OwnedCourseCacheInvalidationTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private OwnedCourseCache ownedCourseCache;
+    
+    @Autowired
+    private CourseOwnershipValidator validator;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void creatingACourseInvalidatesTheProfessorsSet() {
+        Professor professor = loginAsNewProfessor();
+        Long first = createCourse();
+        assertTrue(ownedCourseCache.owns(professor.getId(), first));
+        
+        Long second = createCourse();
+        assertTrue(ownedCourseCache.owns(professor.getId(), second));
+    }
+    
+    @Test
+    void aSetLoadedBeforeTheCommitIsEvictedAfterIt() {
+        Professor professor = loginAsNewProfessor();
+        Long courseId = createCourse();
+        
+        // Como deleteCourse: se elimina el curso e invalida el conjunto en la misma transacción,
+        // y mientras tanto otro hilo carga el conjunto con el curso todavía confirmado
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            subjectRepository.deleteAll(subjectRepository.findByCourseId(courseId));
+            courseRepository.deleteById(courseId);
+            courseRepository.flush();
+            ownedCourseCache.invalidate(professor.getId());
+            
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                assertTrue(executor.submit(() -> ownedCourseCache.owns(professor.getId(), courseId)).get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                executor.shutdown();
+            }
+        });
+        
+        assertFalse(ownedCourseCache.owns(professor.getId(), courseId));
+    }
+    
+    @Test
+    void aStaleSetIsConfirmedWithTheDatabaseAndRefreshed() {
+        Professor professor = loginAsNewProfessor();
+        assertTrue(ownedCourseCache.owns(professor.getId(), createCourse()));
+        
+        // Curso creado sin pasar por CourseServiceImpl: el conjunto en caché no lo tiene
+        Course course = new Course();
+        course.setName("Directo");
+        course.setSchool("Escuela");
+        course.setProfessorId(professor.getId());
+        Long courseId = courseRepository.save(course).getId();
+        assertFalse(ownedCourseCache.owns(professor.getId(), courseId));
+        
+        validator.validate(courseId);
+        assertTrue(ownedCourseCache.owns(professor.getId(), courseId));
+    }
+}
@@ -0,0 +1,55 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.security;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OwnedCourseCacheTest {
+    
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final OwnedCourseCache cache = new OwnedCourseCache(courseRepository, 2, 300);
+    
+    @Test
+    void loadsEachProfessorOnceUntilInvalidated() {
+        when(courseRepository.findIdsByProfessorId(1L)).thenReturn(List.of(10L, 11L));
+        
+        assertTrue(cache.owns(1L, 10L));
+        assertFalse(cache.owns(1L, 12L));
+        verify(courseRepository, times(1)).findIdsByProfessorId(1L);
+        
+        when(courseRepository.findIdsByProfessorId(1L)).thenReturn(List.of(10L, 11L, 12L));
+        cache.invalidate(1L);
+        assertTrue(cache.owns(1L, 12L));
+        verify(courseRepository, times(2)).findIdsByProfessorId(1L);
+        
+        assertEquals(2L, cache.getStats().getMisses());
+        assertEquals(1L, cache.getStats().getHits());
+        assertEquals(1L, cache.getStats().getInvalidations());
+    }
+    
+    @Test
+    void dropsTheOldestProfessorWhenFull() {
+        when(courseRepository.findIdsByProfessorId(1L)).thenReturn(List.of(10L));
+        when(courseRepository.findIdsByProfessorId(2L)).thenReturn(List.of(20L));
+        when(courseRepository.findIdsByProfessorId(3L)).thenReturn(List.of(30L));
+        
+        cache.owns(1L, 10L);
+        cache.owns(2L, 20L);
+        cache.owns(3L, 30L);
+        assertEquals(2, cache.getStats().getProfessors());
+        
+        cache.owns(2L, 20L);
+        verify(courseRepository, times(1)).findIdsByProfessorId(2L);
+        cache.owns(1L, 10L);
+        verify(courseRepository, times(2)).findIdsByProfessorId(1L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JwtService.verify sin caché (se parsea y se verifica la firma en cada llamada)
+ * contra un acierto en la caché de tokens verificados.
+ * 
+ * No corre con mvn test. Para ejecutarlo:
+ * 
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.gestion.docente.backend.Gestion.Docente.Backend.service.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    
+    private static final String SECRET = "UnaClaveDePruebaSuficientementeLargaParaFirmarTokensConHS512EnLosTestsDeJwtService";
+    
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        uncached = service(0);
+        cached = service(10000);
+        token = cached.generateToken(7L, "ana@x.com", "PROFESSOR");
+        cached.verify(token);
+    }
+    
+    @Benchmark
+    public VerifiedClaims coldVerify() {
+        return uncached.verify(token);
+    }
+    
+    @Benchmark
+    public VerifiedClaims cachedVerify() {
+        return cached.verify(token);
+    }
+    
+    private static JwtService service(int maxEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "expiration", 3600L);
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxEntries", maxEntries);
+        return service;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+    
+    private static final String SECRET = "UnaClaveDePruebaSuficientementeLargaParaFirmarTokensConHS512EnLosTestsDeJwtService";
+    
+    private JwtService jwtService;
+    
+    @BeforeEach
+    void setUp() {
+        jwtService = service(3600L, 10);
+    }
+    
+    @Test
+    void verifyParsesTheClaimsOnceAndReusesThem() {
+        String token = jwtService.generateToken(7L, "ana@x.com", "ADMIN");
+        
+        VerifiedClaims claims = jwtService.verify(token);
+        assertEquals(7L, claims.getProfessorId());
+        assertEquals("ana@x.com", claims.getEmail());
+        assertEquals("ADMIN", claims.getRole());
+        assertFalse(claims.isExpired(System.currentTimeMillis()));
+        
+        assertSame(claims, jwtService.verify(token));
+        assertTrue(jwtService.validateToken(token));
+    }
+    
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = jwtService.generateToken(7L, "ana@x.com", "PROFESSOR");
+        jwtService.verify(token);
+        
+        // Otra firma: no coincide con la entrada en caché y falla la verificación
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertNull(jwtService.verify(tampered));
+        
+        JwtService expired = service(-1L, 10);
+        assertNull(expired.verify(expired.generateToken(7L, "ana@x.com", "PROFESSOR")));
+    }
+    
+    @Test
+    void evictsTheLeastRecentlyUsedToken() {
+        JwtService small = service(3600L, 1);
+        String first = small.generateToken(1L, "a@x.com", "PROFESSOR");
+        String second = small.generateToken(2L, "b@x.com", "PROFESSOR");
+        
+        VerifiedClaims firstClaims = small.verify(first);
+        small.verify(second);
+        
+        VerifiedClaims again = small.verify(first);
+        assertNotSame(firstClaims, again);
+        assertEquals(1L, again.getProfessorId());
+    }
+    
+    private static JwtService service(long expirationSeconds, int maxEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "expiration", expirationSeconds);
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxEntries", maxEntries);
+        return service;
+    }
+}
@@ -0,0 +1,132 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.autosave;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeAutosaveStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.autosave.GradeWriteBuffer.Batch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeWriteBufferTest {
+    
+    private static final Long COURSE = 1L;
+    private static final Long PROFESSOR = 7L;
+    
+    private final GradeWriteBuffer buffer = new GradeWriteBuffer(3, 2, 2);
+    
+    @Test
+    void coalescesWritesToTheSameCellKeepingTheLast() {
+        assertEquals(1, buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 5.0)));
+        assertEquals(2, buffer.accept(COURSE, PROFESSOR, grade(11L, 20L, 6.0)));
+        assertEquals(3, buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 7.0)));
+        
+        Batch batch = buffer.drain(COURSE);
+        assertEquals(PROFESSOR, batch.getProfessorId());
+        List<GradeDTO> grades = batch.getGrades();
+        assertEquals(2, grades.size());
+        assertEquals(11L, grades.get(0).getStudentId());
+        assertEquals(10L, grades.get(1).getStudentId());
+        assertEquals(7.0, grades.get(1).getGrade());
+        assertEquals(COURSE, grades.get(1).getCourseId());
+    }
+    
+    @Test
+    void acceptedWritesAreNotAppliedUntilTheBatchCompletes() {
+        buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 5.0));
+        buffer.accept(COURSE, PROFESSOR, grade(11L, 20L, 6.0));
+        Batch batch = buffer.drain(COURSE);
+        
+        // Recibida durante el guardado: queda fuera del lote
+        long later = buffer.accept(COURSE, PROFESSOR, grade(12L, 20L, 8.0));
+        GradeAutosaveStatusDTO status = buffer.status(COURSE);
+        assertEquals(0L, status.getAppliedThrough());
+        assertEquals(3, status.getPending());
+        assertNull(buffer.drain(COURSE));
+        
+        buffer.complete(batch, Arrays.asList(null, "El estudiante con ID 11 no pertenece al curso con ID 1"));
+        status = buffer.status(COURSE);
+        assertEquals(2L, status.getAppliedThrough());
+        assertEquals(later, status.getAcceptedThrough());
+        assertEquals(1, status.getPending());
+        assertEquals(1, status.getFailures().size());
+        assertEquals(2L, status.getFailures().get(0).getSequence());
+        
+        buffer.complete(buffer.drain(COURSE), Arrays.asList((String) null));
+        assertEquals(later, buffer.status(COURSE).getAppliedThrough());
+    }
+    
+    @Test
+    void failedBatchIsRestoredUnlessTheCellWasWrittenAgain() {
+        buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 5.0));
+        buffer.accept(COURSE, PROFESSOR, grade(11L, 20L, 6.0));
+        Batch batch = buffer.drain(COURSE);
+        buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 9.0));
+        
+        assertTrue(buffer.fail(batch, "Sin conexión"));
+        GradeAutosaveStatusDTO status = buffer.status(COURSE);
+        assertEquals(0L, status.getAppliedThrough());
+        assertEquals("Sin conexión", status.getLastError());
+        
+        List<GradeDTO> retried = buffer.drain(COURSE).getGrades();
+        assertEquals(2, retried.size());
+        assertEquals(11L, retried.get(0).getStudentId());
+        assertEquals(9.0, retried.get(1).getGrade());
+    }
+    
+    @Test
+    void rejectsTheBatchAfterTooManyFailedAttempts() {
+        buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 5.0));
+        buffer.accept(COURSE, PROFESSOR, grade(11L, 20L, 6.0));
+        assertTrue(buffer.fail(buffer.drain(COURSE), "Sin conexión"));
+        
+        Batch batch = buffer.drain(COURSE);
+        long later = buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 9.0));
+        assertFalse(buffer.fail(batch, "Sin conexión"));
+        
+        // La celda reescrita durante el guardado no se rechaza: queda pendiente la escritura nueva
+        GradeAutosaveStatusDTO status = buffer.status(COURSE);
+        assertEquals(2L, status.getAppliedThrough());
+        assertEquals(1, status.getPending());
+        assertEquals(1, status.getFailures().size());
+        assertEquals(11L, status.getFailures().get(0).getStudentId());
+        assertEquals("No se pudo guardar después de 2 intentos: Sin conexión", status.getFailures().get(0).getError());
+        
+        // El contador se reinicia: el siguiente fallo vuelve a reintentarse
+        assertTrue(buffer.fail(buffer.drain(COURSE), "Sin conexión"));
+        buffer.complete(buffer.drain(COURSE), Arrays.asList((String) null));
+        assertEquals(later, buffer.status(COURSE).getAppliedThrough());
+    }
+    
+    @Test
+    void rejectsNewCellsOverThePendingLimit() {
+        buffer.accept(COURSE, PROFESSOR, grade(10L, 20L, 5.0));
+        buffer.accept(COURSE, PROFESSOR, grade(11L, 20L, 5.0));
+        buffer.accept(COURSE, PROFESSOR, grade(12L, 20L, 5.0));
+        
+        // Reescribir una celda pendiente no suma
+        buffer.accept(COURSE, PROFESSOR, grade(12L, 20L, 6.0));
+        assertThrows(IllegalArgumentException.class, () -> buffer.accept(COURSE, PROFESSOR, grade(13L, 20L, 5.0)));
+    }
+    
+    @Test
+    void epochIdentifiesTheInstance() {
+        assertNotEquals(buffer.getEpoch(), new GradeWriteBuffer(3, 2, 2).getEpoch());
+        assertEquals(0L, buffer.status(COURSE).getAppliedThrough());
+    }
+    
+    private static GradeDTO grade(Long studentId, Long evaluationId, Double value) {
+        GradeDTO grade = new GradeDTO();
+        grade.setStudentId(studentId);
+        grade.setEvaluationId(evaluationId);
+        grade.setGrade(value);
+        return grade;
+    }
+}
@@ -0,0 +1,67 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseGradebookCacheTest {
+    
+    private final CourseGradebookLoader loader = mock(CourseGradebookLoader.class);
+    private final CourseVersionCounter versionCounter = mock(CourseVersionCounter.class);
+    private final CourseGradebookCache cache = new CourseGradebookCache(loader, versionCounter, 2, 600);
+    
+    @BeforeEach
+    void setUp() {
+        when(loader.load(anyLong())).thenAnswer(invocation -> empty(invocation.getArgument(0)));
+        when(versionCounter.current(anyLong())).thenReturn(1L);
+    }
+    
+    @Test
+    void reloadsWhenTheCourseVersionChanges() {
+        CourseGradebook first = cache.get(1L);
+        assertSame(first, cache.get(1L));
+        
+        when(versionCounter.current(1L)).thenReturn(2L);
+        assertNotSame(first, cache.get(1L));
+        verify(loader, times(2)).load(1L);
+    }
+    
+    @Test
+    void evictsTheLeastRecentlyUsedCourseWhenFull() {
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        
+        cache.get(3L);
+        assertEquals(2, cache.size());
+        
+        cache.get(1L);
+        verify(loader, times(1)).load(1L);
+        cache.get(2L);
+        verify(loader, times(2)).load(2L);
+    }
+    
+    @Test
+    void invalidateDropsTheCourse() {
+        CourseGradebook first = cache.get(1L);
+        cache.invalidate(1L);
+        
+        assertEquals(0, cache.size());
+        assertNotSame(first, cache.get(1L));
+    }
+    
+    private static CourseGradebook empty(Long courseId) {
+        return new CourseGradebook(courseId, new long[0], new String[0], new long[0], new String[0], new int[0],
+                new long[0], new double[0], new double[0], new long[0], new String[0], new double[0],
+                new double[0], new String[0]);
+    }
+}
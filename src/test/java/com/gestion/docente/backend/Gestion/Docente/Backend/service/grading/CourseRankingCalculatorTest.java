@@ -0,0 +1,60 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseRankingDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseRankingCalculatorTest {
+    
+    private final CourseGradebookCache gradebookCache = mock(CourseGradebookCache.class);
+    private final CourseVersionCounter versionCounter = mock(CourseVersionCounter.class);
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final CourseRankingCalculator calculator = new CourseRankingCalculator(gradebookCache,
+            new GroupedAverageCalculator(0), versionCounter, studentRepository, 2);
+    
+    @BeforeEach
+    void setUp() {
+        when(gradebookCache.get(anyLong())).thenAnswer(invocation -> empty(invocation.getArgument(0)));
+        when(versionCounter.current(anyLong())).thenReturn(1L);
+        when(studentRepository.findAllById(any())).thenReturn(List.of());
+    }
+    
+    @Test
+    void reusesTheRankingUntilTheCourseVersionChanges() {
+        CourseRankingDTO first = calculator.rank(1L, null, null, null, null);
+        assertSame(first, calculator.rank(1L, null, null, null, null));
+        
+        when(versionCounter.current(1L)).thenReturn(2L);
+        assertNotSame(first, calculator.rank(1L, null, null, null, null));
+    }
+    
+    @Test
+    void keepsAtMostMaxCoursesDroppingTheLeastRecentlyUsed() {
+        CourseRankingDTO first = calculator.rank(1L, null, null, null, null);
+        CourseRankingDTO second = calculator.rank(2L, null, null, null, null);
+        calculator.rank(1L, null, null, null, null);
+        
+        calculator.rank(3L, null, null, null, null);
+        assertEquals(2, calculator.cachedCourses());
+        assertSame(first, calculator.rank(1L, null, null, null, null));
+        assertNotSame(second, calculator.rank(2L, null, null, null, null));
+    }
+    
+    private static CourseGradebook empty(Long courseId) {
+        return new CourseGradebook(courseId, new long[0], new String[0], new long[0], new String[0], new int[0],
+                new long[0], new double[0], new double[0], new long[0], new String[0], new double[0],
+                new double[0], new String[0]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeDistributionCache.CourseDistribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GradeDistributionCacheTest {
+    
+    private final CourseGradebookCache gradebookCache = mock(CourseGradebookCache.class);
+    private final GradeDistributionCache cache = new GradeDistributionCache(gradebookCache, 2);
+    
+    @BeforeEach
+    void setUp() {
+        when(gradebookCache.get(anyLong())).thenAnswer(invocation -> gradebook(invocation.getArgument(0), 7.0));
+    }
+    
+    @Test
+    void followsTheGradebookOfTheCurrentVersion() {
+        CourseGradebook first = gradebook(1L, 7.0);
+        when(gradebookCache.get(1L)).thenReturn(first);
+        CourseDistribution distribution = cache.get(1L);
+        assertSame(distribution, cache.get(1L));
+        assertEquals(7.0, distribution.getEvaluation(100L).get(0));
+        
+        // Otra versión del curso: CourseGradebookCache devuelve otra planilla
+        when(gradebookCache.get(1L)).thenReturn(gradebook(1L, 4.0));
+        CourseDistribution updated = cache.get(1L);
+        assertNotSame(distribution, updated);
+        assertEquals(4.0, updated.getCourse().get(0));
+    }
+    
+    @Test
+    void evictsTheLeastRecentlyUsedCourseWhenFull() {
+        when(gradebookCache.get(1L)).thenReturn(gradebook(1L, 7.0));
+        CourseDistribution first = cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        
+        cache.get(3L);
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(1L));
+    }
+    
+    @Test
+    void invalidateDropsTheCourse() {
+        cache.get(1L);
+        cache.invalidate(1L);
+        assertEquals(0, cache.size());
+    }
+    
+    // Un estudiante con una nota en la evaluación 100
+    private static CourseGradebook gradebook(Long courseId, double value) {
+        return new CourseGradebook(courseId, new long[] {10L}, new String[] {"Ana Test"}, new long[] {100L},
+                new String[] {"Parcial"}, new int[] {-1}, new long[] {CourseGradebook.NO_ID},
+                new double[] {Double.NaN}, new double[] {Double.NaN}, new long[0], new String[0], new double[0],
+                new double[] {value}, new String[1]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.grading;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeSimulationResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.RequiredGradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GradeSimulatorTest {
+    
+    private static final long COURSE = 5L;
+    
+    // Evaluaciones 1 y 2 del tipo "Parciales"; la 3 no tiene tipo
+    private static final long FIRST = 1L;
+    private static final long SECOND = 2L;
+    private static final long UNTYPED = 3L;
+    
+    private final CourseGradebookCache gradebookCache = mock(CourseGradebookCache.class);
+    private final GradeSimulator simulator = new GradeSimulator(gradebookCache, new GroupedAverageCalculator(0));
+    private final Course course = new Course();
+    
+    @BeforeEach
+    void setUp() {
+        course.setId(COURSE);
+        course.setApprovalGrade(6.0);
+    }
+    
+    @Test
+    void solvesTheMinimumGradeOrReportsItUnreachable() {
+        // Estudiante 10 tiene 2 en la primera evaluación; el 11 tiene 1
+        when(gradebookCache.get(COURSE)).thenReturn(gradebook(new double[] {
+                2.0, Double.NaN, Double.NaN,
+                1.0, Double.NaN, Double.NaN}));
+        
+        RequiredGradeDTO reachable = simulator.simulate(course, 10L, new GradeSimulationRequestDTO()).getRequiredGrades().get(0);
+        assertEquals(SECOND, reachable.getEvaluationId());
+        assertEquals(10.0, reachable.getMinimumGrade());
+        assertTrue(reachable.getReachable());
+        
+        RequiredGradeDTO unreachable = simulator.simulate(course, 11L, new GradeSimulationRequestDTO()).getRequiredGrades().get(0);
+        assertNull(unreachable.getMinimumGrade());
+        assertFalse(unreachable.getReachable());
+    }
+    
+    @Test
+    void rejectsUntypedEvaluationsInSolveFor() {
+        // Sin notas con tipo el estudiante no tiene promedio final
+        when(gradebookCache.get(COURSE)).thenReturn(gradebook(new double[] {
+                Double.NaN, Double.NaN, 8.0,
+                Double.NaN, Double.NaN, Double.NaN}));
+        
+        GradeSimulationRequestDTO request = new GradeSimulationRequestDTO();
+        request.setSolveFor(List.of(UNTYPED));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> simulator.simulate(course, 10L, request));
+        assertEquals("La evaluación con ID 3 no tiene tipo de evaluación y no cuenta para el promedio final", error.getMessage());
+        
+        request.setSolveFor(List.of(FIRST));
+        GradeSimulationResultDTO result = simulator.simulate(course, 10L, request);
+        assertNull(result.getFinalAverage());
+        assertFalse(result.getApproved());
+        assertEquals(6.0, result.getRequiredGrades().get(0).getMinimumGrade());
+    }
+    
+    private static CourseGradebook gradebook(double[] values) {
+        return new CourseGradebook(COURSE, new long[] {10L, 11L}, new String[] {"Ana Test", "Beto Test"},
+                new long[] {FIRST, SECOND, UNTYPED}, new String[] {"Parcial 1", "Parcial 2", "Trabajo"},
+                new int[] {0, 0, -1}, new long[] {CourseGradebook.NO_ID, CourseGradebook.NO_ID, CourseGradebook.NO_ID},
+                new double[] {Double.NaN, Double.NaN, Double.NaN}, new double[] {Double.NaN, Double.NaN, Double.NaN},
+                new long[] {20L}, new String[] {"Parciales"}, new double[] {Double.NaN},
+                values, new String[values.length]);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.EvaluationAggregateBackfill;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EvaluationServiceImplAggregatesTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private EvaluationAggregateBackfill backfill;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void newEvaluationsStartWithEmptyAggregatesAndFollowGrades() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long evaluationId = createEvaluation(courseId, "P1", null);
+        
+        EvaluationDTO empty = evaluationService.getEvaluationsByCourse(courseId).get(0);
+        assertEquals(0, empty.getGradedCount());
+        assertNull(empty.getAverageGrade());
+        
+        setGrade(courseId, createStudent(courseId, "Ana"), evaluationId, 8.0);
+        setGrade(courseId, createStudent(courseId, "Beto"), evaluationId, 5.0);
+        EvaluationDTO graded = evaluationService.getEvaluationsByCourse(courseId).get(0);
+        assertEquals(2, graded.getGradedCount());
+        assertEquals(6.5, graded.getAverageGrade(), 1e-9);
+        assertEquals(5.0, graded.getMinGrade());
+        assertEquals(8.0, graded.getMaxGrade());
+    }
+    
+    @Test
+    void listingsDoNotWriteAndTheBackfillFillsOldEvaluations() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long evaluationId = createEvaluation(courseId, "P1", null);
+        setGrade(courseId, createStudent(courseId, "Ana"), evaluationId, 7.0);
+        
+        // Como una evaluación anterior a las columnas de agregados
+        jdbcTemplate.update("UPDATE evaluations SET graded_count = NULL, numeric_count = NULL, grade_sum = NULL, "
+                + "min_grade = NULL, max_grade = NULL WHERE id = ?", evaluationId);
+        
+        assertNull(evaluationService.getEvaluationsByCourse(courseId).get(0).getGradedCount());
+        assertNull(gradedCount(evaluationId));
+        
+        backfill.backfill();
+        assertEquals(1, gradedCount(evaluationId));
+        assertEquals(7.0, evaluationService.getEvaluationsByCourse(courseId).get(0).getAverageGrade(), 1e-9);
+    }
+    
+    @Test
+    void onlyTypeOrScaleChangesRebuildTheCourseAverages() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        setGrade(courseId, studentId, evaluationId, 7.0);
+        
+        // Se altera la fila materializada para ver si el curso se reconstruye
+        jdbcTemplate.update("UPDATE student_course_averages SET grade_sum = 0 WHERE student_id = ?", studentId);
+        
+        EvaluationDTO evaluation = evaluationService.getEvaluationsByCourse(courseId).get(0);
+        evaluation.setNombre("Parcial 1");
+        evaluation.setDate(evaluation.getDate().plusDays(1));
+        evaluationService.updateEvaluation(evaluationId, evaluation);
+        assertEquals(0.0, gradeSum(studentId));
+        
+        evaluation.setEvaluationTypeId(createEvaluationType(courseId, "Final", null));
+        evaluationService.updateEvaluation(evaluationId, evaluation);
+        assertEquals(7.0, gradeSum(studentId));
+    }
+    
+    private Double gradeSum(Long studentId) {
+        return jdbcTemplate.queryForObject("SELECT grade_sum FROM student_course_averages WHERE student_id = ?",
+                Double.class, studentId);
+    }
+    
+    private Integer gradedCount(Long evaluationId) {
+        return jdbcTemplate.queryForObject("SELECT graded_count FROM evaluations WHERE id = ?", Integer.class, evaluationId);
+    }
+}
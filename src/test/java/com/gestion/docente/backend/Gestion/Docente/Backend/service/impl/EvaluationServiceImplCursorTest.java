@@ -0,0 +1,75 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CursorPageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluationServiceImplCursorTest extends IntegrationTestSupport {
+    
+    @Test
+    void pagesThroughEvaluationsWithEqualDatesWithoutSkippingOrRepeating() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long typeId = createEvaluationType(courseId, "Parcial", null);
+        
+        // Cinco evaluaciones el mismo día (createEvaluation usa siempre la misma fecha) y una anterior
+        List<Long> sameDay = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            sameDay.add(createEvaluation(courseId, "P" + i, typeId));
+        }
+        EvaluationDTO earlier = new EvaluationDTO();
+        earlier.setNombre("Diagnóstico");
+        earlier.setDate(LocalDate.of(2026, 3, 1));
+        earlier.setTipo("examen");
+        earlier.setEvaluationTypeId(typeId);
+        earlier.setCourseId(courseId);
+        Long first = evaluationService.addEvaluation(earlier).getId();
+        
+        List<Long> expected = new ArrayList<>(List.of(first));
+        expected.addAll(sameDay);
+        
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<EvaluationDTO> page = evaluationService.getEvaluationsByCourse(courseId, cursor, 2, pages == 0);
+            if (pages == 0) {
+                assertEquals(6L, page.getTotalElements());
+            } else {
+                assertNull(page.getTotalElements());
+            }
+            page.getItems().forEach(evaluation -> seen.add(evaluation.getId()));
+            assertEquals(page.getNextCursor() != null, page.getHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+    
+    @Test
+    void rejectsMalformedCursors() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        createEvaluation(courseId, "P1", null);
+        
+        CursorPageDTO<EvaluationDTO> page = evaluationService.getEvaluationsByCourse(courseId, null, 5, false);
+        assertFalse(page.getHasMore());
+        assertEquals(1, page.getItems().size());
+        
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> evaluationService.getEvaluationsByCourse(courseId, "no-es-un-cursor", 5, false));
+        assertEquals("El cursor no es válido", error.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.ExcelService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExcelServiceImplTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private ExcelService excelService;
+    
+    @Test
+    void exportsNamesAndGradesFromTheGradebook() throws Exception {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long beto = createStudent(courseId, "Beto");
+        Long type = createEvaluationType(courseId, "Parcial", null);
+        Long p1 = createEvaluation(courseId, "P1", type);
+        Long p2 = createEvaluation(courseId, "P2", type);
+        setGrade(courseId, ana, p1, 8.0);
+        setGrade(courseId, ana, p2, 6.0);
+        setGrade(courseId, beto, p2, 4.0);
+        
+        try (InputStream input = excelService.generateGradesExcel(courseId).getInputStream();
+             XSSFWorkbook workbook = new XSSFWorkbook(input)) {
+            Sheet sheet = workbook.getSheet("Notas");
+            Row header = sheet.getRow(3);
+            assertEquals("Estudiante", header.getCell(0).getStringCellValue());
+            assertEquals("P1", header.getCell(1).getStringCellValue());
+            assertEquals("P2", header.getCell(2).getStringCellValue());
+            assertEquals("Prom. Parcial", header.getCell(3).getStringCellValue());
+            
+            Row first = sheet.getRow(4);
+            assertEquals("Ana Test", first.getCell(0).getStringCellValue());
+            assertEquals(8.0, first.getCell(1).getNumericCellValue(), 1e-9);
+            assertEquals(7.0, first.getCell(4).getNumericCellValue(), 1e-9);
+            
+            Row second = sheet.getRow(5);
+            assertEquals("Beto Test", second.getCell(0).getStringCellValue());
+            assertEquals("", second.getCell(1).getStringCellValue());
+            assertEquals(4.0, second.getCell(2).getNumericCellValue(), 1e-9);
+        }
+    }
+    
+    @Test
+    void rejectsCoursesOfOtherProfessors() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        
+        loginAsNewProfessor();
+        assertThrows(IllegalArgumentException.class, () -> excelService.generateGradesExcel(courseId));
+    }
+}
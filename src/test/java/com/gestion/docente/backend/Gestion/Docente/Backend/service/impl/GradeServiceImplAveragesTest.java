@@ -0,0 +1,198 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationTypeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GroupedAverageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentAverageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentGroupedAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Grade;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationTypeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.GradeRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentCourseAverageRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentTypeAverageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los promedios materializados tienen que coincidir siempre con los que se calculan desde las notas,
+ * y las lecturas de promedios no escriben.
+ */
+class GradeServiceImplAveragesTest extends IntegrationTestSupport {
+    
+    private static final double DELTA = 1e-9;
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+    
+    @Autowired
+    private EvaluationTypeRepository evaluationTypeRepository;
+    
+    @Autowired
+    private StudentCourseAverageRepository courseAverageRepository;
+    
+    @Autowired
+    private StudentTypeAverageRepository typeAverageRepository;
+    
+    private Long courseId;
+    private Long ana;
+    private Long beto;
+    private Long parcial;
+    private Long p1;
+    private Long p2;
+    private Long tp1;
+    
+    @BeforeEach
+    void setUp() {
+        loginAsNewProfessor();
+        courseId = createCourse();
+        ana = createStudent(courseId, "Ana");
+        beto = createStudent(courseId, "Beto");
+        createStudent(courseId, "Caro"); // Sin notas
+        parcial = createEvaluationType(courseId, "Parcial", 60.0);
+        Long tp = createEvaluationType(courseId, "TP", null);
+        p1 = createEvaluation(courseId, "P1", parcial);
+        p2 = createEvaluation(courseId, "P2", parcial);
+        tp1 = createEvaluation(courseId, "TP1", tp);
+    }
+    
+    @Test
+    void readsDoNotMaterializeTheCourse() {
+        setGradeWithoutMaterializing();
+        
+        gradeService.getAveragesByCourse(courseId);
+        gradeService.getGroupedAveragesByCourse(courseId);
+        gradeService.getGroupedAverages(ana, courseId);
+        gradeService.calculateAverage(ana, courseId, null);
+        
+        assertFalse(courseAverageRepository.existsByCourseId(courseId));
+        assertMatchesGrades();
+    }
+    
+    @Test
+    void materializedAveragesFollowGradeWrites() {
+        setGrade(courseId, ana, p1, 8.0);
+        setGrade(courseId, ana, p2, 6.0);
+        setGrade(courseId, ana, tp1, 10.0);
+        setGrade(courseId, beto, p1, 4.0);
+        setGrade(courseId, beto, tp1, 7.0);
+        assertTrue(courseAverageRepository.existsByCourseId(courseId));
+        assertMatchesGrades();
+        
+        // Ana: Parcial 7 (peso 60) y TP 10 (peso 100/2 = 50) -> (7*60 + 10*50) / 110
+        StudentGroupedAveragesDTO anaAverages = gradeService.getGroupedAverages(ana, courseId);
+        assertEquals((7.0 * 60 + 10.0 * 50) / 110, anaAverages.getFinalAverage(), DELTA);
+        
+        setGrade(courseId, ana, p2, 9.0);
+        assertMatchesGrades();
+    }
+    
+    @Test
+    void materializedAveragesFollowEvaluationDeletesAndWeightEdits() {
+        setGrade(courseId, ana, p1, 8.0);
+        setGrade(courseId, ana, p2, 6.0);
+        setGrade(courseId, beto, p2, 5.0);
+        setGrade(courseId, beto, tp1, 7.0);
+        
+        evaluationService.deleteEvaluation(p2);
+        assertMatchesGrades();
+        
+        EvaluationTypeDTO weight = new EvaluationTypeDTO();
+        weight.setNombre("Parcial");
+        weight.setCourseId(courseId);
+        weight.setWeight(20.0);
+        evaluationTypeService.updateEvaluationType(parcial, weight);
+        assertMatchesGrades();
+    }
+    
+    /**
+     * Deja notas cargadas sin filas materializadas, como en un curso anterior a las tablas de promedios.
+     */
+    private void setGradeWithoutMaterializing() {
+        setGrade(courseId, ana, p1, 8.0);
+        setGrade(courseId, beto, tp1, 6.0);
+        typeAverageRepository.deleteAll(typeAverageRepository.findByCourseId(courseId));
+        courseAverageRepository.deleteAll(courseAverageRepository.findByCourseId(courseId));
+    }
+    
+    /**
+     * Compara lo que devuelven las lecturas con los promedios calculados acá desde las notas:
+     * promedio simple de las notas numéricas, promedio de cada tipo y final ponderado por tipo
+     * (los tipos sin peso reparten el 100% en partes iguales).
+     */
+    private void assertMatchesGrades() {
+        Map<Long, Long> typeByEvaluation = evaluationRepository.findByCourseId(courseId).stream()
+                .filter(evaluation -> evaluation.getEvaluationTypeId() != null)
+                .collect(Collectors.toMap(Evaluation::getId, Evaluation::getEvaluationTypeId));
+        Map<Long, Double> weights = new HashMap<>();
+        evaluationTypeRepository.findByCourseId(courseId)
+                .forEach(type -> weights.put(type.getId(), type.getWeight()));
+        Map<Long, List<Grade>> gradesByStudent = gradeRepository.findByCourseId(courseId).stream()
+                .filter(grade -> grade.getGrade() != null)
+                .collect(Collectors.groupingBy(Grade::getStudentId));
+        
+        for (StudentAverageDTO average : gradeService.getAveragesByCourse(courseId)) {
+            List<Grade> grades = gradesByStudent.getOrDefault(average.getStudentId(), List.of());
+            assertEquals(grades.size(), average.getGradesCount());
+            if (grades.isEmpty()) {
+                assertNull(average.getAverage());
+            } else {
+                double expected = grades.stream().mapToDouble(Grade::getGrade).average().orElseThrow();
+                assertEquals(expected, average.getAverage(), DELTA);
+                assertEquals(expected, gradeService.calculateAverage(average.getStudentId(), courseId, null), DELTA);
+            }
+        }
+        
+        for (StudentGroupedAveragesDTO student : gradeService.getGroupedAveragesByCourse(courseId)) {
+            Map<Long, double[]> byType = new TreeMap<>(); // tipo -> {suma, cantidad}
+            for (Grade grade : gradesByStudent.getOrDefault(student.getStudentId(), List.of())) {
+                Long type = typeByEvaluation.get(grade.getEvaluationId());
+                if (type != null) {
+                    double[] totals = byType.computeIfAbsent(type, id -> new double[2]);
+                    totals[0] += grade.getGrade();
+                    totals[1]++;
+                }
+            }
+            
+            Map<Long, Double> actual = student.getGroupedAverages().stream()
+                    .collect(Collectors.toMap(GroupedAverageDTO::getEvaluationTypeId, GroupedAverageDTO::getAverage));
+            assertEquals(byType.keySet(), actual.keySet());
+            
+            double totalWeight = 0.0;
+            double weightedSum = 0.0;
+            for (Map.Entry<Long, double[]> entry : byType.entrySet()) {
+                double typeAverage = entry.getValue()[0] / entry.getValue()[1];
+                assertEquals(typeAverage, actual.get(entry.getKey()), DELTA);
+                Double weight = weights.get(entry.getKey());
+                double effectiveWeight = weight != null ? weight : 100.0 / byType.size();
+                totalWeight += effectiveWeight;
+                weightedSum += typeAverage * effectiveWeight;
+            }
+            if (byType.isEmpty()) {
+                assertNull(student.getFinalAverage());
+            } else {
+                assertEquals(weightedSum / totalWeight, student.getFinalAverage(), DELTA);
+            }
+            
+            StudentGroupedAveragesDTO single = gradeService.getGroupedAverages(student.getStudentId(), courseId);
+            assertEquals(student.getFinalAverage(), single.getFinalAverage());
+            assertEquals(student.getGroupedAverages(), single.getGroupedAverages());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.BulkGradeResultDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Professor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradeServiceImplBulkTest extends IntegrationTestSupport {
+    
+    @Test
+    void applyGradesBulkOnlyWritesOnBehalfOfTheCourseOwner() {
+        Professor owner = loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        Professor other = loginAsNewProfessor();
+        
+        // Como el hilo del autoguardado: sin profesor autenticado
+        SecurityContextHolder.clearContext();
+        BulkGradeRequestDTO request = new BulkGradeRequestDTO(courseId, List.of(grade(studentId, evaluationId, 7.0)));
+        assertThrows(IllegalArgumentException.class, () -> gradeService.applyGradesBulk(request, other.getId()));
+        assertThrows(IllegalArgumentException.class, () -> gradeService.applyGradesBulk(request, null));
+        
+        BulkGradeResultDTO result = gradeService.applyGradesBulk(request, owner.getId());
+        assertEquals(1, result.getCreated());
+        
+        loginAs(owner);
+        assertEquals(7.0, gradeService.calculateAverage(studentId, courseId, null), 1e-9);
+    }
+    
+    private static GradeDTO grade(Long studentId, Long evaluationId, Double value) {
+        GradeDTO grade = new GradeDTO();
+        grade.setStudentId(studentId);
+        grade.setEvaluationId(evaluationId);
+        grade.setGrade(value);
+        return grade;
+    }
+}
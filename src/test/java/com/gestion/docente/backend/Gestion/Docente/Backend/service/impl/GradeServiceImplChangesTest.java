@@ -0,0 +1,118 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeServiceImplChangesTest extends IntegrationTestSupport {
+    
+    @Test
+    void snapshotThenOnlyTheChangesAfterTheCursor() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long beto = createStudent(courseId, "Beto");
+        Long type = createEvaluationType(courseId, "Parcial", null);
+        Long p1 = createEvaluation(courseId, "P1", type);
+        GradeDTO anaP1 = setGrade(courseId, ana, p1, 8.0);
+        
+        GradeChangesDTO snapshot = gradeService.getGradeChanges(courseId, null, null);
+        assertTrue(snapshot.getSnapshot());
+        assertFalse(snapshot.getHasMore());
+        assertEquals(1, snapshot.getChanges().size());
+        assertEquals(anaP1.getId(), snapshot.getChanges().get(0).getGradeId());
+        assertEquals("UPSERT", snapshot.getChanges().get(0).getOperation());
+        
+        setGrade(courseId, ana, p1, 9.0);
+        GradeDTO betoP1 = setGrade(courseId, beto, p1, 4.0);
+        
+        GradeChangesDTO changes = gradeService.getGradeChanges(courseId, snapshot.getCursor(), null);
+        assertFalse(changes.getSnapshot());
+        assertFalse(changes.getHasMore());
+        assertEquals(List.of(anaP1.getId(), betoP1.getId()), gradeIds(changes));
+        assertEquals(9.0, changes.getChanges().get(0).getGrade());
+        assertTrue(Long.parseLong(changes.getCursor()) > Long.parseLong(snapshot.getCursor()));
+        
+        // Sin cambios nuevos: lista vacía y el mismo cursor
+        GradeChangesDTO none = gradeService.getGradeChanges(courseId, changes.getCursor(), null);
+        assertTrue(none.getChanges().isEmpty());
+        assertEquals(changes.getCursor(), none.getCursor());
+    }
+    
+    @Test
+    void pagesByLimitKeepingTheLastStateOfEachGrade() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long beto = createStudent(courseId, "Beto");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        String cursor = gradeService.getGradeChanges(courseId, null, null).getCursor();
+        
+        GradeDTO anaP1 = setGrade(courseId, ana, p1, 5.0);
+        setGrade(courseId, ana, p1, 6.0);
+        setGrade(courseId, ana, p1, 7.0);
+        GradeDTO betoP1 = setGrade(courseId, beto, p1, 3.0);
+        
+        GradeChangesDTO first = gradeService.getGradeChanges(courseId, cursor, 2);
+        assertTrue(first.getHasMore());
+        assertEquals(List.of(anaP1.getId()), gradeIds(first));
+        assertEquals(6.0, first.getChanges().get(0).getGrade());
+        
+        GradeChangesDTO second = gradeService.getGradeChanges(courseId, first.getCursor(), 2);
+        assertFalse(second.getHasMore());
+        assertEquals(List.of(anaP1.getId(), betoP1.getId()), gradeIds(second));
+        assertEquals(7.0, second.getChanges().get(0).getGrade());
+    }
+    
+    @Test
+    void reportsDeletedGrades() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long ana = createStudent(courseId, "Ana");
+        Long p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        GradeDTO anaP1 = setGrade(courseId, ana, p1, 5.0);
+        String cursor = gradeService.getGradeChanges(courseId, null, null).getCursor();
+        
+        evaluationService.deleteEvaluation(p1);
+        
+        GradeChangesDTO changes = gradeService.getGradeChanges(courseId, cursor, null);
+        assertEquals(1, changes.getChanges().size());
+        GradeChangeDTO deleted = changes.getChanges().get(0);
+        assertEquals("DELETE", deleted.getOperation());
+        assertEquals(anaP1.getId(), deleted.getGradeId());
+        assertNull(deleted.getGrade());
+        assertTrue(gradeService.getGradeChanges(courseId, null, null).getChanges().isEmpty());
+    }
+    
+    @Test
+    void rejectsInvalidCursorsAndOtherProfessors() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        String cursor = gradeService.getGradeChanges(courseId, null, null).getCursor();
+        
+        assertThrows(IllegalArgumentException.class, () -> gradeService.getGradeChanges(courseId, "abc", null));
+        assertThrows(IllegalArgumentException.class, () -> gradeService.getGradeChanges(courseId, "-1", null));
+        assertThrows(IllegalArgumentException.class, () ->
+                gradeService.getGradeChanges(courseId, String.valueOf(Long.parseLong(cursor) + 1), null));
+        
+        loginAsNewProfessor();
+        assertThrows(IllegalArgumentException.class, () -> gradeService.getGradeChanges(courseId, null, null));
+    }
+    
+    private static List<Long> gradeIds(GradeChangesDTO changes) {
+        return changes.getChanges().stream()
+                .map(GradeChangeDTO::getGradeId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.AcademicStatus;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.CourseStatusReportDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentStatusDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Course;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.Evaluation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.CourseRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.EvaluationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeServiceImplStatusTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+    
+    private Long courseId;
+    private Long p1;
+    
+    @BeforeEach
+    void setUp() {
+        loginAsNewProfessor();
+        courseId = createCourse();
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        course.setApprovalGrade(6.0);
+        course.setQualificationGrade(4.0);
+        courseRepository.save(course);
+        p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+    }
+    
+    @Test
+    void classifiesAtTheApprovalAndQualificationBoundaries() {
+        Long ana = gradedStudent("Ana", 6.0);
+        Long beto = gradedStudent("Beto", 5.99);
+        Long caro = gradedStudent("Caro", 4.0);
+        Long dani = gradedStudent("Dani", 3.99);
+        Long eli = createStudent(courseId, "Eli");
+        
+        CourseStatusReportDTO report = gradeService.getStatusReport(courseId, null, null);
+        assertEquals(Map.of(ana, AcademicStatus.APPROVED, beto, AcademicStatus.QUALIFIED, caro, AcademicStatus.QUALIFIED,
+                dani, AcademicStatus.FAILING, eli, AcademicStatus.NO_GRADES), statuses(report));
+        assertEquals(3, report.getAtRiskCount());
+        assertEquals(2, report.getSummary().get(AcademicStatus.QUALIFIED));
+        
+        CourseStatusReportDTO atRisk = gradeService.getStatusReport(courseId, List.of(AcademicStatus.QUALIFIED), true);
+        assertEquals(Map.of(beto, AcademicStatus.QUALIFIED, caro, AcademicStatus.QUALIFIED), statuses(atRisk));
+        assertEquals(5, atRisk.getStudentsCount());
+    }
+    
+    @Test
+    void evaluationThresholdsOverrideTheCourseOnesForTheirType() {
+        Evaluation evaluation = evaluationRepository.findById(p1).orElseThrow();
+        evaluation.setApprovalGrade(8.0);
+        evaluationRepository.save(evaluation);
+        Long ana = gradedStudent("Ana", 7.0);
+        
+        // Aprueba el curso (7 >= 6) pero no el tipo, cuyo mínimo sale de la evaluación (8)
+        StudentStatusDTO status = gradeService.getStatusReport(courseId, null, null).getStudents().get(0);
+        assertEquals(ana, status.getStudentId());
+        assertEquals(AcademicStatus.APPROVED, status.getStatus());
+        assertEquals(AcademicStatus.QUALIFIED, status.getTypes().get(0).getStatus());
+        assertEquals(8.0, status.getTypes().get(0).getApprovalGrade());
+        assertTrue(status.getAtRisk());
+        
+        assertFalse(gradeService.getStatusReport(courseId, null, false).getStudents().stream()
+                .anyMatch(student -> student.getStudentId().equals(ana)));
+    }
+    
+    private Long gradedStudent(String name, double grade) {
+        Long studentId = createStudent(courseId, name);
+        setGrade(courseId, studentId, p1, grade);
+        return studentId;
+    }
+    
+    private static Map<Long, AcademicStatus> statuses(CourseStatusReportDTO report) {
+        return report.getStudents().stream()
+                .collect(Collectors.toMap(StudentStatusDTO::getStudentId, StudentStatusDTO::getStatus));
+    }
+}
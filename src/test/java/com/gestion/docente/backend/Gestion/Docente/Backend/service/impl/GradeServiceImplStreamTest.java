@@ -0,0 +1,67 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradeServiceImplStreamTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void streamsTheCourseGradesAsAJsonArrayOrderedById() throws IOException {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long otherCourseId = createCourse();
+        Long p1 = createEvaluation(courseId, "P1", null);
+        Long p2 = createEvaluation(courseId, "P2", null);
+        Long ana = createStudent(courseId, "Ana");
+        Long beto = createStudent(courseId, "Beto");
+        Long first = setGrade(courseId, ana, p1, 8.0).getId();
+        Long second = setGrade(courseId, beto, p1, 5.5).getId();
+        Long third = setGrade(courseId, ana, p2, 9.0).getId();
+        // Una nota de otro curso no aparece en el listado
+        setGrade(otherCourseId, createStudent(otherCourseId, "Caro"),
+                createEvaluation(otherCourseId, "P1", null), 7.0);
+        
+        List<GradeDTO> grades = objectMapper.readValue(stream(courseId), new TypeReference<List<GradeDTO>>() {});
+        
+        assertEquals(List.of(first, second, third), grades.stream().map(GradeDTO::getId).collect(Collectors.toList()));
+        assertEquals(List.of(8.0, 5.5, 9.0), grades.stream().map(GradeDTO::getGrade).collect(Collectors.toList()));
+        assertEquals(List.of(ana, beto, ana), grades.stream().map(GradeDTO::getStudentId).collect(Collectors.toList()));
+        assertEquals(courseId, grades.get(0).getCourseId());
+    }
+    
+    @Test
+    void streamsAnEmptyArrayForACourseWithoutGrades() throws IOException {
+        loginAsNewProfessor();
+        assertEquals("[]", stream(createCourse()));
+    }
+    
+    @Test
+    void rejectsCoursesOfOtherProfessorsBeforeWriting() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        loginAsNewProfessor();
+        assertThrows(IllegalArgumentException.class, () -> gradeService.streamGradesByCourse(courseId));
+    }
+    
+    private String stream(Long courseId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gradeService.streamGradesByCourse(courseId).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.EvaluationDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentAverageDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectAveragesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.SubjectDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.SubjectService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GradeServiceImplSubjectAveragesTest extends IntegrationTestSupport {
+    
+    private static final double DELTA = 1e-9;
+    
+    @Autowired
+    private SubjectService subjectService;
+    
+    @Test
+    void averagesEachStudentPerSubjectOnlyWithThatSubjectsGrades() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long math = createSubject(courseId, "Matemática");
+        Long language = createSubject(courseId, "Lengua");
+        Long typeId = createEvaluationType(courseId, "Parcial", null);
+        Long math1 = createEvaluation(courseId, "Mate 1", typeId, math);
+        Long math2 = createEvaluation(courseId, "Mate 2", typeId, math);
+        Long language1 = createEvaluation(courseId, "Lengua 1", typeId, language);
+        Long ana = createStudent(courseId, "Ana");
+        Long beto = createStudent(courseId, "Beto");
+        setGrade(courseId, ana, math1, 8.0);
+        setGrade(courseId, ana, math2, 6.0);
+        setGrade(courseId, ana, language1, 5.0);
+        setGrade(courseId, beto, math1, 4.0);
+        
+        assertEquals(7.0, gradeService.calculateAverage(ana, courseId, math), DELTA);
+        assertEquals(5.0, gradeService.calculateAverage(ana, courseId, language), DELTA);
+        assertNull(gradeService.calculateAverage(beto, courseId, language));
+        
+        Map<Long, SubjectAveragesDTO> bySubject = gradeService.getSubjectAveragesByCourse(courseId).stream()
+                .collect(Collectors.toMap(SubjectAveragesDTO::getSubjectId, subject -> subject));
+        // La materia default del curso también aparece, sin notas
+        assertEquals(3, bySubject.size());
+        
+        Map<Long, StudentAverageDTO> mathAverages = byStudent(bySubject.get(math));
+        assertEquals(7.0, mathAverages.get(ana).getAverage(), DELTA);
+        assertEquals(2, mathAverages.get(ana).getGradesCount());
+        assertEquals(4.0, mathAverages.get(beto).getAverage(), DELTA);
+        
+        StudentAverageDTO betoLanguage = byStudent(bySubject.get(language)).get(beto);
+        assertNull(betoLanguage.getAverage());
+        assertFalse(betoLanguage.getHasGrades());
+        assertEquals(0, betoLanguage.getGradesCount());
+    }
+    
+    private Long createSubject(Long courseId, String name) {
+        SubjectDTO subject = new SubjectDTO();
+        subject.setName(name);
+        subject.setCourseId(courseId);
+        return subjectService.createSubject(subject).getId();
+    }
+    
+    private Long createEvaluation(Long courseId, String nombre, Long evaluationTypeId, Long subjectId) {
+        EvaluationDTO evaluation = new EvaluationDTO();
+        evaluation.setNombre(nombre);
+        evaluation.setDate(LocalDate.of(2026, 5, 1));
+        evaluation.setTipo("examen");
+        evaluation.setEvaluationTypeId(evaluationTypeId);
+        evaluation.setCourseId(courseId);
+        evaluation.setSubjectId(subjectId);
+        return evaluationService.addEvaluation(evaluation).getId();
+    }
+    
+    private static Map<Long, StudentAverageDTO> byStudent(SubjectAveragesDTO subject) {
+        return subject.getStudents().stream()
+                .collect(Collectors.toMap(StudentAverageDTO::getStudentId, student -> student));
+    }
+}
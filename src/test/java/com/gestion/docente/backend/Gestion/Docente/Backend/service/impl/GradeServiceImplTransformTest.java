@@ -0,0 +1,100 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeChangesDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformOperation;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformRequestDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.GradeTransformResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradeServiceImplTransformTest extends IntegrationTestSupport {
+    
+    private Long courseId;
+    private Long ana;
+    private Long beto;
+    private Long p1;
+    
+    @BeforeEach
+    void setUp() {
+        loginAsNewProfessor();
+        courseId = createCourse();
+        ana = createStudent(courseId, "Ana");
+        beto = createStudent(courseId, "Beto");
+        p1 = createEvaluation(courseId, "P1", createEvaluationType(courseId, "Parcial", null));
+        setGrade(courseId, ana, p1, 8.0);
+        setGrade(courseId, beto, p1, 4.0);
+    }
+    
+    @Test
+    void addRejectsResultsOutOfRangeUnlessClampIsRequested() {
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.ADD, 3.0, null, null, false));
+        assertEquals(Map.of(ana, 8.0, beto, 4.0), grades());
+        
+        transform(GradeTransformOperation.ADD, 3.0, null, null, true);
+        assertEquals(Map.of(ana, 10.0, beto, 7.0), grades());
+        assertEquals(10.0, gradeService.calculateAverage(ana, courseId, null), 1e-9);
+        
+        transform(GradeTransformOperation.ADD, -8.0, null, null, true);
+        assertEquals(Map.of(ana, 2.0, beto, 0.0), grades());
+    }
+    
+    @Test
+    void rejectsOperandsOutsideTheGradeRange() {
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.ADD, 11.0, null, null, true));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.ADD, null, null, null, true));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.SCALE, 0.0, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.SCALE, 10.5, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.CLAMP, null, -1.0, null, false));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.CLAMP, null, null, 11.0, false));
+        assertThrows(IllegalArgumentException.class, () -> transform(GradeTransformOperation.CLAMP, null, 7.0, 5.0, false));
+        assertEquals(Map.of(ana, 8.0, beto, 4.0), grades());
+    }
+    
+    @Test
+    void scaleAndClampStayWithinTheRequestedBounds() {
+        transform(GradeTransformOperation.SCALE, null, null, null, false);
+        assertEquals(Map.of(ana, 10.0, beto, 5.0), grades());
+        
+        transform(GradeTransformOperation.CLAMP, null, 6.0, 9.0, false);
+        assertEquals(Map.of(ana, 9.0, beto, 6.0), grades());
+        assertEquals(6.0, gradeService.calculateAverage(beto, courseId, null), 1e-9);
+    }
+    
+    @Test
+    void onlyGradesWhoseValueChangesAreCountedAndLogged() {
+        String cursor = gradeService.getGradeChanges(courseId, null, null).getCursor();
+        
+        // Ninguna nota fuera de [0, 10]: no se modifica ni se registra nada
+        GradeTransformResultDTO untouched = transform(GradeTransformOperation.CLAMP, null, null, null, false);
+        assertEquals(0, untouched.getUpdated());
+        assertEquals(2, untouched.getSkipped());
+        assertEquals(0, gradeService.getGradeChanges(courseId, cursor, null).getChanges().size());
+        
+        // Solo la nota de Beto queda por debajo del mínimo
+        GradeTransformResultDTO clamped = transform(GradeTransformOperation.CLAMP, null, 5.0, null, false);
+        assertEquals(1, clamped.getUpdated());
+        assertEquals(1, clamped.getSkipped());
+        GradeChangesDTO changes = gradeService.getGradeChanges(courseId, cursor, null);
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(Map.of(ana, 8.0, beto, 5.0), grades());
+    }
+    
+    private GradeTransformResultDTO transform(GradeTransformOperation operation, Double value, Double min, Double max,
+                                              boolean clamp) {
+        GradeTransformRequestDTO request = new GradeTransformRequestDTO(operation, value, min, max, clamp);
+        return gradeService.transformGrades(p1, request);
+    }
+    
+    private Map<Long, Double> grades() {
+        return gradeService.getGradesByEvaluation(p1).stream()
+                .collect(Collectors.toMap(GradeDTO::getStudentId, GradeDTO::getGrade));
+    }
+}
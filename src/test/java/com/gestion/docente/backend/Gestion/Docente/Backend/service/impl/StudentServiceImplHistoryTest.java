@@ -0,0 +1,49 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentCourseHistoryDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentCourseAverageRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentTypeAverageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class StudentServiceImplHistoryTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private StudentCourseAverageRepository courseAverageRepository;
+    
+    @Autowired
+    private StudentTypeAverageRepository typeAverageRepository;
+    
+    @Test
+    void historyOfAnUnmaterializedCourseIsComputedWithoutWriting() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        String document = UUID.randomUUID().toString();
+        StudentDTO student = new StudentDTO();
+        student.setFirstName("Ana");
+        student.setDocument(document);
+        student.setCourseId(courseId);
+        Long studentId = studentService.addStudentToCourse(student).getId();
+        Long type = createEvaluationType(courseId, "Parcial", null);
+        setGrade(courseId, studentId, createEvaluation(courseId, "P1", type), 8.0);
+        setGrade(courseId, studentId, createEvaluation(courseId, "P2", type), 5.0);
+        
+        // Como un curso anterior a las tablas de promedios
+        typeAverageRepository.deleteAll(typeAverageRepository.findByCourseId(courseId));
+        courseAverageRepository.deleteAll(courseAverageRepository.findByCourseId(courseId));
+        
+        List<StudentCourseHistoryDTO> history = studentService.getStudentHistory(document, null);
+        assertEquals(1, history.size());
+        assertEquals(6.5, history.get(0).getFinalAverage(), 1e-9);
+        assertEquals(2, history.get(0).getGradesCount());
+        assertFalse(courseAverageRepository.existsByCourseId(courseId));
+    }
+}
@@ -0,0 +1,60 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.impl;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import com.gestion.docente.backend.Gestion.Docente.Backend.dto.StudentDTO;
+import com.gestion.docente.backend.Gestion.Docente.Backend.model.StudentCourseAverage;
+import com.gestion.docente.backend.Gestion.Docente.Backend.repository.StudentCourseAverageRepository;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.grading.GradeDistributionCache;
+import com.gestion.docente.backend.Gestion.Docente.Backend.service.sync.CourseVersionCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentServiceImplMoveTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private StudentCourseAverageRepository courseAverageRepository;
+    
+    @Autowired
+    private GradeDistributionCache distributionCache;
+    
+    @Autowired
+    private CourseVersionCounter versionCounter;
+    
+    @Test
+    void movingAStudentRefreshesBothCourses() {
+        loginAsNewProfessor();
+        Long from = createCourse();
+        Long to = createCourse();
+        Long ana = createStudent(from, "Ana");
+        Long beto = createStudent(to, "Beto");
+        Long evaluationId = createEvaluation(from, "Parcial", createEvaluationType(from, "Parciales", 1.0));
+        setGrade(from, ana, evaluationId, 8.0);
+        
+        assertEquals(1, distributionCache.get(from).getCourse().size());
+        long fromVersion = versionCounter.current(from);
+        long toVersion = versionCounter.current(to);
+        
+        StudentDTO move = new StudentDTO();
+        move.setCourseId(to);
+        studentService.updateStudent(ana, move);
+        
+        assertEquals(List.of(), studentIds(from));
+        assertEquals(List.of(ana, beto), studentIds(to));
+        assertEquals(0, distributionCache.get(from).getCourse().size());
+        assertTrue(versionCounter.current(from) > fromVersion);
+        assertTrue(versionCounter.current(to) > toVersion);
+    }
+    
+    private List<Long> studentIds(Long courseId) {
+        return courseAverageRepository.findByCourseId(courseId).stream()
+                .map(StudentCourseAverage::getStudentId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,67 @@
+package com.gestion.docente.backend.Gestion.Docente.Backend.service.sync;
+
+import com.gestion.docente.backend.Gestion.Docente.Backend.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseChangeTrackerTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private CourseVersionCounter versionCounter;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void theVersionBecomesVisibleTogetherWithTheData() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "Parcial", createEvaluationType(courseId, "Parciales", 1.0));
+        long before = versionCounter.current(courseId);
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            setGrade(courseId, studentId, evaluationId, 7.0);
+            // Antes del commit, otro hilo sigue viendo la versión anterior
+            assertEquals(before, currentFromAnotherThread(courseId));
+        });
+        
+        assertTrue(versionCounter.current(courseId) > before);
+    }
+    
+    @Test
+    void aRolledBackWriteKeepsTheVersion() {
+        loginAsNewProfessor();
+        Long courseId = createCourse();
+        Long studentId = createStudent(courseId, "Ana");
+        Long evaluationId = createEvaluation(courseId, "Parcial", createEvaluationType(courseId, "Parciales", 1.0));
+        long before = versionCounter.current(courseId);
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            setGrade(courseId, studentId, evaluationId, 7.0);
+            status.setRollbackOnly();
+        });
+        
+        assertEquals(before, versionCounter.current(courseId));
+        assertTrue(gradeService.getGradesByEvaluation(evaluationId).isEmpty());
+    }
+    
+    private long currentFromAnotherThread(Long courseId) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> versionCounter.current(courseId)).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}